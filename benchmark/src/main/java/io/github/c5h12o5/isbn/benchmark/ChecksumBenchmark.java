@@ -0,0 +1,84 @@
+package io.github.c5h12o5.isbn.benchmark;
+
+import io.github.c5h12o5.isbn.ISBN;
+import io.github.c5h12o5.isbn.ISBNChecksum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the batch validation of {@link ISBNChecksum}, each invocation validates a column of all compacted
+ * ISBN-13 codes of the dataset separated by line feeds.
+ * <p>
+ * The vectorized benchmarks add the incubating Vector API to the forked JVM, so they must be run on Java 17 or later.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChecksumBenchmark {
+
+    private static final int STRIDE = ISBN.ISBN_13_LENGTH + 1;
+
+    private String[] inputs;
+    private byte[] column;
+    private ByteBuffer directColumn;
+
+    @Setup
+    public void setup() {
+        inputs = Dataset.ISBN13.generate();
+        StringBuilder sb = new StringBuilder(inputs.length * STRIDE);
+        for (String input : inputs) {
+            sb.append(input).append('\n');
+        }
+        column = sb.toString().getBytes(StandardCharsets.US_ASCII);
+        directColumn = ByteBuffer.allocateDirect(column.length);
+        directColumn.put(column);
+    }
+
+    @Benchmark
+    public int isValidISBN13Loop() {
+        int valid = 0;
+        for (String input : inputs) {
+            if (ISBNChecksum.isValidISBN13(input)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public BitSet validateRows() {
+        return ISBNChecksum.validateISBN13Rows(column, 0, STRIDE, inputs.length);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public BitSet validateRowsVectorized() {
+        return ISBNChecksum.validateISBN13Rows(column, 0, STRIDE, inputs.length);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public BitSet validateDirectRowsVectorized() {
+        return ISBNChecksum.validateISBN13Rows(directColumn, 0, STRIDE, inputs.length);
+    }
+}
@@ -0,0 +1,238 @@
+package io.github.c5h12o5.isbn.benchmark;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The datasets of ISBN inputs used by the benchmarks, they are generated from the ranges of the bundled
+ * RangeMessage.xml file, so that every valid input can be split by the library.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public enum Dataset {
+
+    /** Valid ISBN-13 codes without separators. */
+    ISBN13,
+    /** Valid ISBN-13 codes separated by hyphens. */
+    HYPHENATED_ISBN13,
+    /** Valid ISBN-13 codes separated by spaces. */
+    SPACED_ISBN13,
+    /** Valid ISBN-10 codes without separators. */
+    ISBN10,
+    /** Valid ISBN-10 codes separated by hyphens. */
+    HYPHENATED_ISBN10,
+    /** Valid hyphenated ISBN-13 codes with the GS1 prefix 978. */
+    PREFIX_978,
+    /** Valid hyphenated ISBN-13 codes with the GS1 prefix 979. */
+    PREFIX_979,
+    /** Invalid codes with wrong check digits, misplaced or mixed separators. */
+    INVALID;
+
+    /** The number of inputs in each dataset. */
+    public static final int SIZE = 4096;
+
+    private static final long SEED = 20231222L;
+    private static final String RANGE_MESSAGE_FILE = "/RangeMessage.xml";
+    private static final List<Rule> RULES = loadRules();
+
+    /**
+     * Generate the inputs of this dataset.
+     *
+     * @return the generated inputs
+     */
+    public String[] generate() {
+        Random random = new Random(SEED + ordinal());
+        String[] inputs = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            inputs[i] = generate(random);
+        }
+        return inputs;
+    }
+
+    /**
+     * Generate an input of this dataset.
+     *
+     * @param random the random generator
+     * @return the generated input
+     */
+    private String generate(Random random) {
+        switch (this) {
+            case ISBN13:
+                return randomElements(random, null).toISBN13("");
+            case HYPHENATED_ISBN13:
+                return randomElements(random, null).toISBN13("-");
+            case SPACED_ISBN13:
+                return randomElements(random, null).toISBN13(" ");
+            case ISBN10:
+                return randomElements(random, "978").toISBN10("");
+            case HYPHENATED_ISBN10:
+                return randomElements(random, "978").toISBN10("-");
+            case PREFIX_978:
+                return randomElements(random, "978").toISBN13("-");
+            case PREFIX_979:
+                return randomElements(random, "979").toISBN13("-");
+            default:
+                return corrupt(random, randomElements(random, null).toISBN13("-"));
+        }
+    }
+
+    /**
+     * Corrupt a valid hyphenated ISBN-13 code.
+     *
+     * @param random the random generator
+     * @param isbn   the valid hyphenated ISBN-13 code
+     * @return the corrupted code
+     */
+    private static String corrupt(Random random, String isbn) {
+        char[] chars = isbn.toCharArray();
+        int last = chars.length - 1;
+        switch (random.nextInt(4)) {
+            case 0:
+                // wrong check digit
+                chars[last] = (char) ('0' + (chars[last] - '0' + 1 + random.nextInt(9)) % 10);
+                return new String(chars);
+            case 1:
+                // mixed separators
+                chars[isbn.indexOf('-')] = ' ';
+                return new String(chars);
+            case 2:
+                // misplaced separator
+                int hyphen = isbn.lastIndexOf('-', last - 2);
+                chars[hyphen] = chars[hyphen - 1];
+                chars[hyphen - 1] = '-';
+                return new String(chars);
+            default:
+                // garbage around the code
+                return " ISBN: " + isbn + " ";
+        }
+    }
+
+    /**
+     * Pick a random registrant rule and fill the rest digits randomly.
+     *
+     * @param random    the random generator
+     * @param gs1Prefix the required GS1 prefix, or {@code null} for any
+     * @return the random ISBN elements
+     */
+    private static Elements randomElements(Random random, String gs1Prefix) {
+        Rule rule;
+        do {
+            rule = RULES.get(random.nextInt(RULES.size()));
+        } while (gs1Prefix != null && !rule.gs1Prefix.equals(gs1Prefix));
+
+        int number = rule.start + random.nextInt(rule.end - rule.start + 1);
+        String registrant = String.format("%07d", number).substring(0, rule.length);
+        StringBuilder publication = new StringBuilder();
+        int publicationLength = 9 - rule.registrationGroup.length() - registrant.length();
+        for (int i = 0; i < publicationLength; i++) {
+            publication.append((char) ('0' + random.nextInt(10)));
+        }
+        return new Elements(rule.gs1Prefix, rule.registrationGroup, registrant, publication.toString());
+    }
+
+    /**
+     * Load the registrant rules from the bundled range message file.
+     *
+     * @return the registrant rules with positive element lengths
+     */
+    private static List<Rule> loadRules() {
+        try (InputStream is = Dataset.class.getResourceAsStream(RANGE_MESSAGE_FILE)) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            Document document = factory.newDocumentBuilder().parse(is);
+
+            List<Rule> rules = new ArrayList<>();
+            NodeList groups = document.getElementsByTagName("Group");
+            for (int i = 0; i < groups.getLength(); i++) {
+                Element group = (Element) groups.item(i);
+                String[] prefix = text(group, "Prefix").split("-");
+                NodeList ruleNodes = group.getElementsByTagName("Rule");
+                for (int j = 0; j < ruleNodes.getLength(); j++) {
+                    Element ruleNode = (Element) ruleNodes.item(j);
+                    String[] range = text(ruleNode, "Range").split("-");
+                    int length = Integer.parseInt(text(ruleNode, "Length"));
+                    if (length > 0 && prefix[1].length() + length < 9) {
+                        rules.add(new Rule(prefix[0], prefix[1],
+                            Integer.parseInt(range[0]), Integer.parseInt(range[1]), length));
+                    }
+                }
+            }
+            return rules;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to load " + RANGE_MESSAGE_FILE, e);
+        }
+    }
+
+    private static String text(Element element, String tagName) {
+        return element.getElementsByTagName(tagName).item(0).getTextContent().trim();
+    }
+
+    /**
+     * A registrant rule of the range message file.
+     */
+    private static final class Rule {
+        private final String gs1Prefix;
+        private final String registrationGroup;
+        private final int start;
+        private final int end;
+        private final int length;
+
+        private Rule(String gs1Prefix, String registrationGroup, int start, int end, int length) {
+            this.gs1Prefix = gs1Prefix;
+            this.registrationGroup = registrationGroup;
+            this.start = start;
+            this.end = end;
+            this.length = length;
+        }
+    }
+
+    /**
+     * The generated ISBN elements, formatted without the library to keep the datasets independent of it.
+     */
+    private static final class Elements {
+        private final String gs1Prefix;
+        private final String registrationGroup;
+        private final String registrant;
+        private final String publication;
+
+        private Elements(String gs1Prefix, String registrationGroup, String registrant, String publication) {
+            this.gs1Prefix = gs1Prefix;
+            this.registrationGroup = registrationGroup;
+            this.registrant = registrant;
+            this.publication = publication;
+        }
+
+        private String toISBN13(String separator) {
+            String isbn12 = gs1Prefix + registrationGroup + registrant + publication;
+            int sum = 0;
+            for (int i = 0; i < isbn12.length(); i++) {
+                int digit = isbn12.charAt(i) - '0';
+                sum += (i % 2 == 0) ? digit : digit * 3;
+            }
+            char checkDigit = (char) ('0' + (10 - sum % 10) % 10);
+            return String.join(separator, gs1Prefix, registrationGroup, registrant, publication)
+                + separator + checkDigit;
+        }
+
+        private String toISBN10(String separator) {
+            String isbn9 = registrationGroup + registrant + publication;
+            int sum = 0;
+            for (int i = 0; i < isbn9.length(); i++) {
+                sum += (isbn9.charAt(i) - '0') * (10 - i);
+            }
+            int checkDigit = (11 - sum % 11) % 11;
+            return String.join(separator, registrationGroup, registrant, publication)
+                + separator + (checkDigit == 10 ? 'X' : (char) ('0' + checkDigit));
+        }
+    }
+}
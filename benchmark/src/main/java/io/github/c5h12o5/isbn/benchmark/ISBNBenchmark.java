@@ -0,0 +1,142 @@
+package io.github.c5h12o5.isbn.benchmark;
+
+import io.github.c5h12o5.isbn.ISBN;
+import io.github.c5h12o5.isbn.ISBNAnalysis;
+import io.github.c5h12o5.isbn.ISBNCache;
+import io.github.c5h12o5.isbn.ISBNChecksum;
+import io.github.c5h12o5.isbn.ISBNObject;
+import io.github.c5h12o5.isbn.ISBNParser;
+import io.github.c5h12o5.isbn.ParsedISBN;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the public API methods of {@link ISBN}, each invocation processes the next input of the dataset.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ISBNBenchmark {
+
+    @Param({"ISBN13", "HYPHENATED_ISBN13", "SPACED_ISBN13", "ISBN10", "HYPHENATED_ISBN10", "PREFIX_978",
+        "PREFIX_979", "INVALID"})
+    private Dataset dataset;
+
+    private String[] inputs;
+    private String[] outputs;
+    private int index;
+
+    private final ISBNParser parser = new ISBNParser();
+    private final ParsedISBN parsed = new ParsedISBN();
+    private final ISBNCache cache = new ISBNCache(Dataset.SIZE);
+
+    @Setup
+    public void setup() {
+        inputs = dataset.generate();
+        outputs = new String[inputs.length];
+    }
+
+    private String next() {
+        index = (index + 1) & (Dataset.SIZE - 1);
+        return inputs[index];
+    }
+
+    @Benchmark
+    public ISBNObject parse() {
+        return ISBN.parse(next());
+    }
+
+    @Benchmark
+    public boolean parseInto() {
+        return parser.parse(next(), parsed);
+    }
+
+    @Benchmark
+    public ISBNObject parseCached() {
+        return cache.parse(next());
+    }
+
+    @Benchmark
+    public ISBNAnalysis analyze() {
+        return ISBN.analyze(next());
+    }
+
+    @Benchmark
+    public String compact() {
+        return ISBN.compact(next());
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return ISBN.isValid(next());
+    }
+
+    @Benchmark
+    public boolean isValidChecksum() {
+        return ISBNChecksum.isValid(next());
+    }
+
+    @Benchmark
+    public boolean isValidISBN13() {
+        return ISBN.isValidISBN13(next());
+    }
+
+    @Benchmark
+    public boolean isValidISBN10() {
+        return ISBN.isValidISBN10(next());
+    }
+
+    @Benchmark
+    public boolean equals() {
+        String isbn = next();
+        return ISBN.equals(isbn, isbn);
+    }
+
+    @Benchmark
+    public long normalizedKey() {
+        return ISBN.normalizedKey(next());
+    }
+
+    @Benchmark
+    public String formatISBN13() {
+        return ISBN.formatISBN13(next(), ISBN.HYPHEN_SEPARATOR);
+    }
+
+    @Benchmark
+    public String formatISBN10() {
+        return ISBN.formatISBN10(next(), ISBN.HYPHEN_SEPARATOR);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Dataset.SIZE)
+    public BitSet validateAll() {
+        return ISBN.validateAll(inputs);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Dataset.SIZE)
+    public String[] formatISBN13All() {
+        ISBN.formatISBN13All(inputs, ISBN.HYPHEN_SEPARATOR, outputs);
+        return outputs;
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.c5h12o5.isbn.benchmark;
+
+import io.github.c5h12o5.isbn.ISBN;
+import io.github.c5h12o5.isbn.range.RangeCache;
+import io.github.c5h12o5.isbn.range.RangeDiff;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the range lookups of {@link RangeCache}, each invocation looks up the next ISBN of the dataset, except
+ * that {@link #diff()} compares all ranges of two range caches.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeCacheBenchmark {
+
+    @Param({"PREFIX_978", "PREFIX_979"})
+    private Dataset dataset;
+
+    private RangeCache rangeCache;
+    private RangeCache rangeCacheCopy;
+    private RangeDiff allValid;
+    private String[] inputs;
+    private String[] isbn12s;
+    private String[] registrantPrefixes;
+    private long[] isbn12Values;
+    private int[] groupLengths;
+    private int index;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream is = RangeCache.class.getResourceAsStream("/RangeMessage.xml")) {
+            rangeCache = ISBN.loadRangeMessageFile(is);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        rangeCache.writeTo(new DataOutputStream(bytes));
+        rangeCacheCopy = RangeCache.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        allValid = RangeDiff.between(null, rangeCache);
+        inputs = dataset.generate();
+        isbn12s = new String[inputs.length];
+        registrantPrefixes = new String[inputs.length];
+        isbn12Values = new long[inputs.length];
+        groupLengths = new int[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            String[] elements = inputs[i].split(ISBN.HYPHEN_SEPARATOR);
+            isbn12s[i] = elements[0] + elements[1] + elements[2] + elements[3];
+            registrantPrefixes[i] = elements[0] + elements[1];
+            isbn12Values[i] = Long.parseLong(isbn12s[i]);
+            groupLengths[i] = elements[1].length();
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (Dataset.SIZE - 1);
+        return index;
+    }
+
+    @Benchmark
+    public String findRegistrationGroup() {
+        int i = next();
+        return rangeCache.findRegistrationGroup(isbn12s[i].substring(0, ISBN.GS1_PREFIX_LENGTH), isbn12s[i]);
+    }
+
+    @Benchmark
+    public String findRegistrant() {
+        int i = next();
+        return rangeCache.findRegistrant(registrantPrefixes[i], isbn12s[i]);
+    }
+
+    @Benchmark
+    public int findRegistrationGroupLength() {
+        return rangeCache.findRegistrationGroupLength(isbn12Values[next()]);
+    }
+
+    @Benchmark
+    public int findRegistrantLength() {
+        int i = next();
+        return rangeCache.findRegistrantLength(isbn12Values[i], groupLengths[i]);
+    }
+
+    @Benchmark
+    public int findBothLengths() {
+        long isbn12 = isbn12Values[next()];
+        int groupLength = rangeCache.findRegistrationGroupLength(isbn12);
+        return (groupLength <= 0) ? -1 : groupLength << 4 | rangeCache.findRegistrantLength(isbn12, groupLength);
+    }
+
+    @Benchmark
+    public int findElementLengths() {
+        return rangeCache.findElementLengths(isbn12Values[next()]);
+    }
+
+    @Benchmark
+    public boolean isAffected() {
+        return allValid.isAffected(inputs[next()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RangeDiff diff() {
+        return RangeDiff.between(rangeCache, rangeCacheCopy);
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.c5h12o5.isbn.benchmark;
+
+import io.github.c5h12o5.isbn.ISBN;
+import io.github.c5h12o5.isbn.ISBNObject;
+import io.github.c5h12o5.isbn.range.RangeCache;
+import io.github.c5h12o5.isbn.range.RangeSnapshot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the serialized forms of {@link ISBNObject} and {@link RangeCache}, each invocation writes or reads
+ * all ISBN objects of the dataset, or the bundled range cache.
+ * <p>
+ * The default Java serialized form of the ISBN objects is measured with a subclass, which keeps it. The sizes of all
+ * forms are printed at setup.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ISBNObject[] isbnObjects;
+    private ISBNObject[] defaultFormObjects;
+    private RangeCache rangeCache;
+
+    private byte[] serializedObjects;
+    private byte[] serializedDefaultFormObjects;
+    private byte[] writtenObjects;
+    private byte[] serializedRangeCache;
+    private byte[] writtenRangeCache;
+    private byte[] rangeSnapshot;
+
+    @Setup
+    public void setup() throws IOException {
+        String[] inputs = Dataset.ISBN13.generate();
+        isbnObjects = new ISBNObject[inputs.length];
+        defaultFormObjects = new ISBNObject[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            isbnObjects[i] = ISBN.parse(inputs[i]);
+            defaultFormObjects[i] = new DefaultFormISBNObject(isbnObjects[i]);
+        }
+        try (InputStream is = RangeCache.class.getResourceAsStream("/RangeMessage.xml")) {
+            rangeCache = ISBN.loadRangeMessageFile(is);
+        }
+
+        serializedObjects = serialize(isbnObjects);
+        serializedDefaultFormObjects = serialize(defaultFormObjects);
+        writtenObjects = writeObjects();
+        serializedRangeCache = serialize(rangeCache);
+        writtenRangeCache = writeRangeCache();
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        RangeSnapshot.write(rangeCache, snapshot);
+        rangeSnapshot = snapshot.toByteArray();
+
+        System.out.printf("%n%d ISBN objects: serialized %d bytes, default form %d bytes, writeTo %d bytes%n",
+            inputs.length, serializedObjects.length, serializedDefaultFormObjects.length, writtenObjects.length);
+        System.out.printf("range cache: serialized %d bytes, writeTo %d bytes, snapshot %d bytes%n",
+            serializedRangeCache.length, writtenRangeCache.length, rangeSnapshot.length);
+    }
+
+    @Benchmark
+    public byte[] serializeObjects() throws IOException {
+        return serialize(isbnObjects);
+    }
+
+    @Benchmark
+    public byte[] serializeDefaultFormObjects() throws IOException {
+        return serialize(defaultFormObjects);
+    }
+
+    @Benchmark
+    public byte[] writeObjects() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (ISBNObject isbnObject : isbnObjects) {
+            isbnObject.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserializeObjects() throws Exception {
+        return deserialize(serializedObjects);
+    }
+
+    @Benchmark
+    public Object deserializeDefaultFormObjects() throws Exception {
+        return deserialize(serializedDefaultFormObjects);
+    }
+
+    @Benchmark
+    public ISBNObject[] readObjects() throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(writtenObjects));
+        ISBNObject[] result = new ISBNObject[isbnObjects.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ISBNObject.readFrom(in);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] serializeRangeCache() throws IOException {
+        return serialize(rangeCache);
+    }
+
+    @Benchmark
+    public byte[] writeRangeCache() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        rangeCache.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserializeRangeCache() throws Exception {
+        return deserialize(serializedRangeCache);
+    }
+
+    @Benchmark
+    public RangeCache readRangeCache() throws IOException {
+        return RangeCache.readFrom(new DataInputStream(new ByteArrayInputStream(writtenRangeCache)));
+    }
+
+    @Benchmark
+    public RangeCache readRangeSnapshot() {
+        return RangeSnapshot.read(ByteBuffer.wrap(rangeSnapshot));
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    /**
+     * The subclasses of {@link ISBNObject} keep the default Java serialized form, the elements are copied as they were
+     * not shared between the parsed ISBN objects before.
+     */
+    private static final class DefaultFormISBNObject extends ISBNObject {
+        private static final long serialVersionUID = 1L;
+
+        DefaultFormISBNObject(ISBNObject isbnObject) {
+            super(new String(isbnObject.getGS1Prefix()), new String(isbnObject.getRegistrationGroup()),
+                new String(isbnObject.getRegistrant()), isbnObject.getPublication());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.c5h12o5.isbn.benchmark;
+
+import io.github.c5h12o5.isbn.ISBN;
+import io.github.c5h12o5.isbn.ISBNStreams;
+import io.github.c5h12o5.isbn.PackedISBN;
+import io.github.c5h12o5.isbn.collection.ISBNCollectors;
+import io.github.c5h12o5.isbn.collection.ISBNSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks of the stream support, each invocation runs a pipeline over all inputs of the dataset, or over all
+ * ISBNs of a registrant, sequentially or in parallel.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamBenchmark {
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private List<String> inputs;
+    private long[] packed;
+    private final Function<CharSequence, String> formatter = ISBNStreams.formatISBN13("-");
+
+    @Setup
+    public void setup() {
+        inputs = Arrays.asList(Dataset.HYPHENATED_ISBN10.generate());
+        packed = inputs.stream().mapToLong(ISBNStreams.toPacked()).toArray();
+    }
+
+    private Stream<String> stream() {
+        return parallel ? inputs.parallelStream() : inputs.stream();
+    }
+
+    @Benchmark
+    public List<String> mapFormatISBN13() {
+        return stream().map(isbn -> ISBN.formatISBN13(isbn, "-")).filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> mapFormatter() {
+        return stream().map(formatter).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Set<String> collectCompactedSet() {
+        return stream().filter(ISBN::isValid).map(isbn -> ISBN.formatISBN13(isbn, null)).collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public ISBNSet collectISBNSet() {
+        return stream().collect(ISBNCollectors.toISBNSet());
+    }
+
+    @Benchmark
+    public long enumerateRegistrant() {
+        LongStream isbns = ISBNStreams.enumerate("978-7-03");
+        return (parallel ? isbns.parallel() : isbns).sum();
+    }
+
+    @Benchmark
+    public long parseRegistrant() {
+        LongStream isbn12s = LongStream.range(978_703_000_000L, 978_704_000_000L);
+        return (parallel ? isbn12s.parallel() : isbn12s).map(isbn12 -> PackedISBN.parse(Long.toString(isbn12 * 10)))
+            .filter(packed -> packed != PackedISBN.INVALID).sum();
+    }
+
+    @Benchmark
+    public long sumPackedArray() {
+        return (parallel ? Arrays.stream(packed).parallel() : Arrays.stream(packed)).filter(value -> value >= 0)
+            .sum();
+    }
+
+    @Benchmark
+    public long sumPacked() {
+        return (parallel ? ISBNStreams.packed(packed).parallel() : ISBNStreams.packed(packed)).sum();
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.c5h12o5.isbn;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is a {@link CharSequence} view of ASCII bytes in an array or a buffer, so the ISBN inputs can be scanned
+ * straight from network and file buffers without decoding them into Strings.
+ * <p>
+ * Each byte is mapped to the character with the same unsigned value, that is the bytes are read as ISO-8859-1, so
+ * the ASCII bytes are read as the same characters as in a decoded String.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+final class AsciiSequence implements CharSequence {
+
+    private final byte[] array;
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    /**
+     * Create a view of the bytes in the range [offset, offset + length) of the given array.
+     *
+     * @param array  the array of ASCII bytes
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     */
+    AsciiSequence(byte[] array, int offset, int length) {
+        checkRange(offset, length, array.length);
+        this.array = array;
+        this.buffer = null;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Create a view of the bytes in the range [offset, offset + length) of the given buffer, the offset is an absolute
+     * index and the buffer position is not used or changed.
+     *
+     * @param buffer the buffer of ASCII bytes
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     */
+    AsciiSequence(ByteBuffer buffer, int offset, int length) {
+        checkRange(offset, length, buffer.limit());
+        if (buffer.hasArray()) {
+            this.array = buffer.array();
+            this.buffer = null;
+            this.offset = buffer.arrayOffset() + offset;
+        } else {
+            this.array = null;
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+        this.length = length;
+    }
+
+    private AsciiSequence(byte[] array, ByteBuffer buffer, int offset, int length) {
+        this.array = array;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        byte b = (array != null) ? array[offset + index] : buffer.get(offset + index);
+        return (char) (b & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        checkRange(start, end - start, length);
+        return new AsciiSequence(array, buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        if (array != null) {
+            return new String(array, offset, length, StandardCharsets.ISO_8859_1);
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void checkRange(int offset, int length, int size) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", size: " + size);
+        }
+    }
+}
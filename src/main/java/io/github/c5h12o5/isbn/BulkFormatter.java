@@ -0,0 +1,148 @@
+package io.github.c5h12o5.isbn;
+
+import io.github.c5h12o5.isbn.range.RangeCache;
+
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class formats a large number of ISBN inputs to ISBN-13 format in parallel.
+ * <p>
+ * The inputs are split into chunks aligned to 64 elements, so that each chunk owns its own words of the failure
+ * bits and no synchronization is needed between the workers. All workers share the same range cache snapshot.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+final class BulkFormatter {
+
+    /** The min number of inputs formatted by a worker, it must be a multiple of 64. */
+    private static final int CHUNK_SIZE = 4096;
+    private static final int WORD_BITS = Long.SIZE;
+
+    private final CharSequence[] isbns;
+    private final String separator;
+    private final RangeCache cache;
+    private final String[] results;
+    private final long[] failureWords;
+
+    BulkFormatter(CharSequence[] isbns, String separator, RangeCache cache) {
+        this.isbns = isbns;
+        this.separator = separator;
+        this.cache = cache;
+        this.results = new String[isbns.length];
+        this.failureWords = new long[(isbns.length + WORD_BITS - 1) / WORD_BITS];
+    }
+
+    /**
+     * Format all inputs with the given executor, and wait for all of them to complete.
+     *
+     * @param executor the executor to run the workers, a {@link ForkJoinPool} splits the inputs recursively
+     * @return the bulk result
+     */
+    BulkResult run(Executor executor) {
+        if (isbns.length <= CHUNK_SIZE) {
+            format(0, isbns.length);
+        } else if (executor instanceof ForkJoinPool) {
+            ((ForkJoinPool) executor).invoke(new FormatTask(0, isbns.length));
+        } else {
+            runChunks(executor);
+        }
+        return new BulkResult(results, BitSet.valueOf(failureWords));
+    }
+
+    /**
+     * Submit the inputs to the given executor in chunks, and wait for all of them to complete.
+     *
+     * @param executor the executor to run the workers
+     */
+    private void runChunks(Executor executor) {
+        int parallelism = Runtime.getRuntime().availableProcessors() * 4;
+        int chunkSize = Math.max(CHUNK_SIZE, alignUp((isbns.length + parallelism - 1) / parallelism));
+        int chunks = (isbns.length + chunkSize - 1) / chunkSize;
+
+        CountDownLatch latch = new CountDownLatch(chunks);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        for (int i = 0; i < chunks; i++) {
+            int from = i * chunkSize;
+            int to = Math.min(from + chunkSize, isbns.length);
+            try {
+                executor.execute(() -> {
+                    try {
+                        format(from, to);
+                    } catch (Throwable e) {
+                        error.compareAndSet(null, e);
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // release the chunks that will never be submitted
+                error.compareAndSet(null, e);
+                for (int j = i; j < chunks; j++) {
+                    latch.countDown();
+                }
+                break;
+            }
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ISBNException("Interrupted while formatting ISBNs", e);
+        }
+        if (error.get() != null) {
+            throw new ISBNException(error.get().getMessage(), error.get());
+        }
+    }
+
+    /**
+     * Format the inputs in the range [from, to), the start index must be aligned to 64.
+     *
+     * @param from the start index of the inputs, inclusive
+     * @param to   the end index of the inputs, exclusive
+     */
+    private void format(int from, int to) {
+        StringBuilder sb = new StringBuilder(ISBN.SEPARATED_ISBN_13_LENGTH);
+        for (int i = from; i < to; i++) {
+            results[i] = ISBN.formatISBN13(isbns[i], separator, cache, sb);
+            if (results[i] == null) {
+                failureWords[i / WORD_BITS] |= 1L << i;
+            }
+        }
+    }
+
+    private static int alignUp(int size) {
+        return (size + WORD_BITS - 1) / WORD_BITS * WORD_BITS;
+    }
+
+    /**
+     * The fork/join task which splits the inputs in halves until a chunk is small enough.
+     */
+    private final class FormatTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        FormatTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                format(from, to);
+                return;
+            }
+            int middle = from + alignUp((to - from) / 2);
+            invokeAll(new FormatTask(from, middle), new FormatTask(middle, to));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.c5h12o5.isbn;
+
+import java.util.BitSet;
+
+/**
+ * This class represents the result of a bulk operation, it holds the results in the same order as the inputs and
+ * the indexes of the failed inputs, whose results are {@code null}.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class BulkResult {
+
+    /** The results in the same order as the inputs. */
+    private final String[] results;
+
+    /** The indexes of the failed inputs. */
+    private final BitSet failures;
+
+    BulkResult(String[] results, BitSet failures) {
+        this.results = results;
+        this.failures = failures;
+    }
+
+    /**
+     * Get the number of results.
+     *
+     * @return the number of results, which equals the number of inputs
+     */
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * Get the result of the input at the given index.
+     *
+     * @param index the index of the input
+     * @return the result, {@code null} if the input failed
+     */
+    public String get(int index) {
+        return results[index];
+    }
+
+    /**
+     * Get all the results, use {@link #get(int)} instead to read the results without copying.
+     *
+     * @return a copy of the results in the same order as the inputs
+     */
+    public String[] getResults() {
+        return results.clone();
+    }
+
+    /**
+     * Check if the input at the given index failed.
+     *
+     * @param index the index of the input
+     * @return {@code true} if the input failed, otherwise {@code false}
+     */
+    public boolean isFailed(int index) {
+        return failures.get(index);
+    }
+
+    /**
+     * Get the indexes of the failed inputs.
+     *
+     * @return the bit set whose i-th bit is set if the i-th input failed
+     */
+    public BitSet getFailures() {
+        return (BitSet) failures.clone();
+    }
+
+    /**
+     * Get the number of failed inputs.
+     *
+     * @return the number of failed inputs
+     */
+    public int getFailureCount() {
+        return failures.cardinality();
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.c5h12o5.isbn;
+
+/**
+ * This class selects the implementation of the batch check digit validation. This version runs on Java 8 and
+ * always uses {@link ScalarChecksumKernel}, the multi-release jar contains another version for Java 17 and later,
+ * which uses the Vector API if the {@code jdk.incubator.vector} module is added.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+final class ChecksumKernel {
+
+    private ChecksumKernel() {
+    }
+
+    /**
+     * Check if the validation is vectorized.
+     *
+     * @return {@code true} if vectorized, otherwise {@code false}
+     */
+    static boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Validate the ISBN-13 rows in the given array and set the bits of the valid rows.
+     *
+     * @param data     the array containing the rows of 13 ASCII digits
+     * @param offset   the index of the first byte of the first row
+     * @param stride   the distance in bytes between the starts of two adjacent rows
+     * @param count    the number of rows to validate
+     * @param valid    the bits to set, as in {@link java.util.BitSet#toLongArray()}
+     * @param firstRow the bit index of the first row
+     */
+    static void validateISBN13Rows(byte[] data, int offset, int stride, int count, long[] valid, int firstRow) {
+        ScalarChecksumKernel.validateISBN13Rows(data, offset, stride, count, valid, firstRow);
+    }
+}
@@ -1,19 +1,24 @@
 package io.github.c5h12o5.isbn;
 
 import io.github.c5h12o5.isbn.range.RangeCache;
+import io.github.c5h12o5.isbn.range.RangeCacheListener;
 import io.github.c5h12o5.isbn.range.RangeHandler;
+import io.github.c5h12o5.isbn.range.RangeSnapshot;
 
-import org.xml.sax.SAXException;
-
-import javax.xml.XMLConstants;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * This is the main class of the ISBN utility library. It provides methods to parse, format and validate ISBNs.
@@ -31,43 +36,187 @@ public final class ISBN {
     public static final int SEPARATED_ISBN_13_LENGTH = ISBN_13_LENGTH + 4;
     public static final int SEPARATED_ISBN_10_LENGTH = ISBN_10_LENGTH + 3;
     public static final String GS1_PREFIX_978 = "978";
+    public static final int GS1_PREFIX_LENGTH = GS1_PREFIX_978.length();
     public static final String HYPHEN_SEPARATOR = "-";
     public static final String SPACE_SEPARATOR = " ";
 
-    private static final SAXParser SAX_PARSER;
-    private static RangeCache rangeCache;
+    /**
+     * The normalized key of an invalid ISBN, see {@link #normalizedKey(CharSequence)}.
+     *
+     * @since 1.1.0
+     */
+    public static final long INVALID_KEY = -1L;
+
+    private static final String EMPTY = "";
+    private static final long GS1_PREFIX_978_VALUE = 978;
 
-    static {
-        try (InputStream is = ISBN.class.getResourceAsStream("/RangeMessage.xml")) {
-            // create a SAX parser that does not validate against external DTDs or external schemas
-            SAX_PARSER = SAXParserFactory.newInstance().newSAXParser();
-            SAX_PARSER.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-            SAX_PARSER.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    /** The result of {@link #scanISBN12(CharSequence)} if the compacted code has an invalid length. */
+    static final long SCAN_INVALID_LENGTH = -1;
 
-            // initialize the range cache with the default range message file
-            RangeHandler rangeHandler = new RangeHandler();
-            SAX_PARSER.parse(is, rangeHandler);
-            rangeCache = rangeHandler.getResult();
-        } catch (ParserConfigurationException | SAXException | IOException e) {
-            throw new ISBNException(e.getMessage(), e);
-        }
-    }
+    /** The result of {@link #scanISBN12(CharSequence)} if the compacted code ends with a misplaced 'X'. */
+    static final long SCAN_INVALID_CHARACTER = -2;
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L
+    };
+
+    /**
+     * The current range cache, it is replaced as a whole, so the readers never block and never see a partial one. It
+     * is {@code null} until the bundled ranges are loaded on first use or another range cache is set.
+     */
+    private static final AtomicReference<RangeCache> RANGE_CACHE = new AtomicReference<>();
+    private static final List<RangeCacheListener> RANGE_CACHE_LISTENERS = new CopyOnWriteArrayList<>();
+    private static volatile ISBNMetrics metrics = ISBNMetrics.NOOP;
+    private static final Comparator<CharSequence> ISBN13_ORDER = (isbnA, isbnB) -> {
+        RangeCache cache = rangeCache();
+        return Long.compare(normalizedKey(isbnA, cache), normalizedKey(isbnB, cache));
+    };
 
     /**
      * Load external range message file from the given inputStream.
+     * <p>
+     * The file is parsed without blocking the readers of the current range cache, which is replaced atomically
+     * once the new one is built. If the file cannot be parsed, the current range cache is kept.
      *
      * @param is the inputStream containing the content to be parsed
      * @return the range cache
      */
-    public static synchronized RangeCache loadRangeMessageFile(InputStream is) {
-        RangeHandler rangeHandler = new RangeHandler();
+    public static RangeCache loadRangeMessageFile(InputStream is) {
+        return loadRangeCache(() -> RangeHandler.parse(is));
+    }
+
+    /**
+     * Load external range snapshot from the given inputStream, which is converted from a range message file by
+     * {@link RangeSnapshot#convert(InputStream, java.io.OutputStream)} and loaded without parsing XML.
+     *
+     * @param is the inputStream containing the snapshot
+     * @return the range cache
+     * @since 1.1.0
+     */
+    public static RangeCache loadRangeSnapshot(InputStream is) {
+        return loadRangeCache(() -> RangeSnapshot.read(is));
+    }
+
+    /**
+     * Load external range snapshot from the remaining bytes of the given buffer, such as a mapped snapshot file.
+     *
+     * @param buffer the buffer containing the snapshot
+     * @return the range cache
+     * @since 1.1.0
+     */
+    public static RangeCache loadRangeSnapshot(ByteBuffer buffer) {
+        return loadRangeCache(() -> RangeSnapshot.read(buffer));
+    }
+
+    /**
+     * Load a range cache by the given loader and replace the current one, the time spent is reported to the
+     * installed metrics.
+     *
+     * @param loader the loader to create the range cache
+     * @return the range cache
+     */
+    private static RangeCache loadRangeCache(Supplier<RangeCache> loader) {
+        ISBNMetrics m = metrics;
+        long start = System.nanoTime();
+        RangeCache cache;
         try {
-            SAX_PARSER.parse(is, rangeHandler);
-        } catch (SAXException | IOException e) {
-            throw new ISBNException(e.getMessage(), e);
+            cache = loader.get();
+        } catch (RuntimeException e) {
+            m.onRangeReload(System.nanoTime() - start, false);
+            throw e;
+        }
+        m.onRangeReload(System.nanoTime() - start, true);
+        setRangeCache(cache);
+        return cache;
+    }
+
+    /**
+     * Replace the current range cache and notify the listeners. An exception thrown by a listener does not stop the
+     * other listeners from being notified, it is passed to the uncaught exception handler of the current thread.
+     *
+     * @param cache the new range cache
+     * @since 1.1.0
+     */
+    public static void setRangeCache(RangeCache cache) {
+        if (null == cache) {
+            throw new ISBNException("Range cache must not be null");
+        }
+        RangeCache previous = RANGE_CACHE.getAndSet(cache);
+        for (RangeCacheListener listener : RANGE_CACHE_LISTENERS) {
+            try {
+                listener.rangeCacheChanged(previous, cache);
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    /**
+     * Add a listener notified when the current range cache is replaced.
+     *
+     * @param listener the listener to add
+     * @since 1.1.0
+     */
+    public static void addRangeCacheListener(RangeCacheListener listener) {
+        RANGE_CACHE_LISTENERS.add(listener);
+    }
+
+    /**
+     * Remove a listener added by {@link #addRangeCacheListener(RangeCacheListener)}.
+     *
+     * @param listener the listener to remove
+     * @since 1.1.0
+     */
+    public static void removeRangeCacheListener(RangeCacheListener listener) {
+        RANGE_CACHE_LISTENERS.remove(listener);
+    }
+
+    /**
+     * Install the metrics receiving the instrumentation events, such as a {@link LongAdderISBNMetrics}.
+     *
+     * @param metrics the metrics to install, or {@link ISBNMetrics#NOOP} to disable the instrumentation
+     * @since 1.1.0
+     */
+    public static void setMetrics(ISBNMetrics metrics) {
+        if (null == metrics) {
+            throw new ISBNException("Metrics must not be null");
+        }
+        ISBN.metrics = metrics;
+    }
+
+    /**
+     * Get the installed metrics.
+     *
+     * @return the metrics, {@link ISBNMetrics#NOOP} if the instrumentation is disabled
+     * @since 1.1.0
+     */
+    public static ISBNMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the current loaded range cache.
+     *
+     * @return the range cache
+     */
+    static RangeCache rangeCache() {
+        RangeCache cache = RANGE_CACHE.get();
+        if (null == cache) {
+            // load the bundled ranges on first use, unless a range cache has been set meanwhile
+            RANGE_CACHE.compareAndSet(null, BundledRangeCache.INSTANCE);
+            cache = RANGE_CACHE.get();
         }
-        rangeCache = rangeHandler.getResult();
-        return rangeCache;
+        return cache;
+    }
+
+    /**
+     * Get the current range cache without loading the bundled ranges.
+     *
+     * @return the range cache, or {@code null} if no ranges are loaded yet
+     */
+    static RangeCache loadedRangeCache() {
+        return RANGE_CACHE.get();
     }
 
     /**
@@ -76,7 +225,7 @@ public final class ISBN {
      * @return the message date of current loaded range message file
      */
     public static LocalDateTime rangeMessageDate() {
-        return null != rangeCache ? rangeCache.getMessageDate() : null;
+        return rangeCache().getMessageDate();
     }
 
     /**
@@ -86,48 +235,101 @@ public final class ISBN {
      * @return the parsed {@link ISBNObject}, {@code null} if the input is not a valid ISBN code
      */
     public static ISBNObject parse(String code) {
-        String compacted = compact(code);
-        if (compacted == null) {
+        return parse((CharSequence) code);
+    }
+
+    /**
+     * Parse the given ISBN code into an {@link ISBNObject}.
+     *
+     * @param code the ISBN code to parse
+     * @return the parsed {@link ISBNObject}, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static ISBNObject parse(CharSequence code) {
+        RangeCache cache = rangeCache();
+        long isbn12 = scanISBN12(code);
+        int hyphens = (isbn12 < 0) ? -1 : hyphenate(isbn12, cache);
+        if (hyphens < 0) {
+            recordFailure(ISBNMetrics.Operation.PARSE, code, cache);
             return null;
         }
+        recordSuccess(ISBNMetrics.Operation.PARSE);
 
-        // construct the first 12-digits of ISBN from the compacted code
-        String isbn12 = null;
-        switch (compacted.length()) {
-            case ISBN_13_LENGTH:
-                isbn12 = compacted.substring(0, ISBN_13_LENGTH - 1);
-                break;
-            case ISBN_13_LENGTH - 1:
-                isbn12 = compacted;
-                break;
-            case ISBN_10_LENGTH:
-                isbn12 = GS1_PREFIX_978 + compacted.substring(0, ISBN_10_LENGTH - 1);
-                break;
-            case ISBN_10_LENGTH - 1:
-                isbn12 = GS1_PREFIX_978 + compacted;
-                break;
-            default:
-                break;
-        }
+        return toISBNObject(isbn12, hyphens, cache);
+    }
 
-        // check if the first 12-digits of ISBN is a valid digit sequence
-        boolean invalid12 = (isbn12 == null) || isbn12.chars().anyMatch(ch -> (ch < CHAR_0 || ch > CHAR_9));
-        if (invalid12) {
-            return null;
-        }
+    /**
+     * Parse the ISBN code in the given range of a char array into an {@link ISBNObject}.
+     *
+     * @param chars  the char array containing the ISBN code
+     * @param offset the index of the first char
+     * @param length the number of chars
+     * @return the parsed {@link ISBNObject}, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static ISBNObject parse(char[] chars, int offset, int length) {
+        return parse(wrap(chars, offset, length));
+    }
 
-        // extract the GS1 prefix, registration group, registrant and publication from the first 12-digits of ISBN
-        String gs1Prefix = isbn12.substring(0, 3);
-        String registrationGroup = rangeCache.findRegistrationGroup(gs1Prefix, isbn12);
-        if (registrationGroup == null) {
-            return null;
-        }
-        String registrant = rangeCache.findRegistrant(gs1Prefix + registrationGroup, isbn12);
-        if (registrant == null) {
-            return null;
+    /**
+     * Parse the ISBN code in the given range of an ASCII byte array into an {@link ISBNObject}.
+     *
+     * @param bytes  the byte array containing the ISBN code
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the parsed {@link ISBNObject}, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static ISBNObject parse(byte[] bytes, int offset, int length) {
+        return parse(wrap(bytes, offset, length));
+    }
+
+    /**
+     * Parse the ISBN code in the given range of an ASCII byte buffer into an {@link ISBNObject}.
+     *
+     * @param buffer the byte buffer containing the ISBN, the position is not used or changed
+     * @param offset the absolute index of the first byte
+     * @param length the number of bytes
+     * @return the parsed {@link ISBNObject}, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static ISBNObject parse(ByteBuffer buffer, int offset, int length) {
+        return parse(wrap(buffer, offset, length));
+    }
+
+    /**
+     * Analyze the given ISBN input in a single pass, the result tells whether it is a valid ISBN-13 or ISBN-10 code
+     * and the reason if not, and contains the parsed elements if it can be parsed.
+     *
+     * <pre>
+     * ISBN.analyze("978-7-03-038722-6").isValidISBN13() = true
+     * ISBN.analyze("978-7-03-038722-0").getError()      = INVALID_CHECK_DIGIT
+     * ISBN.analyze("978-7-03 038722-6").getError()      = MIXED_SEPARATORS
+     * ISBN.analyze("978-7-030-38722-6").getError()      = MISPLACED_SEPARATOR
+     * </pre>
+     *
+     * @param code the ISBN code to analyze
+     * @return the analysis result
+     * @since 1.1.0
+     */
+    public static ISBNAnalysis analyze(CharSequence code) {
+        RangeCache cache = rangeCache();
+        long isbn12 = scanISBN12(code);
+        int hyphens = (isbn12 < 0) ? -1 : hyphenate(isbn12, cache);
+        ParseError error = validationError(code, isbn12, hyphens, cache);
+        ISBNMetrics m = metrics;
+        if (m != ISBNMetrics.NOOP) {
+            if (error == null) {
+                m.onSuccess(ISBNMetrics.Operation.ANALYZE);
+            } else {
+                m.onFailure(ISBNMetrics.Operation.ANALYZE, error);
+            }
         }
-        String publication = isbn12.substring((gs1Prefix + registrationGroup + registrant).length());
-        return new ISBNObject(gs1Prefix, registrationGroup, registrant, publication);
+
+        // a valid ISBN-10 code has a separator or the last digit of the registrant before the check digit
+        int length = code == null ? 0 : code.length();
+        boolean isbn10 = length == ISBN_10_LENGTH || length == ISBN_13_LENGTH && !isDigit(code.charAt(length - 2));
+        return new ISBNAnalysis(error, isbn10, (hyphens < 0) ? null : toISBNObject(isbn12, hyphens, cache));
     }
 
     /**
@@ -144,14 +346,24 @@ public final class ISBN {
      * @return the compacted ISBN, {@code null} if null String input
      */
     public static String compact(String isbn) {
+        return compact((CharSequence) isbn);
+    }
+
+    /**
+     * Remove all non-digit characters from the given ISBN input, except for the last character which can be 'X'.
+     *
+     * @param isbn the ISBN to compact
+     * @return the compacted ISBN, {@code null} if null input
+     * @since 1.1.0
+     */
+    public static String compact(CharSequence isbn) {
         if (isbn == null) {
             return null;
         }
         StringBuilder sb = new StringBuilder();
         boolean findCheckDigit = false;
-        char[] charArray = isbn.toCharArray();
-        for (int i = charArray.length - 1; i >= 0; i--) {
-            char ch = charArray[i];
+        for (int i = isbn.length() - 1; i >= 0; i--) {
+            char ch = isbn.charAt(i);
             boolean isDigit = (ch >= CHAR_0 && ch <= CHAR_9);
             if (!findCheckDigit) {
                 // find the last digit or 'X' character
@@ -170,6 +382,48 @@ public final class ISBN {
         return sb.reverse().toString();
     }
 
+    /**
+     * Remove all non-digit characters from the ISBN input in the given range of a char array, except for the last
+     * character which can be 'X'.
+     *
+     * @param chars  the char array containing the ISBN
+     * @param offset the index of the first char
+     * @param length the number of chars
+     * @return the compacted ISBN, {@code null} if null input
+     * @since 1.1.0
+     */
+    public static String compact(char[] chars, int offset, int length) {
+        return compact(wrap(chars, offset, length));
+    }
+
+    /**
+     * Remove all non-digit characters from the ISBN input in the given range of an ASCII byte array, except for the
+     * last character which can be 'X'.
+     *
+     * @param bytes  the byte array containing the ISBN
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the compacted ISBN, {@code null} if null input
+     * @since 1.1.0
+     */
+    public static String compact(byte[] bytes, int offset, int length) {
+        return compact(wrap(bytes, offset, length));
+    }
+
+    /**
+     * Remove all non-digit characters from the ISBN input in the given range of an ASCII byte buffer, except for
+     * the last character which can be 'X'.
+     *
+     * @param buffer the byte buffer containing the ISBN, the position is not used or changed
+     * @param offset the absolute index of the first byte
+     * @param length the number of bytes
+     * @return the compacted ISBN, {@code null} if null input
+     * @since 1.1.0
+     */
+    public static String compact(ByteBuffer buffer, int offset, int length) {
+        return compact(wrap(buffer, offset, length));
+    }
+
     /**
      * Check if the given ISBN input is not a valid ISBN-13 or ISBN-10 code.
      *
@@ -203,7 +457,57 @@ public final class ISBN {
      * @return {@code true} if a valid ISBN-10 or ISBN-13 code, otherwise {@code false}
      */
     public static boolean isValid(String isbn) {
-        return isValidISBN13(isbn) || isValidISBN10(isbn);
+        return isValid(isbn, rangeCache());
+    }
+
+    /**
+     * Check if the given ISBN input is either a valid ISBN-13 or ISBN-10 code.
+     *
+     * @param isbn the ISBN to validate
+     * @return {@code true} if a valid ISBN-10 or ISBN-13 code, otherwise {@code false}
+     * @since 1.1.0
+     */
+    public static boolean isValid(CharSequence isbn) {
+        return isValid(isbn, rangeCache());
+    }
+
+    /**
+     * Check if the ISBN input in the given range of a char array is either a valid ISBN-13 or ISBN-10 code.
+     *
+     * @param chars  the char array containing the ISBN
+     * @param offset the index of the first char
+     * @param length the number of chars
+     * @return {@code true} if a valid ISBN-10 or ISBN-13 code, otherwise {@code false}
+     * @since 1.1.0
+     */
+    public static boolean isValid(char[] chars, int offset, int length) {
+        return isValid(wrap(chars, offset, length), rangeCache());
+    }
+
+    /**
+     * Check if the ISBN input in the given range of an ASCII byte array is either a valid ISBN-13 or ISBN-10 code.
+     *
+     * @param bytes  the byte array containing the ISBN
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return {@code true} if a valid ISBN-10 or ISBN-13 code, otherwise {@code false}
+     * @since 1.1.0
+     */
+    public static boolean isValid(byte[] bytes, int offset, int length) {
+        return isValid(wrap(bytes, offset, length), rangeCache());
+    }
+
+    /**
+     * Check if the ISBN input in the given range of an ASCII byte buffer is either a valid ISBN-13 or ISBN-10 code.
+     *
+     * @param buffer the byte buffer containing the ISBN, the position is not used or changed
+     * @param offset the absolute index of the first byte
+     * @param length the number of bytes
+     * @return {@code true} if a valid ISBN-10 or ISBN-13 code, otherwise {@code false}
+     * @since 1.1.0
+     */
+    public static boolean isValid(ByteBuffer buffer, int offset, int length) {
+        return isValid(wrap(buffer, offset, length), rangeCache());
     }
 
     /**
@@ -221,7 +525,8 @@ public final class ISBN {
      * @return {@code true} if a valid ISBN-13 code, otherwise {@code false}
      */
     public static boolean isValidISBN13(String isbn) {
-        return isValidISBN13Length(isbn) && isbn.equals(formatISBN13(isbn, extractSeparator(isbn)));
+        RangeCache cache = rangeCache();
+        return recordValidation(isValidISBN13(isbn, cache), isbn, cache);
     }
 
     /**
@@ -239,7 +544,8 @@ public final class ISBN {
      * @return {@code true} if a valid ISBN-10 code, otherwise {@code false}
      */
     public static boolean isValidISBN10(String isbn) {
-        return isValidISBN10Length(isbn) && isbn.equals(formatISBN10(isbn, extractSeparator(isbn)));
+        RangeCache cache = rangeCache();
+        return recordValidation(isValidISBN10(isbn, cache), isbn, cache);
     }
 
     /**
@@ -258,11 +564,63 @@ public final class ISBN {
      * @return {@code true} if the two ISBN codes are equal, otherwise {@code false}
      */
     public static boolean equals(String isbnA, String isbnB) {
-        if (!isValid(isbnA) || !isValid(isbnB)) {
-            return false;
-        }
-        String isbnA13 = formatISBN13(isbnA);
-        return null != isbnA13 && isbnA13.equals(formatISBN13(isbnB));
+        return equals((CharSequence) isbnA, isbnB);
+    }
+
+    /**
+     * Check if the two given ISBN inputs are equal, return {@code false} if either one is not valid.
+     * <p>
+     * The inputs are compared by their normalized keys, see {@link #normalizedKey(CharSequence)}, without formatting
+     * or creating any objects.
+     *
+     * @param isbnA the first ISBN input
+     * @param isbnB the second ISBN input
+     * @return {@code true} if the two ISBN inputs are equal, otherwise {@code false}
+     * @since 1.1.0
+     */
+    public static boolean equals(CharSequence isbnA, CharSequence isbnB) {
+        long keyA = normalizedKey(isbnA);
+        return keyA != INVALID_KEY && keyA == normalizedKey(isbnB);
+    }
+
+    /**
+     * Get the normalized key of the given ISBN input, which is the numeric value of its 13 digits in ISBN-13 format.
+     * <p>
+     * The ISBN-10 and ISBN-13 codes of the same book, with or without separators, have the same key, and the keys are
+     * in the same order as the compacted ISBN-13 codes, so the key can be used to join, sort or hash ISBN inputs
+     * from different sources as a primitive. It is also equal to {@link PackedISBN#isbn13(long)} of the packed form.
+     *
+     * <pre>
+     * ISBN.normalizedKey(null)                = -1
+     * ISBN.normalizedKey("7-03-014726-X")     = 9787030147264
+     * ISBN.normalizedKey("9787030147264")     = 9787030147264
+     * ISBN.normalizedKey("978-7-03-038722-0") = -1
+     * </pre>
+     *
+     * @param isbn the ISBN input
+     * @return the normalized key, or {@link #INVALID_KEY} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static long normalizedKey(CharSequence isbn) {
+        RangeCache cache = rangeCache();
+        long key = normalizedKey(isbn, cache);
+        recordValidation(key != INVALID_KEY, isbn, cache);
+        return key;
+    }
+
+    /**
+     * Get the comparator of ISBN inputs in the numeric order of their ISBN-13 codes, that is the order of their
+     * normalized keys, see {@link #normalizedKey(CharSequence)}. The invalid inputs are equal to each other and
+     * ordered before all valid ones.
+     * <p>
+     * The comparator validates both inputs on each comparison, to sort a large collection it is cheaper to get the
+     * normalized keys once and sort by them.
+     *
+     * @return the comparator in the numeric ISBN-13 order
+     * @since 1.1.0
+     */
+    public static Comparator<CharSequence> comparator() {
+        return ISBN13_ORDER;
     }
 
     /**
@@ -283,8 +641,61 @@ public final class ISBN {
      * @return the formatted ISBN-13 string, {@code null} if the input is not a valid ISBN code
      */
     public static String formatISBN13(String isbn, String separator) {
-        ISBNObject isbnObject = parse(isbn);
-        return null != isbnObject ? isbnObject.toISBN13(separator) : null;
+        return formatISBN13((CharSequence) isbn, separator);
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-13 format.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the formatted ISBN-13 string, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static String formatISBN13(CharSequence isbn, String separator) {
+        return formatISBN13(isbn, separator, rangeCache(), new StringBuilder(SEPARATED_ISBN_13_LENGTH));
+    }
+
+    /**
+     * Format the ISBN input in the given range of a char array to ISBN-13 format.
+     *
+     * @param chars     the char array containing the ISBN
+     * @param offset    the index of the first char
+     * @param length    the number of chars
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the formatted ISBN-13 string, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static String formatISBN13(char[] chars, int offset, int length, String separator) {
+        return formatISBN13(wrap(chars, offset, length), separator);
+    }
+
+    /**
+     * Format the ISBN input in the given range of an ASCII byte array to ISBN-13 format.
+     *
+     * @param bytes     the byte array containing the ISBN
+     * @param offset    the index of the first byte
+     * @param length    the number of bytes
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the formatted ISBN-13 string, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static String formatISBN13(byte[] bytes, int offset, int length, String separator) {
+        return formatISBN13(wrap(bytes, offset, length), separator);
+    }
+
+    /**
+     * Format the ISBN input in the given range of an ASCII byte buffer to ISBN-13 format.
+     *
+     * @param buffer    the byte buffer containing the ISBN, the position is not used or changed
+     * @param offset    the absolute index of the first byte
+     * @param length    the number of bytes
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the formatted ISBN-13 string, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static String formatISBN13(ByteBuffer buffer, int offset, int length, String separator) {
+        return formatISBN13(wrap(buffer, offset, length), separator);
     }
 
     /**
@@ -305,64 +716,1001 @@ public final class ISBN {
      * @return the formatted ISBN-10 string, {@code null} if the input is not a valid ISBN code
      */
     public static String formatISBN10(String isbn, String separator) {
-        ISBNObject isbnObject = parse(isbn);
-        return null != isbnObject ? isbnObject.toISBN10(separator) : null;
+        return formatISBN10((CharSequence) isbn, separator);
     }
 
     /**
-     * Check if the length of the given ISBN input is valid.
+     * Format the given ISBN input to ISBN-10 format.
      *
-     * @param isbn the ISBN to validate
-     * @return {@code true} if the length is valid, otherwise {@code false}
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the formatted ISBN-10 string, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
      */
-    private static boolean isValidLength(String isbn) {
-        return isValidISBN13Length(isbn) || isValidISBN10Length(isbn);
+    public static String formatISBN10(CharSequence isbn, String separator) {
+        return formatISBN10(isbn, separator, rangeCache(), new StringBuilder(SEPARATED_ISBN_10_LENGTH));
     }
 
     /**
-     * Check if the length of the given ISBN input is valid for ISBN-13.
+     * Format the ISBN input in the given range of a char array to ISBN-10 format.
      *
-     * @param isbn the ISBN to validate
-     * @return {@code true} if the length is valid, otherwise {@code false}
+     * @param chars     the char array containing the ISBN
+     * @param offset    the index of the first char
+     * @param length    the number of chars
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the formatted ISBN-10 string, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
      */
-    private static boolean isValidISBN13Length(String isbn) {
-        if (isbn == null) {
-            return false;
-        }
-        int length = isbn.length();
-        return (length == ISBN_13_LENGTH || length == SEPARATED_ISBN_13_LENGTH);
+    public static String formatISBN10(char[] chars, int offset, int length, String separator) {
+        return formatISBN10(wrap(chars, offset, length), separator);
     }
 
     /**
-     * Check if the length of the given ISBN input is valid for ISBN-10.
+     * Format the ISBN input in the given range of an ASCII byte array to ISBN-10 format.
      *
-     * @param isbn the ISBN to validate
-     * @return {@code true} if the length is valid, otherwise {@code false}
+     * @param bytes     the byte array containing the ISBN
+     * @param offset    the index of the first byte
+     * @param length    the number of bytes
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the formatted ISBN-10 string, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
      */
-    private static boolean isValidISBN10Length(String isbn) {
-        if (isbn == null) {
+    public static String formatISBN10(byte[] bytes, int offset, int length, String separator) {
+        return formatISBN10(wrap(bytes, offset, length), separator);
+    }
+
+    /**
+     * Format the ISBN input in the given range of an ASCII byte buffer to ISBN-10 format.
+     *
+     * @param buffer    the byte buffer containing the ISBN, the position is not used or changed
+     * @param offset    the absolute index of the first byte
+     * @param length    the number of bytes
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the formatted ISBN-10 string, {@code null} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static String formatISBN10(ByteBuffer buffer, int offset, int length, String separator) {
+        return formatISBN10(wrap(buffer, offset, length), separator);
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-13 format and append it to the given appendable, such as a
+     * {@link java.io.Writer}, without creating an intermediate String.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added
+     * @param out       the appendable to append to
+     * @return {@code true} if appended, or {@code false} if the input is not a valid ISBN code
+     * @throws IOException if an I/O error occurs
+     * @since 1.1.0
+     */
+    public static boolean formatISBN13To(CharSequence isbn, char separator, Appendable out) throws IOException {
+        long packed = parsePackedISBN13(isbn);
+        if (packed == PackedISBN.INVALID) {
             return false;
         }
-        int length = isbn.length();
-        return (length == ISBN_10_LENGTH || length == SEPARATED_ISBN_10_LENGTH);
+        PackedISBN.formatISBN13(packed, separator, out);
+        return true;
     }
 
     /**
-     * Extract separator from the given ISBN input.
+     * Format the given ISBN input to ISBN-13 format and append it to the given buffer.
      *
-     * @param isbn the ISBN to extract separator
-     * @return the separator, {@code null} if extraction failed
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added
+     * @param sb        the buffer to append to
+     * @return {@code true} if appended, or {@code false} if the input is not a valid ISBN code
+     * @since 1.1.0
      */
-    private static String extractSeparator(String isbn) {
-        if (isbn == null) {
-            return null;
+    public static boolean formatISBN13To(CharSequence isbn, char separator, StringBuilder sb) {
+        long packed = parsePackedISBN13(isbn);
+        if (packed == PackedISBN.INVALID) {
+            return false;
+        }
+        PackedISBN.formatISBN13(packed, separator, sb);
+        return true;
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-13 format and write it into the given array as ASCII bytes.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added, it must be an ASCII character
+     * @param dest      the array to write into, it must have room for 17 bytes from the offset
+     * @param offset    the offset of the first byte to write
+     * @return the number of bytes written, or {@code -1} if the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static int formatISBN13To(CharSequence isbn, char separator, byte[] dest, int offset) {
+        long packed = parsePackedISBN13(isbn);
+        return (packed == PackedISBN.INVALID) ? -1 : PackedISBN.formatISBN13(packed, separator, dest, offset);
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-13 format and put it into the given buffer as ASCII bytes at its
+     * position, which is advanced by the number of bytes written.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added, it must be an ASCII character
+     * @param dest      the buffer to put into
+     * @return the number of bytes written, or {@code -1} if the input is not a valid ISBN code
+     * @throws java.nio.BufferOverflowException if the buffer has not enough room, nothing is written in this case
+     * @since 1.1.0
+     */
+    public static int formatISBN13To(CharSequence isbn, char separator, ByteBuffer dest) {
+        long packed = parsePackedISBN13(isbn);
+        return (packed == PackedISBN.INVALID) ? -1 : PackedISBN.formatISBN13(packed, separator, dest);
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-10 format and append it to the given appendable, such as a
+     * {@link java.io.Writer}, without creating an intermediate String.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added
+     * @param out       the appendable to append to
+     * @return {@code true} if appended, or {@code false} if the input is not a valid ISBN code or has a GS1 prefix
+     * other than 978
+     * @throws IOException if an I/O error occurs
+     * @since 1.1.0
+     */
+    public static boolean formatISBN10To(CharSequence isbn, char separator, Appendable out) throws IOException {
+        long packed = parsePackedISBN10(isbn);
+        if (packed == PackedISBN.INVALID || PackedISBN.gs1Prefix(packed) != GS1_PREFIX_978_VALUE) {
+            return false;
+        }
+        PackedISBN.formatISBN10(packed, separator, out);
+        return true;
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-10 format and append it to the given buffer.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added
+     * @param sb        the buffer to append to
+     * @return {@code true} if appended, or {@code false} if the input is not a valid ISBN code or has a GS1 prefix
+     * other than 978
+     * @since 1.1.0
+     */
+    public static boolean formatISBN10To(CharSequence isbn, char separator, StringBuilder sb) {
+        long packed = parsePackedISBN10(isbn);
+        if (packed == PackedISBN.INVALID || PackedISBN.gs1Prefix(packed) != GS1_PREFIX_978_VALUE) {
+            return false;
+        }
+        PackedISBN.formatISBN10(packed, separator, sb);
+        return true;
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-10 format and write it into the given array as ASCII bytes.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added, it must be an ASCII character
+     * @param dest      the array to write into, it must have room for 13 bytes from the offset
+     * @param offset    the offset of the first byte to write
+     * @return the number of bytes written, {@code 0} if the ISBN has a GS1 prefix other than 978, or {@code -1} if
+     * the input is not a valid ISBN code
+     * @since 1.1.0
+     */
+    public static int formatISBN10To(CharSequence isbn, char separator, byte[] dest, int offset) {
+        long packed = parsePackedISBN10(isbn);
+        return (packed == PackedISBN.INVALID) ? -1 : PackedISBN.formatISBN10(packed, separator, dest, offset);
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-10 format and put it into the given buffer as ASCII bytes at its
+     * position, which is advanced by the number of bytes written.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added, it must be an ASCII character
+     * @param dest      the buffer to put into
+     * @return the number of bytes written, {@code 0} if the ISBN has a GS1 prefix other than 978, or {@code -1} if
+     * the input is not a valid ISBN code
+     * @throws java.nio.BufferOverflowException if the buffer has not enough room, nothing is written in this case
+     * @since 1.1.0
+     */
+    public static int formatISBN10To(CharSequence isbn, char separator, ByteBuffer dest) {
+        long packed = parsePackedISBN10(isbn);
+        return (packed == PackedISBN.INVALID) ? -1 : PackedISBN.formatISBN10(packed, separator, dest);
+    }
+
+    /**
+     * Check each of the given ISBN inputs if it is either a valid ISBN-13 or ISBN-10 code.
+     *
+     * <pre>
+     * ISBN.validateAll(new String[] {"703014726X", null, "978-7-03-038722-6"}) = {0, 2}
+     * </pre>
+     *
+     * @param isbns the ISBNs to validate
+     * @return the bit set whose i-th bit is set if the i-th ISBN is valid
+     */
+    public static BitSet validateAll(CharSequence[] isbns) {
+        RangeCache cache = rangeCache();
+        BitSet valid = new BitSet(isbns.length);
+        for (int i = 0; i < isbns.length; i++) {
+            if (isValid(isbns[i], cache)) {
+                valid.set(i);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Check each of the given ISBN inputs if it is either a valid ISBN-13 or ISBN-10 code.
+     *
+     * @param isbns the ISBNs to validate
+     * @return the bit set whose i-th bit is set if the i-th ISBN is valid
+     */
+    public static BitSet validateAll(List<? extends CharSequence> isbns) {
+        RangeCache cache = rangeCache();
+        BitSet valid = new BitSet(isbns.size());
+        int i = 0;
+        for (CharSequence isbn : isbns) {
+            if (isValid(isbn, cache)) {
+                valid.set(i);
+            }
+            i++;
+        }
+        return valid;
+    }
+
+    /**
+     * Format each of the given ISBN inputs to ISBN-13 format, the results are written into the output array at the
+     * same index, and {@code null} is written for the input which is not a valid ISBN code.
+     *
+     * @param isbns     the ISBNs to format
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @param output    the output array, it must not be shorter than the input array
+     * @return the number of ISBNs formatted successfully
+     */
+    public static int formatISBN13All(CharSequence[] isbns, String separator, String[] output) {
+        return formatISBN13All(Arrays.asList(isbns), separator, output);
+    }
+
+    /**
+     * Format each of the given ISBN inputs to ISBN-13 format, the results are written into the output array at the
+     * same index, and {@code null} is written for the input which is not a valid ISBN code.
+     *
+     * @param isbns     the ISBNs to format
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @param output    the output array, it must not be shorter than the input list
+     * @return the number of ISBNs formatted successfully
+     */
+    public static int formatISBN13All(List<? extends CharSequence> isbns, String separator, String[] output) {
+        if (output.length < isbns.size()) {
+            throw new ISBNException("Output array is shorter than the input: " + output.length);
+        }
+        RangeCache cache = rangeCache();
+        StringBuilder sb = new StringBuilder(SEPARATED_ISBN_13_LENGTH);
+        int count = 0;
+        int i = 0;
+        for (CharSequence isbn : isbns) {
+            output[i] = formatISBN13(isbn, separator, cache, sb);
+            count += (output[i++] != null) ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Wrap the given range of a char array as a {@link CharSequence} without copying.
+     *
+     * @param chars  the char array, may be {@code null}
+     * @param offset the index of the first char
+     * @param length the number of chars
+     * @return the char sequence, {@code null} if the array is {@code null}
+     */
+    private static CharSequence wrap(char[] chars, int offset, int length) {
+        return (chars == null) ? null : CharBuffer.wrap(chars, offset, length);
+    }
+
+    /**
+     * Wrap the given range of an ASCII byte array as a {@link CharSequence} without copying.
+     *
+     * @param bytes  the byte array, may be {@code null}
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the char sequence, {@code null} if the array is {@code null}
+     */
+    private static CharSequence wrap(byte[] bytes, int offset, int length) {
+        return (bytes == null) ? null : new AsciiSequence(bytes, offset, length);
+    }
+
+    /**
+     * Wrap the given range of an ASCII byte buffer as a {@link CharSequence} without copying.
+     *
+     * @param buffer the byte buffer, may be {@code null}
+     * @param offset the absolute index of the first byte
+     * @param length the number of bytes
+     * @return the char sequence, {@code null} if the buffer is {@code null}
+     */
+    private static CharSequence wrap(ByteBuffer buffer, int offset, int length) {
+        return (buffer == null) ? null : new AsciiSequence(buffer, offset, length);
+    }
+
+    /**
+     * Check if the length of the given ISBN input is valid.
+     *
+     * @param isbn the ISBN to validate
+     * @return {@code true} if the length is valid, otherwise {@code false}
+     */
+    private static boolean isValidLength(CharSequence isbn) {
+        return isValidISBN13Length(isbn) || isValidISBN10Length(isbn);
+    }
+
+    /**
+     * Check if the length of the given ISBN input is valid for ISBN-13.
+     *
+     * @param isbn the ISBN to validate
+     * @return {@code true} if the length is valid, otherwise {@code false}
+     */
+    private static boolean isValidISBN13Length(CharSequence isbn) {
+        if (isbn == null) {
+            return false;
+        }
+        int length = isbn.length();
+        return (length == ISBN_13_LENGTH || length == SEPARATED_ISBN_13_LENGTH);
+    }
+
+    /**
+     * Check if the length of the given ISBN input is valid for ISBN-10.
+     *
+     * @param isbn the ISBN to validate
+     * @return {@code true} if the length is valid, otherwise {@code false}
+     */
+    private static boolean isValidISBN10Length(CharSequence isbn) {
+        if (isbn == null) {
+            return false;
+        }
+        int length = isbn.length();
+        return (length == ISBN_10_LENGTH || length == SEPARATED_ISBN_10_LENGTH);
+    }
+
+    /**
+     * Format each of the given ISBN inputs to ISBN-13 format in parallel with the common fork/join pool.
+     *
+     * @param isbns     the ISBNs to format
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the bulk result, the results are in the same order as the inputs
+     */
+    public static BulkResult formatISBN13Parallel(List<? extends CharSequence> isbns, String separator) {
+        return formatISBN13Parallel(isbns, separator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Format each of the given ISBN inputs to ISBN-13 format in parallel with the given executor, the inputs are
+     * split recursively if it is a {@link ForkJoinPool}, otherwise they are submitted in chunks. This method waits
+     * for all inputs to be formatted.
+     *
+     * @param isbns     the ISBNs to format
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @param executor  the executor to run the workers
+     * @return the bulk result, the results are in the same order as the inputs
+     */
+    public static BulkResult formatISBN13Parallel(List<? extends CharSequence> isbns, String separator,
+                                                  Executor executor) {
+        return formatISBN13Parallel(isbns.toArray(new CharSequence[0]), separator, executor);
+    }
+
+    /**
+     * Format each of the given ISBN inputs to ISBN-13 format in parallel with the given executor, the inputs are
+     * split recursively if it is a {@link ForkJoinPool}, otherwise they are submitted in chunks. This method waits
+     * for all inputs to be formatted.
+     *
+     * @param isbns     the ISBNs to format
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @param executor  the executor to run the workers
+     * @return the bulk result, the results are in the same order as the inputs
+     */
+    public static BulkResult formatISBN13Parallel(CharSequence[] isbns, String separator, Executor executor) {
+        return new BulkFormatter(isbns, separator, rangeCache()).run(executor);
+    }
+
+    /**
+     * Check if the given ISBN input is either a valid ISBN-13 or ISBN-10 code against the given range cache.
+     *
+     * @param isbn  the ISBN to validate
+     * @param cache the range cache to split the ISBN
+     * @return {@code true} if a valid ISBN-10 or ISBN-13 code, otherwise {@code false}
+     */
+    private static boolean isValid(CharSequence isbn, RangeCache cache) {
+        return recordValidation(isValidISBN13(isbn, cache) || isValidISBN10(isbn, cache), isbn, cache);
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-13 format against the given range cache.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @param cache     the range cache to split the ISBN
+     * @param sb        the reusable buffer to build the result
+     * @return the formatted ISBN-13 string, {@code null} if the input is not a valid ISBN code
+     */
+    static String formatISBN13(CharSequence isbn, String separator, RangeCache cache, StringBuilder sb) {
+        long isbn12 = scanISBN12(isbn);
+        int hyphens = (isbn12 < 0) ? -1 : hyphenate(isbn12, cache);
+        if (hyphens < 0) {
+            recordFailure(ISBNMetrics.Operation.FORMAT, isbn, cache);
+            return null;
+        }
+        recordSuccess(ISBNMetrics.Operation.FORMAT);
+        String sep = (separator == null) ? EMPTY : separator;
+        int groupEnd = GS1_PREFIX_LENGTH + (hyphens >>> 4);
+        int registrantEnd = groupEnd + (hyphens & 0xF);
+        sb.setLength(0);
+        appendDigits(sb, isbn12, 0, GS1_PREFIX_LENGTH).append(sep);
+        appendDigits(sb, isbn12, GS1_PREFIX_LENGTH, groupEnd).append(sep);
+        appendDigits(sb, isbn12, groupEnd, registrantEnd).append(sep);
+        appendDigits(sb, isbn12, registrantEnd, ISBN_13_LENGTH - 1).append(sep);
+        return sb.append(isbn13CheckDigit(isbn12)).toString();
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-10 format against the given range cache.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @param cache     the range cache to split the ISBN
+     * @param sb        the reusable buffer to build the result
+     * @return the formatted ISBN-10 string, {@code null} if the input is not a valid ISBN code or has a GS1 prefix
+     * other than 978
+     */
+    static String formatISBN10(CharSequence isbn, String separator, RangeCache cache, StringBuilder sb) {
+        long isbn12 = scanISBN12(isbn);
+        int hyphens = (isbn12 / POW10[ISBN_10_LENGTH - 1] != GS1_PREFIX_978_VALUE) ? -1 : hyphenate(isbn12, cache);
+        if (hyphens < 0) {
+            recordFailure(ISBNMetrics.Operation.FORMAT, isbn, cache);
+            return null;
         }
-        Set<Character> separators = new HashSet<>();
-        for (char ch : isbn.substring(0, isbn.length() - 1).toCharArray()) {
-            if (ch < CHAR_0 || ch > CHAR_9) {
-                separators.add(ch);
+        recordSuccess(ISBNMetrics.Operation.FORMAT);
+        String sep = (separator == null) ? EMPTY : separator;
+        int groupEnd = GS1_PREFIX_LENGTH + (hyphens >>> 4);
+        int registrantEnd = groupEnd + (hyphens & 0xF);
+        sb.setLength(0);
+        appendDigits(sb, isbn12, GS1_PREFIX_LENGTH, groupEnd).append(sep);
+        appendDigits(sb, isbn12, groupEnd, registrantEnd).append(sep);
+        appendDigits(sb, isbn12, registrantEnd, ISBN_13_LENGTH - 1).append(sep);
+        return sb.append(isbn10CheckDigit(isbn12)).toString();
+    }
+
+    /**
+     * Scan the first 12-digits of ISBN from the given ISBN input in the same way as {@link #compact(String)} and
+     * {@link #parse(String)}, but without creating any objects.
+     *
+     * @param code the ISBN code to scan
+     * @return the numeric value of the first 12-digits of ISBN, {@link #SCAN_INVALID_LENGTH} if the compacted code
+     * has an invalid length, or {@link #SCAN_INVALID_CHARACTER} if it ends with a misplaced 'X'
+     */
+    static long scanISBN12(CharSequence code) {
+        if (code == null) {
+            return SCAN_INVALID_LENGTH;
+        }
+
+        // find the last digit or 'X' character
+        int checkIndex = code.length() - 1;
+        while (checkIndex >= 0
+            && !isDigit(code.charAt(checkIndex)) && Character.toUpperCase(code.charAt(checkIndex)) != CHAR_X) {
+            checkIndex--;
+        }
+        if (checkIndex < 0) {
+            return SCAN_INVALID_LENGTH;
+        }
+
+        // accumulate the rest digit characters
+        long value = 0;
+        int count = 0;
+        for (int i = 0; i < checkIndex; i++) {
+            char ch = code.charAt(i);
+            if (isDigit(ch)) {
+                if (++count >= ISBN_13_LENGTH) {
+                    return SCAN_INVALID_LENGTH;
+                }
+                value = value * 10 + (ch - CHAR_0);
+            }
+        }
+
+        // construct the first 12-digits of ISBN from the compacted code
+        char last = code.charAt(checkIndex);
+        switch (count + 1) {
+            case ISBN_13_LENGTH:
+                return value;
+            case ISBN_13_LENGTH - 1:
+                return isDigit(last) ? value * 10 + (last - CHAR_0) : SCAN_INVALID_CHARACTER;
+            case ISBN_10_LENGTH:
+                return GS1_PREFIX_978_VALUE * POW10[ISBN_10_LENGTH - 1] + value;
+            case ISBN_10_LENGTH - 1:
+                return isDigit(last) ? GS1_PREFIX_978_VALUE * POW10[ISBN_10_LENGTH - 1] + value * 10 + (last - CHAR_0)
+                    : SCAN_INVALID_CHARACTER;
+            default:
+                return SCAN_INVALID_LENGTH;
+        }
+    }
+
+    /**
+     * Parse the given ISBN code into the packed form against the given range cache.
+     *
+     * @param code  the ISBN code to parse
+     * @param cache the range cache to split the ISBN
+     * @return the packed ISBN, {@link PackedISBN#INVALID} if the input is not a valid ISBN code
+     */
+    static long parsePacked(CharSequence code, RangeCache cache) {
+        long isbn12 = scanISBN12(code);
+        int hyphens = (isbn12 < 0) ? -1 : hyphenate(isbn12, cache);
+        return (hyphens < 0) ? PackedISBN.INVALID : PackedISBN.pack(isbn12, hyphens);
+    }
+
+    /**
+     * Parse the given ISBN input into the packed form for ISBN-13 formatting against the current range cache.
+     *
+     * @param isbn the ISBN to parse
+     * @return the packed ISBN, {@link PackedISBN#INVALID} if the input is not a valid ISBN code
+     */
+    private static long parsePackedISBN13(CharSequence isbn) {
+        RangeCache cache = rangeCache();
+        long packed = parsePacked(isbn, cache);
+        recordFormat(packed, isbn, cache);
+        return packed;
+    }
+
+    /**
+     * Parse the given ISBN input into the packed form for ISBN-10 formatting against the current range cache, an
+     * ISBN with a GS1 prefix other than 978 is returned as well, but reported as a failed format call.
+     *
+     * @param isbn the ISBN to parse
+     * @return the packed ISBN, {@link PackedISBN#INVALID} if the input is not a valid ISBN code
+     */
+    private static long parsePackedISBN10(CharSequence isbn) {
+        RangeCache cache = rangeCache();
+        long packed = parsePacked(isbn, cache);
+        boolean hasISBN10 = packed != PackedISBN.INVALID && PackedISBN.gs1Prefix(packed) == GS1_PREFIX_978_VALUE;
+        recordFormat(hasISBN10 ? packed : PackedISBN.INVALID, isbn, cache);
+        return packed;
+    }
+
+    /**
+     * Report a successful call of the given operation to the installed metrics.
+     *
+     * @param operation the operation
+     */
+    private static void recordSuccess(ISBNMetrics.Operation operation) {
+        ISBNMetrics m = metrics;
+        if (m != ISBNMetrics.NOOP) {
+            m.onSuccess(operation);
+        }
+    }
+
+    /**
+     * Report a failed call of the given operation to the installed metrics, the stage rejecting the input is only
+     * classified if the instrumentation is enabled.
+     *
+     * @param operation the operation
+     * @param code      the rejected input
+     * @param cache     the range cache used by the operation
+     */
+    private static void recordFailure(ISBNMetrics.Operation operation, CharSequence code, RangeCache cache) {
+        ISBNMetrics m = metrics;
+        if (m != ISBNMetrics.NOOP) {
+            m.onFailure(operation, parseError(code, cache));
+        }
+    }
+
+    /**
+     * Report a format call to the installed metrics.
+     *
+     * @param packed the packed ISBN to format, {@link PackedISBN#INVALID} if the input is rejected
+     * @param isbn   the ISBN input
+     * @param cache  the range cache used by the operation
+     */
+    private static void recordFormat(long packed, CharSequence isbn, RangeCache cache) {
+        if (packed == PackedISBN.INVALID) {
+            recordFailure(ISBNMetrics.Operation.FORMAT, isbn, cache);
+        } else {
+            recordSuccess(ISBNMetrics.Operation.FORMAT);
+        }
+    }
+
+    /**
+     * Report a validate call to the installed metrics.
+     *
+     * @param valid whether the input is valid
+     * @param isbn  the ISBN input
+     * @param cache the range cache used by the operation
+     * @return the given validation result
+     */
+    private static boolean recordValidation(boolean valid, CharSequence isbn, RangeCache cache) {
+        ISBNMetrics m = metrics;
+        if (m == ISBNMetrics.NOOP) {
+            return valid;
+        }
+        if (valid) {
+            m.onSuccess(ISBNMetrics.Operation.VALIDATE);
+        } else {
+            m.onFailure(ISBNMetrics.Operation.VALIDATE, validationError(isbn, cache));
+        }
+        return valid;
+    }
+
+    /**
+     * Find the reason why the given ISBN input is not valid in the same way as {@link #isValid(String)}.
+     *
+     * @param isbn  the ISBN input to check
+     * @param cache the range cache to split the ISBN
+     * @return the reason, or {@code null} if the input is valid
+     */
+    private static ParseError validationError(CharSequence isbn, RangeCache cache) {
+        long isbn12 = scanISBN12(isbn);
+        return validationError(isbn, isbn12, (isbn12 < 0) ? -1 : hyphenate(isbn12, cache), cache);
+    }
+
+    /**
+     * Find the reason why the given ISBN input is not valid in the same way as {@link #isValid(String)}, with the
+     * result of {@link #scanISBN12(CharSequence)} and {@link #hyphenate(long, RangeCache)} of the input, which are
+     * the same as the strict scanning if the digits and separators are valid.
+     *
+     * @param isbn    the ISBN input to check
+     * @param isbn12  the numeric value of the first 12-digits of ISBN scanned from the input
+     * @param hyphens the element lengths of the scanned ISBN, negative if it cannot be split
+     * @param cache   the range cache to split the ISBN
+     * @return the reason, or {@code null} if the input is valid
+     */
+    private static ParseError validationError(CharSequence isbn, long isbn12, int hyphens, RangeCache cache) {
+        if (!isValidLength(isbn)) {
+            return ParseError.INVALID_LENGTH;
+        }
+
+        // count the digits and find the kinds of separators before the check digit
+        int length = isbn.length();
+        int count = 0;
+        int separator = -1;
+        boolean mixed = false;
+        for (int i = 0; i < length - 1; i++) {
+            char ch = isbn.charAt(i);
+            if (isDigit(ch)) {
+                count++;
+            } else if (separator < 0) {
+                separator = ch;
+            } else if (ch != separator) {
+                mixed = true;
+            }
+        }
+        char last = isbn.charAt(length - 1);
+        boolean isbn13 = (count == ISBN_13_LENGTH - 1) && isValidISBN13Length(isbn) && isDigit(last);
+        boolean isbn10 = (count == ISBN_10_LENGTH - 1) && isValidISBN10Length(isbn)
+            && (isDigit(last) || last == CHAR_X);
+        if (!isbn13 && !isbn10) {
+            return ParseError.INVALID_CHARACTER;
+        }
+        if (mixed) {
+            return ParseError.MIXED_SEPARATORS;
+        }
+        if (last != (isbn13 ? isbn13CheckDigit(isbn12) : isbn10CheckDigit(isbn12))) {
+            return ParseError.INVALID_CHECK_DIGIT;
+        }
+        if (hyphens < 0) {
+            return lookupError(isbn12, cache);
+        }
+        if (separator < 0) {
+            return null;
+        }
+
+        // the separators must be placed between each element
+        int groupEnd = (isbn13 ? GS1_PREFIX_LENGTH + 1 : 0) + (hyphens >>> 4);
+        int registrantEnd = groupEnd + 1 + (hyphens & 0xF);
+        boolean misplaced = (isbn13 && isDigit(isbn.charAt(GS1_PREFIX_LENGTH)))
+            || isDigit(isbn.charAt(groupEnd))
+            || isDigit(isbn.charAt(registrantEnd))
+            || isDigit(isbn.charAt(length - 2));
+        return misplaced ? ParseError.MISPLACED_SEPARATOR : null;
+    }
+
+    /**
+     * Find the stage rejecting the given ISBN code in the same way as {@link ISBNParser#parse(CharSequence,
+     * ParsedISBN)}.
+     *
+     * @param code  the ISBN code to check
+     * @param cache the range cache to split the ISBN
+     * @return the stage rejecting the code, or {@code null} if the code can be parsed
+     */
+    private static ParseError parseError(CharSequence code, RangeCache cache) {
+        long isbn12 = scanISBN12(code);
+        if (isbn12 == SCAN_INVALID_LENGTH) {
+            return ParseError.INVALID_LENGTH;
+        }
+        if (isbn12 == SCAN_INVALID_CHARACTER) {
+            return ParseError.INVALID_CHARACTER;
+        }
+        return (hyphenate(isbn12, cache) < 0) ? lookupError(isbn12, cache) : null;
+    }
+
+    /**
+     * Find the element which cannot be split from the given first 12-digits of ISBN by the range cache.
+     *
+     * @param isbn12 the numeric value of the first 12-digits of ISBN, which cannot be split
+     * @param cache  the range cache to split the ISBN
+     * @return the reason why the ISBN cannot be split
+     */
+    private static ParseError lookupError(long isbn12, RangeCache cache) {
+        int groupLength = cache.findRegistrationGroupLength(isbn12);
+        if (groupLength <= 0) {
+            return groupLength < 0 ? ParseError.UNKNOWN_GS1_PREFIX : ParseError.UNKNOWN_REGISTRATION_GROUP;
+        }
+        return ParseError.UNKNOWN_REGISTRANT;
+    }
+
+    /**
+     * Create an {@link ISBNObject} from the given first 12-digits of ISBN and the element lengths.
+     * <p>
+     * The GS1 prefix, registration group and registrant elements are the canonical instances of the given range
+     * cache, so the objects parsed against it do not hold their own copies of them.
+     *
+     * @param isbn12  the numeric value of the first 12-digits of ISBN
+     * @param hyphens the element lengths returned by {@link #hyphenate(long, RangeCache)}
+     * @param cache   the range cache holding the canonical elements, or {@code null} to create new elements
+     * @return the {@link ISBNObject}
+     */
+    static ISBNObject toISBNObject(long isbn12, int hyphens, RangeCache cache) {
+        int groupLength = hyphens >>> 4;
+        int registrantLength = hyphens & 0xF;
+        int registrantEnd = GS1_PREFIX_LENGTH + groupLength + registrantLength;
+        String publication = appendDigits(new StringBuilder(ISBN_13_LENGTH - 1 - registrantEnd), isbn12,
+            registrantEnd, ISBN_13_LENGTH - 1).toString();
+        if (cache != null) {
+            return new ISBNObject(cache.internGS1Prefix(isbn12), cache.internRegistrationGroup(isbn12, groupLength),
+                cache.internRegistrant(isbn12, groupLength, registrantLength), publication);
+        }
+
+        // extract the GS1 prefix, registration group and registrant from the first 12-digits of ISBN
+        String digits = appendDigits(new StringBuilder(registrantEnd), isbn12, 0, registrantEnd).toString();
+        int groupEnd = GS1_PREFIX_LENGTH + groupLength;
+        return new ISBNObject(digits.substring(0, GS1_PREFIX_LENGTH), digits.substring(GS1_PREFIX_LENGTH, groupEnd),
+            digits.substring(groupEnd), publication);
+    }
+
+    /**
+     * Append the digits in the range [from, to) of the given first 12-digits of ISBN.
+     *
+     * @param sb     the buffer to append to
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @param from   the start index of the digits, inclusive
+     * @param to     the end index of the digits, exclusive
+     * @return the given buffer
+     */
+    private static StringBuilder appendDigits(StringBuilder sb, long isbn12, int from, int to) {
+        for (int i = from; i < to; i++) {
+            sb.append((char) (isbn12 / POW10[ISBN_13_LENGTH - 2 - i] % 10 + CHAR_0));
+        }
+        return sb;
+    }
+
+    /**
+     * Check if the given ISBN input is a valid ISBN-13 code against the given range cache.
+     * <p>
+     * The input is valid only if it equals to its own ISBN-13 format with the separator it contains, this method
+     * checks it by walking the input once without creating any objects.
+     *
+     * @param isbn  the ISBN to validate
+     * @param cache the range cache to split the ISBN
+     * @return {@code true} if a valid ISBN-13 code, otherwise {@code false}
+     */
+    private static boolean isValidISBN13(CharSequence isbn, RangeCache cache) {
+        return scanValidISBN13(isbn, cache) >= 0;
+    }
+
+    /**
+     * Scan the given ISBN input if it is a valid ISBN-13 code against the given range cache, see
+     * {@link #isValidISBN13(CharSequence, RangeCache)}.
+     *
+     * @param isbn  the ISBN to scan
+     * @param cache the range cache to split the ISBN
+     * @return the numeric value of the first 12-digits of ISBN, or {@code -1} if not a valid ISBN-13 code
+     */
+    private static long scanValidISBN13(CharSequence isbn, RangeCache cache) {
+        if (!isValidISBN13Length(isbn)) {
+            return -1;
+        }
+        int length = isbn.length();
+        long isbn12 = scanDigits(isbn, ISBN_13_LENGTH - 1, 0);
+        if (isbn12 < 0 || isbn.charAt(length - 1) != isbn13CheckDigit(isbn12)) {
+            return -1;
+        }
+        int hyphens = hyphenate(isbn12, cache);
+        if (hyphens < 0) {
+            return -1;
+        }
+        if (length == ISBN_13_LENGTH) {
+            return isbn12;
+        }
+
+        // the separators must be placed between each element
+        int groupEnd = GS1_PREFIX_LENGTH + 1 + (hyphens >>> 4);
+        int registrantEnd = groupEnd + 1 + (hyphens & 0xF);
+        boolean placed = !isDigit(isbn.charAt(GS1_PREFIX_LENGTH))
+            && !isDigit(isbn.charAt(groupEnd))
+            && !isDigit(isbn.charAt(registrantEnd))
+            && !isDigit(isbn.charAt(length - 2));
+        return placed ? isbn12 : -1;
+    }
+
+    /**
+     * Check if the given ISBN input is a valid ISBN-10 code against the given range cache.
+     * <p>
+     * The input is valid only if it equals to its own ISBN-10 format with the separator it contains, this method
+     * checks it by walking the input once without creating any objects.
+     *
+     * @param isbn  the ISBN to validate
+     * @param cache the range cache to split the ISBN
+     * @return {@code true} if a valid ISBN-10 code, otherwise {@code false}
+     */
+    private static boolean isValidISBN10(CharSequence isbn, RangeCache cache) {
+        return scanValidISBN10(isbn, cache) >= 0;
+    }
+
+    /**
+     * Scan the given ISBN input if it is a valid ISBN-10 code against the given range cache, see
+     * {@link #isValidISBN10(CharSequence, RangeCache)}.
+     *
+     * @param isbn  the ISBN to scan
+     * @param cache the range cache to split the ISBN
+     * @return the numeric value of the first 12-digits of ISBN with the GS1 prefix 978, or {@code -1} if not a valid
+     * ISBN-10 code
+     */
+    private static long scanValidISBN10(CharSequence isbn, RangeCache cache) {
+        if (!isValidISBN10Length(isbn)) {
+            return -1;
+        }
+        int length = isbn.length();
+        long isbn12 = scanDigits(isbn, ISBN_10_LENGTH - 1, GS1_PREFIX_978_VALUE);
+        if (isbn12 < 0 || isbn.charAt(length - 1) != isbn10CheckDigit(isbn12)) {
+            return -1;
+        }
+        int hyphens = hyphenate(isbn12, cache);
+        if (hyphens < 0) {
+            return -1;
+        }
+        if (length == ISBN_10_LENGTH) {
+            return isbn12;
+        }
+
+        // the separators must be placed between each element
+        int groupEnd = hyphens >>> 4;
+        int registrantEnd = groupEnd + 1 + (hyphens & 0xF);
+        boolean placed = !isDigit(isbn.charAt(groupEnd))
+            && !isDigit(isbn.charAt(registrantEnd))
+            && !isDigit(isbn.charAt(length - 2));
+        return placed ? isbn12 : -1;
+    }
+
+    /**
+     * Get the normalized key of the given ISBN input against the given range cache.
+     *
+     * @param isbn  the ISBN input
+     * @param cache the range cache to split the ISBN
+     * @return the normalized key, or {@link #INVALID_KEY} if the input is not a valid ISBN code
+     */
+    private static long normalizedKey(CharSequence isbn, RangeCache cache) {
+        long isbn12 = scanValidISBN13(isbn, cache);
+        if (isbn12 < 0) {
+            isbn12 = scanValidISBN10(isbn, cache);
+        }
+        return (isbn12 < 0) ? INVALID_KEY : isbn12 * 10 + (isbn13CheckDigit(isbn12) - CHAR_0);
+    }
+
+    /**
+     * Scan the characters before the check digit of the given ISBN input, which must be the expected number of digits
+     * separated by the same separator.
+     *
+     * @param isbn   the ISBN to scan
+     * @param digits the expected number of digits
+     * @param prefix the numeric value of the GS1 prefix to prepend, or {@code 0} if the digits contain it
+     * @return the numeric value of the first 12-digits of ISBN, or {@code -1} if the input is malformed
+     */
+    static long scanDigits(CharSequence isbn, int digits, long prefix) {
+        int end = isbn.length() - 1;
+        long value = prefix;
+        int count = 0;
+        char separator = 0;
+        for (int i = 0; i < end; i++) {
+            char ch = isbn.charAt(i);
+            if (isDigit(ch)) {
+                value = value * 10 + (ch - CHAR_0);
+                count++;
+            } else if (count == i || ch == separator) {
+                // the first separator or the same as the first one
+                separator = (count == i) ? ch : separator;
+            } else {
+                return -1;
+            }
+        }
+        return (count == digits) ? value : -1;
+    }
+
+    /**
+     * Find the lengths of the registration group and registrant elements of the given ISBN.
+     *
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @param cache  the range cache to split the ISBN
+     * @return the registration group length in the high bits and the registrant length in the low 4 bits, or
+     * {@code -1} if the ISBN cannot be split
+     */
+    static int hyphenate(long isbn12, RangeCache cache) {
+        return cache.findElementLengths(isbn12);
+    }
+
+    /**
+     * Calculate the ISBN-13 check digit of the given first 12-digits of ISBN.
+     *
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @return the ISBN-13 check digit
+     */
+    static char isbn13CheckDigit(long isbn12) {
+        int sum = 0;
+        for (int i = 0; i < ISBN_13_LENGTH - 1; i++) {
+            int digit = (int) (isbn12 % 10);
+            sum += (i % 2 == 0) ? digit * 3 : digit;
+            isbn12 /= 10;
+        }
+        return (char) ((10 - sum % 10) % 10 + CHAR_0);
+    }
+
+    /**
+     * Calculate the ISBN-10 check digit of the given first 12-digits of ISBN.
+     *
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @return the ISBN-10 check digit
+     */
+    static char isbn10CheckDigit(long isbn12) {
+        int sum = 0;
+        for (int i = 0; i < ISBN_10_LENGTH - 1; i++) {
+            sum += (int) (isbn12 % 10) * (i + 2);
+            isbn12 /= 10;
+        }
+        int checkDigit = (11 - sum % 11) % 11;
+        return (checkDigit == 10) ? CHAR_X : (char) (checkDigit + CHAR_0);
+    }
+
+    /**
+     * Check if the given character is a digit.
+     *
+     * @param ch the character to check
+     * @return {@code true} if a digit, otherwise {@code false}
+     */
+    private static boolean isDigit(char ch) {
+        return ch >= CHAR_0 && ch <= CHAR_9;
+    }
+
+    /**
+     * This class holds the bundled range cache, which is loaded when the class is initialized on first use, so that
+     * the methods without the range cache do not pay for loading it.
+     */
+    private static final class BundledRangeCache {
+        static final RangeCache INSTANCE = load();
+
+        /**
+         * Load the bundled snapshot, or the default range message file if unavailable.
+         *
+         * @return the bundled range cache
+         */
+        private static RangeCache load() {
+            try (InputStream is = ISBN.class.getResourceAsStream("/RangeMessage.bin")) {
+                if (null != is) {
+                    return RangeSnapshot.read(is);
+                }
+            } catch (IOException | ISBNException e) {
+                // fall back to the range message file
+            }
+            try (InputStream is = ISBN.class.getResourceAsStream("/RangeMessage.xml")) {
+                return RangeHandler.parse(is);
+            } catch (IOException e) {
+                throw new ISBNException(e.getMessage(), e);
             }
         }
-        return separators.size() == 1 ? separators.iterator().next().toString() : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package io.github.c5h12o5.isbn;
+
+/**
+ * This class represents the result of {@link ISBN#analyze(CharSequence)}, which tells whether the input is a valid
+ * ISBN-13 or ISBN-10 code, the reason if not, and the parsed elements if the input can be parsed, so that the input
+ * does not need to be parsed again by the other utility methods.
+ *
+ * <pre>
+ * ISBNAnalysis analysis = ISBN.analyze(code);
+ * if (analysis.isValid()) {
+ *     output.add(analysis.getISBNObject().toISBN13(ISBN.HYPHEN_SEPARATOR));
+ * } else {
+ *     rejected.add(code, analysis.getError());
+ * }
+ * </pre>
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class ISBNAnalysis {
+
+    private final ParseError error;
+    private final boolean isbn10;
+    private final ISBNObject isbnObject;
+
+    /**
+     * Create an analysis result.
+     *
+     * @param error      the reason why the input is not valid, {@code null} if valid
+     * @param isbn10     whether the input is written in ISBN-10 format
+     * @param isbnObject the parsed elements, {@code null} if the input cannot be parsed
+     */
+    ISBNAnalysis(ParseError error, boolean isbn10, ISBNObject isbnObject) {
+        this.error = error;
+        this.isbn10 = isbn10;
+        this.isbnObject = isbnObject;
+    }
+
+    /**
+     * Check if the input is either a valid ISBN-13 or ISBN-10 code, the same as {@link ISBN#isValid(String)}.
+     *
+     * @return {@code true} if a valid ISBN-10 or ISBN-13 code, otherwise {@code false}
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * Check if the input is a valid ISBN-13 code, the same as {@link ISBN#isValidISBN13(String)}.
+     *
+     * @return {@code true} if a valid ISBN-13 code, otherwise {@code false}
+     */
+    public boolean isValidISBN13() {
+        return error == null && !isbn10;
+    }
+
+    /**
+     * Check if the input is a valid ISBN-10 code, the same as {@link ISBN#isValidISBN10(String)}.
+     *
+     * @return {@code true} if a valid ISBN-10 code, otherwise {@code false}
+     */
+    public boolean isValidISBN10() {
+        return error == null && isbn10;
+    }
+
+    /**
+     * Get the reason why the input is not valid, the first failed check is reported if there are many.
+     *
+     * @return the reason, {@code null} if the input is valid
+     */
+    public ParseError getError() {
+        return error;
+    }
+
+    /**
+     * Get the parsed elements of the input, the same as {@link ISBN#parse(String)}. An input which is not valid may
+     * still be parsed, such as an input with a wrong check digit, whose check digit is recalculated.
+     *
+     * @return the parsed {@link ISBNObject}, {@code null} if the input cannot be parsed
+     */
+    public ISBNObject getISBNObject() {
+        return isbnObject;
+    }
+
+}
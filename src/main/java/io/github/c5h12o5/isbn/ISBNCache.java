@@ -0,0 +1,291 @@
+package io.github.c5h12o5.isbn;
+
+import io.github.c5h12o5.isbn.range.RangeCache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is an optional, size-bounded and thread-safe memoizing layer in front of {@link ISBN#parse(String)} and
+ * {@link ISBN#formatISBN13(String, String)}, which saves the range lookups of the frequently requested ISBN codes.
+ * <p>
+ * The results are keyed by the compacted code, so the different forms of the same ISBN share one entry. The entries
+ * are spread over independently locked segments, each of which holds an equal share of the capacity, and once a
+ * segment is full, a new entry of the segment evicts one of its entries by the configured {@link EvictionPolicy}.
+ * All entries are dropped automatically when a new range cache is installed, such as by
+ * {@link ISBN#loadRangeMessageFile(java.io.InputStream)}.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class ISBNCache {
+
+    /**
+     * The policy deciding which entry is evicted when a segment of the cache is full.
+     */
+    public enum EvictionPolicy {
+
+        /** Evict the least recently used entry. */
+        LRU,
+        /** Evict the earliest added entry, a lookup does not reorder the entries, so it is cheaper than LRU. */
+        FIFO
+    }
+
+    private static final int MAX_SEGMENTS = 64;
+
+    /** The packed value cached for a code which cannot be split by the range cache. */
+    private static final Entry INVALID_ENTRY = new Entry(PackedISBN.INVALID, null);
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final EvictionPolicy policy;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Create a LRU cache with the given capacity.
+     *
+     * @param capacity the max number of cached entries
+     */
+    public ISBNCache(int capacity) {
+        this(capacity, EvictionPolicy.LRU);
+    }
+
+    /**
+     * Create a cache with the given capacity and eviction policy.
+     *
+     * @param capacity the max number of cached entries
+     * @param policy   the eviction policy
+     */
+    public ISBNCache(int capacity, EvictionPolicy policy) {
+        if (capacity <= 0) {
+            throw new ISBNException("Capacity must be positive: " + capacity);
+        }
+        if (null == policy) {
+            throw new ISBNException("Eviction policy must not be null");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+
+        // use more segments for larger caches to reduce the lock contention
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, capacity / 16)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentCapacity = capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0);
+            segments[i] = new Segment(segmentCapacity, policy == EvictionPolicy.LRU);
+        }
+    }
+
+    /**
+     * Parse the given ISBN code into an {@link ISBNObject}, see {@link ISBN#parse(CharSequence)}.
+     *
+     * @param code the ISBN code to parse
+     * @return the parsed {@link ISBNObject}, {@code null} if the input is not a valid ISBN code
+     */
+    public ISBNObject parse(CharSequence code) {
+        return lookup(code).object;
+    }
+
+    /**
+     * Parse the given ISBN code into the packed form, see {@link PackedISBN#parse(CharSequence)}.
+     *
+     * @param code the ISBN code to parse
+     * @return the packed ISBN, {@link PackedISBN#INVALID} if the input is not a valid ISBN code
+     */
+    public long parsePacked(CharSequence code) {
+        return lookup(code).packed;
+    }
+
+    /**
+     * Format the given ISBN input to ISBN-13 format, see {@link ISBN#formatISBN13(CharSequence, String)}.
+     *
+     * @param isbn      the ISBN to format
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the formatted ISBN-13 string, {@code null} if the input is not a valid ISBN code
+     */
+    public String formatISBN13(CharSequence isbn, String separator) {
+        return PackedISBN.toISBN13(lookup(isbn).packed, separator);
+    }
+
+    /**
+     * Get the max number of cached entries.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the eviction policy.
+     *
+     * @return the eviction policy
+     */
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Get the number of lookups answered by the cached entries.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups which have to parse the input.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of entries evicted because the cache is full, the entries dropped for a new range cache are not
+     * counted.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the number of cached entries.
+     *
+     * @return the number of cached entries
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Remove all cached entries, the counters are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size.addAndGet(-segment.map.size());
+                segment.map.clear();
+            }
+        }
+    }
+
+    /**
+     * Look up the entry of the given code, the code is parsed and cached on a miss.
+     *
+     * @param code the ISBN code to look up
+     * @return the cached entry
+     */
+    private Entry lookup(CharSequence code) {
+        long isbn12 = ISBN.scanISBN12(code);
+        if (isbn12 < 0) {
+            // the compacted code has an invalid length or characters, which is found without range lookups
+            return INVALID_ENTRY;
+        }
+
+        RangeCache rangeCache = ISBN.rangeCache();
+        Segment segment = segments[spread(isbn12) & (segments.length - 1)];
+        Long key = isbn12;
+        synchronized (segment) {
+            Entry entry = get(segment, key, rangeCache);
+            if (entry != null) {
+                hits.increment();
+                return entry;
+            }
+        }
+
+        // split the ISBN outside the lock, a concurrent miss of the same code computes the same entry
+        misses.increment();
+        int hyphens = ISBN.hyphenate(isbn12, rangeCache);
+        Entry entry = (hyphens < 0) ? INVALID_ENTRY
+            : new Entry(PackedISBN.pack(isbn12, hyphens), ISBN.toISBNObject(isbn12, hyphens, rangeCache));
+        synchronized (segment) {
+            put(segment, key, entry, rangeCache);
+        }
+        return entry;
+    }
+
+    /**
+     * Get the entry of the given key from the segment, all entries of the segment are dropped if they are computed
+     * with another range cache. It must be called with the segment lock held.
+     *
+     * @param segment    the segment of the key
+     * @param key        the compacted code
+     * @param rangeCache the current range cache
+     * @return the cached entry, or {@code null} if not found
+     */
+    private Entry get(Segment segment, Long key, RangeCache rangeCache) {
+        if (segment.rangeCache != rangeCache) {
+            size.addAndGet(-segment.map.size());
+            segment.map.clear();
+            segment.rangeCache = rangeCache;
+            return null;
+        }
+        return segment.map.get(key);
+    }
+
+    /**
+     * Put the entry computed with the given range cache into the segment, the entry is discarded if the range cache
+     * is stale. The eldest entry of the segment is evicted if the segment is full. It must be called with the segment
+     * lock held.
+     *
+     * @param segment    the segment of the key
+     * @param key        the compacted code
+     * @param entry      the entry to put
+     * @param rangeCache the range cache used to compute the entry
+     */
+    private void put(Segment segment, Long key, Entry entry, RangeCache rangeCache) {
+        if (segment.rangeCache != rangeCache || segment.map.put(key, entry) != null) {
+            return;
+        }
+        size.incrementAndGet();
+        if (segment.map.size() > segment.capacity) {
+            Iterator<Entry> eldest = segment.map.values().iterator();
+            eldest.next();
+            eldest.remove();
+            size.decrementAndGet();
+            evictions.increment();
+        }
+    }
+
+    static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * The cached result of a code.
+     */
+    private static final class Entry {
+        private final long packed;
+        private final ISBNObject object;
+
+        private Entry(long packed, ISBNObject object) {
+            this.packed = packed;
+            this.object = object;
+        }
+    }
+
+    /**
+     * A segment of the cache guarded by its own monitor, the entries are bound to the range cache they are computed
+     * with.
+     */
+    private static final class Segment {
+        private final int capacity;
+        private final LinkedHashMap<Long, Entry> map;
+        private RangeCache rangeCache;
+
+        private Segment(int capacity, boolean accessOrder) {
+            this.capacity = capacity;
+            this.map = new LinkedHashMap<>(16, 0.75f, accessOrder);
+        }
+    }
+}
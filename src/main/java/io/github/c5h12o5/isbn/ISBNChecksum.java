@@ -0,0 +1,222 @@
+package io.github.c5h12o5.isbn;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * This class validates ISBN codes by their check digits only, the ISBN-10 mod-11 and the ISBN-13 mod-10 algorithms,
+ * without loading or using the range cache. It is intended for pre-filtering large inputs quickly, the codes passing
+ * it can be fully validated by {@link ISBN#isValid(String)} later.
+ * <p>
+ * The inputs are accepted in the same formats as {@link ISBN#isValid(String)}, that is compacted or separated by a
+ * single kind of separator, but the positions of the separators are not checked since they depend on the ranges.
+ *
+ * <pre>
+ * ISBNChecksum.isValid("978-7-03-038722-6") = true
+ * ISBNChecksum.isValid("978-7-030-38722-6") = true
+ * ISBNChecksum.isValid("978-7-03-038722-0") = false
+ * ISBNChecksum.toISBN13("7-03-014726-X")    = "9787030147264"
+ * ISBNChecksum.toISBN10("9787030147264")    = "703014726X"
+ * </pre>
+ * <p>
+ * The check digits of a large column of ISBN-13 codes, such as a fixed-width export, can be validated in a batch by
+ * {@link #validateISBN13Rows(byte[], int, int, int)}. It is vectorized on Java 17 and later if the incubating Vector
+ * API is added by {@code --add-modules jdk.incubator.vector}, otherwise it falls back to a scalar loop.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class ISBNChecksum {
+
+    private static final long GS1_PREFIX_978_VALUE = 978;
+    private static final long ISBN_9_BOUND = 1_000_000_000L;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private ISBNChecksum() {
+    }
+
+    /**
+     * Check if the given ISBN input has a correct ISBN-13 or ISBN-10 check digit.
+     *
+     * @param isbn the ISBN to check
+     * @return {@code true} if the check digit is correct, otherwise {@code false}
+     */
+    public static boolean isValid(CharSequence isbn) {
+        return isValidISBN13(isbn) || isValidISBN10(isbn);
+    }
+
+    /**
+     * Check if the given ISBN input has a correct ISBN-13 check digit.
+     *
+     * @param isbn the ISBN to check
+     * @return {@code true} if the check digit is correct, otherwise {@code false}
+     */
+    public static boolean isValidISBN13(CharSequence isbn) {
+        return scanISBN13(isbn) >= 0;
+    }
+
+    /**
+     * Check if the given ISBN input has a correct ISBN-10 check digit.
+     *
+     * @param isbn the ISBN to check
+     * @return {@code true} if the check digit is correct, otherwise {@code false}
+     */
+    public static boolean isValidISBN10(CharSequence isbn) {
+        return scanISBN10(isbn) >= 0;
+    }
+
+    /**
+     * Get the normalized key of the given ISBN input, which is the numeric value of its ISBN-13 code, in the same way
+     * as {@link ISBN#normalizedKey(CharSequence)} but without the range cache, so the key of an input which only has
+     * a correct check digit is returned too.
+     *
+     * @param isbn the ISBN to normalize
+     * @return the numeric value of ISBN-13, or {@link ISBN#INVALID_KEY} if the input does not have a correct check
+     * digit
+     */
+    public static long normalizedKey(CharSequence isbn) {
+        long isbn12 = scanISBN13(isbn);
+        if (isbn12 < 0) {
+            isbn12 = scanISBN10(isbn);
+        }
+        return (isbn12 < 0) ? ISBN.INVALID_KEY : isbn12 * 10 + (ISBN.isbn13CheckDigit(isbn12) - ISBN.CHAR_0);
+    }
+
+    /**
+     * Convert the given ISBN-10 input to the compacted ISBN-13 code.
+     *
+     * @param isbn10 the ISBN-10 to convert
+     * @return the ISBN-13 code, {@code null} if the input does not have a correct ISBN-10 check digit
+     */
+    public static String toISBN13(CharSequence isbn10) {
+        long isbn12 = scanISBN10(isbn10);
+        return (isbn12 < 0) ? null : Long.toString(isbn12) + ISBN.isbn13CheckDigit(isbn12);
+    }
+
+    /**
+     * Convert the given ISBN-13 input to the compacted ISBN-10 code.
+     *
+     * @param isbn13 the ISBN-13 to convert
+     * @return the ISBN-10 code, {@code null} if the input does not have a correct ISBN-13 check digit or has a GS1
+     * prefix other than 978
+     */
+    public static String toISBN10(CharSequence isbn13) {
+        long isbn12 = scanISBN13(isbn13);
+        if (isbn12 / ISBN_9_BOUND != GS1_PREFIX_978_VALUE) {
+            return null;
+        }
+
+        // keep the leading zeros of the 9 digits after the GS1 prefix
+        String digits = Long.toString(isbn12 % ISBN_9_BOUND + ISBN_9_BOUND);
+        return digits.substring(1) + ISBN.isbn10CheckDigit(isbn12);
+    }
+
+    /**
+     * Validate the check digits of the ISBN-13 rows in the given array, each row must be 13 ASCII digits without any
+     * separator, the bytes between the rows are ignored.
+     *
+     * @param data   the array containing the rows
+     * @param offset the index of the first byte of the first row
+     * @param stride the distance in bytes between the starts of two adjacent rows, at least 13
+     * @param count  the number of rows
+     * @return the bit set whose i-th bit is set if the i-th row has a correct ISBN-13 check digit
+     * @throws IndexOutOfBoundsException if the rows are out of the array
+     */
+    public static BitSet validateISBN13Rows(byte[] data, int offset, int stride, int count) {
+        checkRows(offset, stride, count, data.length);
+        long[] valid = new long[(count + Long.SIZE - 1) / Long.SIZE];
+        ChecksumKernel.validateISBN13Rows(data, offset, stride, count, valid, 0);
+        return BitSet.valueOf(valid);
+    }
+
+    /**
+     * Validate the check digits of the ISBN-13 rows in the given buffer, such as a mapped file, each row must be 13
+     * ASCII digits without any separator, the bytes between the rows are ignored.
+     *
+     * @param data   the buffer containing the rows, the position is not used or changed
+     * @param offset the absolute index of the first byte of the first row
+     * @param stride the distance in bytes between the starts of two adjacent rows, at least 13
+     * @param count  the number of rows
+     * @return the bit set whose i-th bit is set if the i-th row has a correct ISBN-13 check digit
+     * @throws IndexOutOfBoundsException if the rows are out of the buffer limit
+     */
+    public static BitSet validateISBN13Rows(ByteBuffer data, int offset, int stride, int count) {
+        checkRows(offset, stride, count, data.limit());
+        long[] valid = new long[(count + Long.SIZE - 1) / Long.SIZE];
+        if (count == 0) {
+            return new BitSet();
+        }
+        if (data.hasArray()) {
+            ChecksumKernel.validateISBN13Rows(data.array(), data.arrayOffset() + offset, stride, count, valid, 0);
+            return BitSet.valueOf(valid);
+        }
+
+        // copy the rows of a direct buffer chunk by chunk
+        int chunkRows = Math.max(1, CHUNK_SIZE / stride);
+        byte[] chunk = new byte[(Math.min(chunkRows, count) - 1) * stride + ISBN.ISBN_13_LENGTH];
+        ByteBuffer view = data.duplicate();
+        for (int row = 0; row < count; row += chunkRows) {
+            int rows = Math.min(chunkRows, count - row);
+            ((Buffer) view).position(offset + row * stride);
+            view.get(chunk, 0, (rows - 1) * stride + ISBN.ISBN_13_LENGTH);
+            ChecksumKernel.validateISBN13Rows(chunk, 0, stride, rows, valid, row);
+        }
+        return BitSet.valueOf(valid);
+    }
+
+    /**
+     * Check the arguments of the rows.
+     *
+     * @param offset the index of the first byte of the first row
+     * @param stride the distance in bytes between the starts of two adjacent rows
+     * @param count  the number of rows
+     * @param size   the size of the data
+     */
+    private static void checkRows(int offset, int stride, int count, int size) {
+        if (stride < ISBN.ISBN_13_LENGTH || count < 0) {
+            throw new ISBNException("Invalid stride or count: " + stride + ", " + count);
+        }
+        if (offset < 0 || count > 0 && offset + (long) (count - 1) * stride + ISBN.ISBN_13_LENGTH > size) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", stride: " + stride + ", count: " + count
+                + ", size: " + size);
+        }
+    }
+
+    /**
+     * Scan the given ISBN-13 input and verify its check digit.
+     *
+     * @param isbn the ISBN-13 to scan
+     * @return the numeric value of the first 12-digits of ISBN, or {@code -1} if the check digit is not correct
+     */
+    private static long scanISBN13(CharSequence isbn) {
+        if (isbn == null) {
+            return -1;
+        }
+        int length = isbn.length();
+        if (length != ISBN.ISBN_13_LENGTH && length != ISBN.SEPARATED_ISBN_13_LENGTH) {
+            return -1;
+        }
+        long isbn12 = ISBN.scanDigits(isbn, ISBN.ISBN_13_LENGTH - 1, 0);
+        return (isbn12 >= 0 && isbn.charAt(length - 1) == ISBN.isbn13CheckDigit(isbn12)) ? isbn12 : -1;
+    }
+
+    /**
+     * Scan the given ISBN-10 input and verify its check digit.
+     *
+     * @param isbn the ISBN-10 to scan
+     * @return the numeric value of the first 12-digits of ISBN with the GS1 prefix 978, or {@code -1} if the check
+     * digit is not correct
+     */
+    private static long scanISBN10(CharSequence isbn) {
+        if (isbn == null) {
+            return -1;
+        }
+        int length = isbn.length();
+        if (length != ISBN.ISBN_10_LENGTH && length != ISBN.SEPARATED_ISBN_10_LENGTH) {
+            return -1;
+        }
+        long isbn12 = ISBN.scanDigits(isbn, ISBN.ISBN_10_LENGTH - 1, GS1_PREFIX_978_VALUE);
+        return (isbn12 >= 0 && isbn.charAt(length - 1) == ISBN.isbn10CheckDigit(isbn12)) ? isbn12 : -1;
+    }
+}
@@ -0,0 +1,383 @@
+package io.github.c5h12o5.isbn;
+
+import io.github.c5h12o5.isbn.range.RangeCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.function.Consumer;
+
+/**
+ * This class scans large ASCII compatible inputs (such as CSV, MARC or ONIX exports) for ISBN codes, and emits the
+ * valid ones through a callback without creating any objects for the scanned text.
+ * <p>
+ * A candidate is a run of digits, which may be separated by single hyphens or spaces and may end with an 'X' check
+ * digit, just like the inputs accepted by {@link ISBN#compact(String)}. A candidate is emitted if it has 10 or 13
+ * digits with a correct check digit and can be split by the range cache. The run is checked at the end of each digit
+ * group, so that a number following an ISBN, such as {@code "978-7-03-038722-6 2019"}, does not hide it, and the
+ * leading digit groups of a longer run are dropped, so that {@code "page 12 978-7-03-038722-6"} still yields the ISBN.
+ * An 'X' after a separator is only taken as a check digit if the digits before it are not an ISBN already.
+ * <p>
+ * The memory used is bounded by the read buffer, and the instance is reusable but not thread-safe.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class ISBNExtractor {
+
+    /**
+     * The callback receiving the valid ISBN codes found in the input.
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        /**
+         * Handle a valid ISBN code found in the input.
+         *
+         * @param offset the byte offset of the first character of the ISBN in the input
+         * @param length the number of bytes of the ISBN in the input, including the separators
+         * @param isbn13 the numeric value of the ISBN in ISBN-13 format
+         */
+        void handle(long offset, int length, long isbn13);
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAPPED_REGION_SIZE = 1L << 30;
+    private static final int MAX_DIGITS = ISBN.ISBN_13_LENGTH;
+    private static final byte CHECK_DIGIT_X = 10;
+    private static final long GS1_PREFIX_978_VALUE = 978;
+
+    private final RangeCache cache;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /** The digits of the current candidate, an 'X' check digit is stored as 10. */
+    private final byte[] digits = new byte[MAX_DIGITS + 1];
+    private int digitCount;
+
+    /** The index of the first digit and the byte offset of each digit group of the current candidate. */
+    private final int[] groupStarts = new int[MAX_DIGITS + 1];
+    private final long[] groupOffsets = new long[MAX_DIGITS + 1];
+    private int groupCount;
+
+    /** The byte offset after the last character of the current candidate. */
+    private long candidateEnd;
+
+    /** The first 12-digits of ISBN and the element lengths of the last validated candidate. */
+    private long candidateISBN12;
+    private int candidateHyphens;
+
+    /** Whether the last byte is a separator following a digit. */
+    private boolean separated;
+
+    /** Whether the current digit group is too long to be part of an ISBN. */
+    private boolean overlong;
+
+    /** The byte offset of the next byte to scan. */
+    private long position;
+
+    private Handler handler;
+    private Consumer<ISBNObject> objectHandler;
+    private long found;
+
+    /**
+     * Create an extractor with the current loaded range cache.
+     */
+    public ISBNExtractor() {
+        this(ISBN.rangeCache());
+    }
+
+    /**
+     * Create an extractor with the given range cache.
+     *
+     * @param cache the range cache to validate and split the ISBN codes
+     */
+    public ISBNExtractor(RangeCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Extract the valid ISBN codes from the given input stream.
+     *
+     * @param is      the input stream to scan, it is not closed by this method
+     * @param handler the callback receiving the valid ISBN codes
+     * @return the number of valid ISBN codes found
+     * @throws IOException if an I/O error occurs
+     */
+    public long extract(InputStream is, Handler handler) throws IOException {
+        return extract(Channels.newChannel(is), handler);
+    }
+
+    /**
+     * Extract the valid ISBN codes from the given input stream as {@link ISBNObject}s.
+     *
+     * @param is      the input stream to scan, it is not closed by this method
+     * @param handler the callback receiving the valid ISBN codes
+     * @return the number of valid ISBN codes found
+     * @throws IOException if an I/O error occurs
+     */
+    public long extract(InputStream is, Consumer<ISBNObject> handler) throws IOException {
+        return extract(Channels.newChannel(is), handler);
+    }
+
+    /**
+     * Extract the valid ISBN codes from the given channel.
+     *
+     * @param channel the channel to scan, it is not closed by this method
+     * @param handler the callback receiving the valid ISBN codes
+     * @return the number of valid ISBN codes found
+     * @throws IOException if an I/O error occurs
+     */
+    public long extract(ReadableByteChannel channel, Handler handler) throws IOException {
+        start(handler, null);
+        return read(channel);
+    }
+
+    /**
+     * Extract the valid ISBN codes from the given channel as {@link ISBNObject}s.
+     *
+     * @param channel the channel to scan, it is not closed by this method
+     * @param handler the callback receiving the valid ISBN codes
+     * @return the number of valid ISBN codes found
+     * @throws IOException if an I/O error occurs
+     */
+    public long extract(ReadableByteChannel channel, Consumer<ISBNObject> handler) throws IOException {
+        start(null, handler);
+        return read(channel);
+    }
+
+    /**
+     * Extract the valid ISBN codes from the remaining bytes of the given buffer, the buffer position is not changed.
+     *
+     * @param input   the buffer to scan
+     * @param handler the callback receiving the valid ISBN codes
+     * @return the number of valid ISBN codes found
+     */
+    public long extract(ByteBuffer input, Handler handler) {
+        start(handler, null);
+        scan(input);
+        return finish();
+    }
+
+    /**
+     * Extract the valid ISBN codes from the given file channel by mapping it into memory region by region, the
+     * channel position is not changed.
+     *
+     * @param channel the file channel to scan, it is not closed by this method
+     * @param handler the callback receiving the valid ISBN codes
+     * @return the number of valid ISBN codes found
+     * @throws IOException if an I/O error occurs
+     */
+    public long extractMapped(FileChannel channel, Handler handler) throws IOException {
+        start(handler, null);
+        long size = channel.size();
+        for (long offset = 0; offset < size; offset += MAPPED_REGION_SIZE) {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                Math.min(MAPPED_REGION_SIZE, size - offset));
+            scan(region);
+        }
+        return finish();
+    }
+
+    /**
+     * Reset the state before scanning a new input.
+     *
+     * @param handler       the callback receiving the numeric values
+     * @param objectHandler the callback receiving the {@link ISBNObject}s
+     */
+    private void start(Handler handler, Consumer<ISBNObject> objectHandler) {
+        this.handler = handler;
+        this.objectHandler = objectHandler;
+        this.found = 0;
+        this.position = 0;
+        this.overlong = false;
+        reset();
+    }
+
+    /**
+     * Read the given channel to the end and scan all bytes through the reusable buffer.
+     *
+     * @param channel the channel to read
+     * @return the number of valid ISBN codes found
+     * @throws IOException if an I/O error occurs
+     */
+    private long read(ReadableByteChannel channel) throws IOException {
+        buffer.clear();
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            scan(buffer);
+            buffer.clear();
+        }
+        return finish();
+    }
+
+    /**
+     * Scan the remaining bytes of the given buffer without changing its position.
+     *
+     * @param input the buffer to scan
+     */
+    private void scan(ByteBuffer input) {
+        int limit = input.limit();
+        for (int i = input.position(); i < limit; i++) {
+            accept(input.get(i));
+            position++;
+        }
+    }
+
+    /**
+     * Flush the last candidate after all bytes are scanned.
+     *
+     * @return the number of valid ISBN codes found
+     */
+    private long finish() {
+        flush();
+        reset();
+        return found;
+    }
+
+    /**
+     * Accept the byte at the current position.
+     *
+     * @param b the byte to accept
+     */
+    private void accept(byte b) {
+        if (b >= ISBN.CHAR_0 && b <= ISBN.CHAR_9) {
+            acceptDigit((byte) (b - ISBN.CHAR_0));
+        } else if ((b == 'X' || b == 'x') && digitCount > 0) {
+            // an 'X' check digit always ends the candidate, unless it follows a separated ISBN as a word
+            if (!separated || !flush()) {
+                digits[digitCount++] = CHECK_DIGIT_X;
+                candidateEnd = position + 1;
+                flush();
+            }
+            reset();
+        } else if ((b == '-' || b == ' ') && !separated && (digitCount > 0 || overlong)) {
+            separated = true;
+            overlong = false;
+        } else {
+            flush();
+            reset();
+            overlong = false;
+        }
+    }
+
+    /**
+     * Accept the digit at the current position.
+     *
+     * @param digit the digit value
+     */
+    private void acceptDigit(byte digit) {
+        if (overlong) {
+            return;
+        }
+        if (separated && flush()) {
+            // the groups before the separator are an ISBN, the new group starts the next candidate
+            reset();
+        }
+        if (digitCount == 0 || separated) {
+            groupStarts[groupCount] = digitCount;
+            groupOffsets[groupCount++] = position;
+            separated = false;
+        }
+        digits[digitCount++] = digit;
+        candidateEnd = position + 1;
+
+        // drop the leading groups if there are more digits than an ISBN
+        while (digitCount > MAX_DIGITS && groupCount > 1) {
+            dropFirstGroup();
+        }
+        if (digitCount > MAX_DIGITS) {
+            reset();
+            overlong = true;
+        }
+    }
+
+    /**
+     * Emit the longest valid ISBN code at the end of the current candidate.
+     *
+     * @return {@code true} if an ISBN code is emitted, otherwise {@code false}
+     */
+    private boolean flush() {
+        for (int group = 0; group < groupCount; group++) {
+            int start = groupStarts[group];
+            int count = digitCount - start;
+            if (count < ISBN.ISBN_10_LENGTH) {
+                return false;
+            }
+            if ((count == ISBN.ISBN_13_LENGTH || count == ISBN.ISBN_10_LENGTH) && validate(start, count)) {
+                emit(groupOffsets[group]);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Validate the digits in the range [start, start + count) as an ISBN code, the first 12-digits of ISBN and the
+     * element lengths are kept if it is valid.
+     *
+     * @param start the index of the first digit
+     * @param count the number of digits
+     * @return {@code true} if the digits are a valid ISBN code, otherwise {@code false}
+     */
+    private boolean validate(int start, int count) {
+        boolean isbn10 = (count == ISBN.ISBN_10_LENGTH);
+        long isbn12 = isbn10 ? GS1_PREFIX_978_VALUE : 0;
+        for (int i = start; i < start + count - 1; i++) {
+            if (digits[i] == CHECK_DIGIT_X) {
+                return false;
+            }
+            isbn12 = isbn12 * 10 + digits[i];
+        }
+        char expected = isbn10 ? ISBN.isbn10CheckDigit(isbn12) : ISBN.isbn13CheckDigit(isbn12);
+        int check = digits[start + count - 1];
+        if (check != (expected == ISBN.CHAR_X ? CHECK_DIGIT_X : expected - ISBN.CHAR_0)) {
+            return false;
+        }
+        candidateHyphens = ISBN.hyphenate(isbn12, cache);
+        candidateISBN12 = isbn12;
+        return candidateHyphens >= 0;
+    }
+
+    /**
+     * Emit the last validated ISBN code to the handlers.
+     *
+     * @param offset the byte offset of the first character of the ISBN
+     */
+    private void emit(long offset) {
+        found++;
+        if (handler != null) {
+            long isbn13 = candidateISBN12 * 10 + (ISBN.isbn13CheckDigit(candidateISBN12) - ISBN.CHAR_0);
+            handler.handle(offset, (int) (candidateEnd - offset), isbn13);
+        }
+        if (objectHandler != null) {
+            objectHandler.accept(ISBN.toISBNObject(candidateISBN12, candidateHyphens, cache));
+        }
+    }
+
+    /**
+     * Drop the first digit group of the current candidate.
+     */
+    private void dropFirstGroup() {
+        int dropped = groupStarts[1];
+        System.arraycopy(digits, dropped, digits, 0, digitCount - dropped);
+        digitCount -= dropped;
+        for (int i = 1; i < groupCount; i++) {
+            groupStarts[i - 1] = groupStarts[i] - dropped;
+            groupOffsets[i - 1] = groupOffsets[i];
+        }
+        groupCount--;
+    }
+
+    /**
+     * Clear the current candidate.
+     */
+    private void reset() {
+        digitCount = 0;
+        groupCount = 0;
+        separated = false;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.c5h12o5.isbn;
+
+/**
+ * This interface receives the instrumentation events of the {@link ISBN} utility methods, it is installed by
+ * {@link ISBN#setMetrics(ISBNMetrics)}.
+ * <p>
+ * All methods do nothing by default, so an implementation only overrides the events it is interested in. While the
+ * {@link #NOOP} instance is installed, the utility methods skip the instrumentation entirely, including the
+ * classification of the failures. The methods are called on the threads using the utility methods, so an
+ * implementation must be thread-safe and should return quickly, such as {@link LongAdderISBNMetrics}.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public interface ISBNMetrics {
+
+    /** The metrics doing nothing, which is installed by default. */
+    ISBNMetrics NOOP = new ISBNMetrics() {
+    };
+
+    /**
+     * The operations of the utility methods.
+     */
+    enum Operation {
+        /** The {@code parse} methods. */
+        PARSE,
+        /**
+         * The {@code isValid}, {@code isValidISBN13}, {@code isValidISBN10}, {@code validateAll}, {@code equals} and
+         * {@code normalizedKey} methods, {@code equals} validates each input once.
+         */
+        VALIDATE,
+        /** The {@code formatISBN13} and {@code formatISBN10} methods, including the bulk and {@code To} variants. */
+        FORMAT,
+        /** The {@code analyze} method. */
+        ANALYZE
+    }
+
+    /**
+     * Called when an operation succeeds.
+     *
+     * @param operation the operation
+     */
+    default void onSuccess(Operation operation) {
+    }
+
+    /**
+     * Called when an operation rejects its input.
+     *
+     * @param operation the operation
+     * @param error     the reason rejecting the input, or {@code null} if the input is rejected for another reason,
+     *                  such as a GS1 prefix other than 978 for ISBN-10
+     */
+    default void onFailure(Operation operation, ParseError error) {
+    }
+
+    /**
+     * Called when a range message file or a range snapshot is loaded.
+     *
+     * @param durationNanos the time spent to load the range cache in nanoseconds, excluding the notification of the
+     *                      range cache listeners
+     * @param success       {@code true} if the range cache is loaded and replaced, or {@code false} if it cannot
+     *                      be loaded
+     */
+    default void onRangeReload(long durationNanos, boolean success) {
+    }
+}
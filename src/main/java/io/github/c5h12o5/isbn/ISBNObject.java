@@ -1,12 +1,26 @@
 package io.github.c5h12o5.isbn;
 
+import io.github.c5h12o5.isbn.range.RangeCache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
  * This class represents the structure of an ISBN, comprising the following elements:
  * <br>
  * [GS1 prefix]-[Registration Group element]-[Registrant element]-[Publication element]-[Check-digit]
+ * <p>
+ * Since 1.1.0 an ISBN object is serialized in the 8-byte packed form, see {@link PackedISBN}, which is also written
+ * and read by {@link #writeTo(DataOutput)} and {@link #readFrom(DataInput)} without Java serialization.
  *
  * @author c5h12o5
  * @since 1.0.0
@@ -47,6 +61,21 @@ public class ISBNObject implements Serializable {
      */
     private final Character isbn10CheckDigit;
 
+    /**
+     * The cached hash code, it will be {@code 0} until the hash code is first computed.
+     */
+    private transient int hash;
+
+    /**
+     * The cached ISBN-13 string without separators, it will be {@code null} until first formatted.
+     */
+    private transient String isbn13;
+
+    /**
+     * The cached ISBN-10 string without separators, it will be {@code null} until first formatted.
+     */
+    private transient String isbn10;
+
     /**
      * The constructor of ISBN object.
      *
@@ -89,12 +118,18 @@ public class ISBNObject implements Serializable {
     }
 
     /**
-     * Convert the ISBN object to ISBN-13 format.
+     * Convert the ISBN object to ISBN-13 format, the string is created once and cached.
      *
      * @return the ISBN-13 string
      */
     public String toISBN13() {
-        return toISBN13(null);
+        // the elements are immutable, so a racy update only creates an equal string
+        String result = isbn13;
+        if (result == null) {
+            result = buildISBN13(EMPTY);
+            isbn13 = result;
+        }
+        return result;
     }
 
     /**
@@ -104,23 +139,24 @@ public class ISBNObject implements Serializable {
      * @return the ISBN-13 string
      */
     public String toISBN13(String separator) {
-        if (separator == null) {
-            separator = EMPTY;
-        }
-        return gs1Prefix + separator
-            + registrationGroup + separator
-            + registrant + separator
-            + publication + separator
-            + isbn13CheckDigit;
+        return (separator == null || separator.isEmpty()) ? toISBN13() : buildISBN13(separator);
     }
 
     /**
-     * Convert the ISBN object to ISBN-10 format.
+     * Convert the ISBN object to ISBN-10 format, the string is created once and cached.
      *
      * @return the ISBN-10 string, or {@code null} if the ISBN has a GS1 prefix other than 978
      */
     public String toISBN10() {
-        return toISBN10(null);
+        if (isbn10CheckDigit == null) {
+            return null;
+        }
+        String result = isbn10;
+        if (result == null) {
+            result = buildISBN10(EMPTY);
+            isbn10 = result;
+        }
+        return result;
     }
 
     /**
@@ -133,15 +169,320 @@ public class ISBNObject implements Serializable {
         if (isbn10CheckDigit == null) {
             return null;
         }
-        if (separator == null) {
-            separator = EMPTY;
+        return (separator == null || separator.isEmpty()) ? toISBN10() : buildISBN10(separator);
+    }
+
+    /**
+     * Append the ISBN object in ISBN-13 format to the given appendable, such as a {@link java.io.Writer}, without
+     * creating an intermediate String.
+     *
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added
+     * @param out       the appendable to append to
+     * @throws IOException if an I/O error occurs
+     */
+    public void formatISBN13To(char separator, Appendable out) throws IOException {
+        appendElement(out, gs1Prefix, separator);
+        appendElements(out, separator);
+        out.append(isbn13CheckDigit);
+    }
+
+    /**
+     * Append the ISBN object in ISBN-10 format to the given appendable, such as a {@link java.io.Writer}, without
+     * creating an intermediate String.
+     *
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added
+     * @param out       the appendable to append to
+     * @return {@code true} if appended, or {@code false} if the ISBN has a GS1 prefix other than 978
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean formatISBN10To(char separator, Appendable out) throws IOException {
+        if (isbn10CheckDigit == null) {
+            return false;
         }
+        appendElements(out, separator);
+        out.append(isbn10CheckDigit);
+        return true;
+    }
+
+    /**
+     * Append the ISBN object in ISBN-13 format to the given buffer.
+     *
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added
+     * @param sb        the buffer to append to
+     */
+    public void formatISBN13To(char separator, StringBuilder sb) {
+        try {
+            formatISBN13To(separator, (Appendable) sb);
+        } catch (IOException e) {
+            // never thrown by StringBuilder
+            throw new ISBNException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Append the ISBN object in ISBN-10 format to the given buffer.
+     *
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added
+     * @param sb        the buffer to append to
+     * @return {@code true} if appended, or {@code false} if the ISBN has a GS1 prefix other than 978
+     */
+    public boolean formatISBN10To(char separator, StringBuilder sb) {
+        try {
+            return formatISBN10To(separator, (Appendable) sb);
+        } catch (IOException e) {
+            // never thrown by StringBuilder
+            throw new ISBNException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write the ISBN object in ISBN-13 format into the given array as ASCII bytes.
+     *
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added, it must be an ASCII character
+     * @param dest      the array to write into, it must have room for 17 bytes from the offset
+     * @param offset    the offset of the first byte to write
+     * @return the number of bytes written
+     */
+    public int formatISBN13To(char separator, byte[] dest, int offset) {
+        int index = writeElement(dest, offset, gs1Prefix, separator);
+        index = writeElements(dest, index, separator);
+        dest[index++] = (byte) isbn13CheckDigit.charValue();
+        return index - offset;
+    }
+
+    /**
+     * Write the ISBN object in ISBN-10 format into the given array as ASCII bytes.
+     *
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added, it must be an ASCII character
+     * @param dest      the array to write into, it must have room for 13 bytes from the offset
+     * @param offset    the offset of the first byte to write
+     * @return the number of bytes written, or {@code 0} if the ISBN has a GS1 prefix other than 978
+     */
+    public int formatISBN10To(char separator, byte[] dest, int offset) {
+        if (isbn10CheckDigit == null) {
+            return 0;
+        }
+        int index = writeElements(dest, offset, separator);
+        dest[index++] = (byte) isbn10CheckDigit.charValue();
+        return index - offset;
+    }
+
+    /**
+     * Put the ISBN object in ISBN-13 format into the given buffer as ASCII bytes at its position, which is advanced by
+     * the number of bytes written.
+     *
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added, it must be an ASCII character
+     * @param dest      the buffer to put into
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException if the buffer has not enough room, nothing is written in this case
+     */
+    public int formatISBN13To(char separator, ByteBuffer dest) {
+        int separatorLength = (separator != PackedISBN.NO_SEPARATOR) ? 1 : 0;
+        checkRoom(dest, gs1Prefix.length() + separatorLength + elementsLength(separator) + 1);
+        int start = dest.position();
+        putElement(dest, gs1Prefix, separator);
+        putElements(dest, separator);
+        dest.put((byte) isbn13CheckDigit.charValue());
+        return dest.position() - start;
+    }
+
+    /**
+     * Put the ISBN object in ISBN-10 format into the given buffer as ASCII bytes at its position, which is advanced by
+     * the number of bytes written.
+     *
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator will
+     *                  be added, it must be an ASCII character
+     * @param dest      the buffer to put into
+     * @return the number of bytes written, or {@code 0} if the ISBN has a GS1 prefix other than 978
+     * @throws java.nio.BufferOverflowException if the buffer has not enough room, nothing is written in this case
+     */
+    public int formatISBN10To(char separator, ByteBuffer dest) {
+        if (isbn10CheckDigit == null) {
+            return 0;
+        }
+        checkRoom(dest, elementsLength(separator) + 1);
+        int start = dest.position();
+        putElements(dest, separator);
+        dest.put((byte) isbn10CheckDigit.charValue());
+        return dest.position() - start;
+    }
+
+    /**
+     * Convert the ISBN object to the packed form, see {@link PackedISBN}.
+     *
+     * @return the packed ISBN, or {@link PackedISBN#INVALID} if the elements are not digits
+     */
+    public long toPacked() {
+        return PackedISBN.pack(this);
+    }
+
+    /**
+     * Build the ISBN-13 string with the given separator.
+     */
+    private String buildISBN13(String separator) {
+        return gs1Prefix + separator
+            + registrationGroup + separator
+            + registrant + separator
+            + publication + separator
+            + isbn13CheckDigit;
+    }
+
+    /**
+     * Build the ISBN-10 string with the given separator, the ISBN must have the GS1 prefix 978.
+     */
+    private String buildISBN10(String separator) {
         return registrationGroup + separator
             + registrant + separator
             + publication + separator
             + isbn10CheckDigit;
     }
 
+    /**
+     * Write the ISBN object to the given output as the 8-byte packed form, see {@link PackedISBN}.
+     * <p>
+     * If the elements are not digits, {@link PackedISBN#INVALID} is written followed by each element as a boolean
+     * telling if it is not {@code null} and the modified UTF-8 string.
+     *
+     * @param out the output to write to
+     * @throws IOException if an I/O error occurs
+     * @since 1.1.0
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        long packed = (gs1Prefix != null && registrationGroup != null && registrant != null && publication != null)
+            ? toPacked() : PackedISBN.INVALID;
+        out.writeLong(packed);
+        if (packed == PackedISBN.INVALID) {
+            writeElement(out, gs1Prefix);
+            writeElement(out, registrationGroup);
+            writeElement(out, registrant);
+            writeElement(out, publication);
+        }
+    }
+
+    /**
+     * Read an ISBN object written by {@link #writeTo(DataOutput)} from the given input.
+     * <p>
+     * The elements are split by the lengths stored in the packed form, so the same bytes are always read as the same
+     * ISBN object, even if they were written against other ranges. The elements are shared with the parsed ISBN
+     * objects if the ranges are loaded and split the ISBN in the same way, otherwise new elements are created.
+     *
+     * @param in the input to read from
+     * @return the ISBN object
+     * @throws IOException   if an I/O error occurs
+     * @throws ISBNException if the packed form is not valid
+     * @since 1.1.0
+     */
+    public static ISBNObject readFrom(DataInput in) throws IOException {
+        long packed = in.readLong();
+        if (packed == PackedISBN.INVALID) {
+            return new ISBNObject(readElement(in), readElement(in), readElement(in), readElement(in));
+        }
+        if (!PackedISBN.isWellFormed(packed)) {
+            throw new ISBNException("Invalid packed ISBN: " + packed);
+        }
+        long isbn12 = PackedISBN.isbn12(packed);
+        int hyphens = (int) (packed >>> PackedISBN.LENGTHS_SHIFT);
+        RangeCache cache = ISBN.loadedRangeCache();
+        if (cache != null && cache.findElementLengths(isbn12) != hyphens) {
+            cache = null;
+        }
+        return ISBN.toISBNObject(isbn12, hyphens, cache);
+    }
+
+    /**
+     * Replace the ISBN object with its compact serialized form, the subclasses keep the default serialized form.
+     *
+     * @return the serialized form
+     */
+    private Object writeReplace() {
+        return new SerializedForm(this);
+    }
+
+    private static void writeElement(DataOutput out, String element) throws IOException {
+        out.writeBoolean(element != null);
+        if (element != null) {
+            out.writeUTF(element);
+        }
+    }
+
+    private static String readElement(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Append the registration group, registrant and publication elements, each followed by the separator.
+     */
+    private void appendElements(Appendable out, char separator) throws IOException {
+        appendElement(out, registrationGroup, separator);
+        appendElement(out, registrant, separator);
+        appendElement(out, publication, separator);
+    }
+
+    private static void appendElement(Appendable out, String element, char separator) throws IOException {
+        out.append(element);
+        if (separator != PackedISBN.NO_SEPARATOR) {
+            out.append(separator);
+        }
+    }
+
+    /**
+     * Write the registration group, registrant and publication elements, each followed by the separator.
+     */
+    private int writeElements(byte[] dest, int index, char separator) {
+        index = writeElement(dest, index, registrationGroup, separator);
+        index = writeElement(dest, index, registrant, separator);
+        return writeElement(dest, index, publication, separator);
+    }
+
+    private static int writeElement(byte[] dest, int index, String element, char separator) {
+        for (int i = 0; i < element.length(); i++) {
+            dest[index++] = (byte) element.charAt(i);
+        }
+        if (separator != PackedISBN.NO_SEPARATOR) {
+            dest[index++] = (byte) separator;
+        }
+        return index;
+    }
+
+    /**
+     * Put the registration group, registrant and publication elements, each followed by the separator.
+     */
+    private void putElements(ByteBuffer dest, char separator) {
+        putElement(dest, registrationGroup, separator);
+        putElement(dest, registrant, separator);
+        putElement(dest, publication, separator);
+    }
+
+    /**
+     * Get the number of bytes of the registration group, registrant and publication elements with the separators.
+     */
+    private int elementsLength(char separator) {
+        int length = registrationGroup.length() + registrant.length() + publication.length();
+        return (separator != PackedISBN.NO_SEPARATOR) ? length + 3 : length;
+    }
+
+    private static void checkRoom(ByteBuffer dest, int length) {
+        if (dest.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+    }
+
+    private static void putElement(ByteBuffer dest, String element, char separator) {
+        for (int i = 0; i < element.length(); i++) {
+            dest.put((byte) element.charAt(i));
+        }
+        if (separator != PackedISBN.NO_SEPARATOR) {
+            dest.put((byte) separator);
+        }
+    }
+
     /**
      * Calculate the ISBN-13 check digit using algorithm from
      * <a href="https://en.wikipedia.org/wiki/ISBN#ISBN-13_check_digit_calculation">Wikipedia</a>.
@@ -204,10 +545,54 @@ public class ISBNObject implements Serializable {
 
     @Override
     public int hashCode() {
-        int result = gs1Prefix != null ? gs1Prefix.hashCode() : 0;
-        result = 31 * result + (registrationGroup != null ? registrationGroup.hashCode() : 0);
-        result = 31 * result + (registrant != null ? registrant.hashCode() : 0);
-        result = 31 * result + (publication != null ? publication.hashCode() : 0);
+        // the elements are immutable, so the hash code is computed once like String
+        int result = hash;
+        if (result == 0) {
+            result = gs1Prefix != null ? gs1Prefix.hashCode() : 0;
+            result = 31 * result + (registrationGroup != null ? registrationGroup.hashCode() : 0);
+            result = 31 * result + (registrant != null ? registrant.hashCode() : 0);
+            result = 31 * result + (publication != null ? publication.hashCode() : 0);
+            hash = result;
+        }
         return result;
     }
+
+    /**
+     * The compact serialized form of an ISBN object, see {@link #writeTo(DataOutput)}.
+     */
+    private static final class SerializedForm implements Externalizable {
+        private static final long serialVersionUID = 1L;
+
+        private ISBNObject isbnObject;
+
+        /**
+         * Create an empty form for deserialization.
+         */
+        public SerializedForm() {
+        }
+
+        SerializedForm(ISBNObject isbnObject) {
+            this.isbnObject = isbnObject;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            isbnObject.writeTo(out);
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+            try {
+                isbnObject = readFrom(in);
+            } catch (ISBNException e) {
+                InvalidObjectException invalid = new InvalidObjectException(e.getMessage());
+                invalid.initCause(e);
+                throw invalid;
+            }
+        }
+
+        private Object readResolve() {
+            return isbnObject;
+        }
+    }
 }
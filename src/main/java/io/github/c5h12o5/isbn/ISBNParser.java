@@ -0,0 +1,91 @@
+package io.github.c5h12o5.isbn;
+
+import io.github.c5h12o5.isbn.range.RangeCache;
+
+/**
+ * This class parses ISBN codes into a caller-owned {@link ParsedISBN} without creating any objects, it accepts the
+ * same inputs as {@link ISBN#parse(String)} and reports the reason of each failure.
+ * <p>
+ * A parser is bound to the range cache given at creation, so the results of a parse loop are consistent even if the
+ * range message file is reloaded meanwhile. The parser itself is stateless and thread-safe, while a
+ * {@link ParsedISBN} should be used by a single thread.
+ *
+ * <pre>
+ * ISBNParser parser = new ISBNParser();
+ * ParsedISBN result = new ParsedISBN();
+ * for (String code : codes) {
+ *     if (parser.parse(code, result)) {
+ *         set.addKey(result.getISBN13());
+ *     }
+ * }
+ * </pre>
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class ISBNParser {
+
+    private final RangeCache cache;
+
+    /**
+     * Create a parser bound to the current loaded range cache.
+     */
+    public ISBNParser() {
+        this(ISBN.rangeCache());
+    }
+
+    /**
+     * Create a parser bound to the given range cache.
+     *
+     * @param cache the range cache to split the ISBN codes
+     */
+    public ISBNParser(RangeCache cache) {
+        if (null == cache) {
+            throw new ISBNException("Range cache must not be null");
+        }
+        this.cache = cache;
+    }
+
+    /**
+     * Get the range cache bound to this parser.
+     *
+     * @return the range cache
+     */
+    public RangeCache getRangeCache() {
+        return cache;
+    }
+
+    /**
+     * Parse the given ISBN code into the given result.
+     *
+     * @param code   the ISBN code to parse
+     * @param result the result to overwrite
+     * @return {@code true} if the code is parsed, otherwise {@code false} and the reason is set in the result
+     */
+    public boolean parse(CharSequence code, ParsedISBN result) {
+        long isbn12 = ISBN.scanISBN12(code);
+        if (isbn12 == ISBN.SCAN_INVALID_LENGTH) {
+            result.fail(ParseError.INVALID_LENGTH);
+            return false;
+        }
+        if (isbn12 == ISBN.SCAN_INVALID_CHARACTER) {
+            result.fail(ParseError.INVALID_CHARACTER);
+            return false;
+        }
+
+        int groupLength = cache.findRegistrationGroupLength(isbn12);
+        if (groupLength <= 0) {
+            // an unknown prefix and an unassigned range are distinguished by the lookup result
+            result.fail(groupLength < 0 ? ParseError.UNKNOWN_GS1_PREFIX : ParseError.UNKNOWN_REGISTRATION_GROUP);
+            return false;
+        }
+        int registrantLength = cache.findRegistrantLength(isbn12, groupLength);
+        if (registrantLength <= 0
+            || ISBN.GS1_PREFIX_LENGTH + groupLength + registrantLength > ISBN.ISBN_13_LENGTH - 1) {
+            result.fail(ParseError.UNKNOWN_REGISTRANT);
+            return false;
+        }
+        result.set(isbn12, groupLength << 4 | registrantLength, cache);
+        return true;
+    }
+}
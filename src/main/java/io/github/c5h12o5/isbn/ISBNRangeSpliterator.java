@@ -0,0 +1,117 @@
+package io.github.c5h12o5.isbn;
+
+import io.github.c5h12o5.isbn.range.RangeCache;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * This class is a spliterator enumerating the packed ISBNs in an interval of the first 12-digits of ISBN, the numbers
+ * which cannot be split by the range cache are skipped.
+ * <p>
+ * The interval is walked by the sub-intervals of {@link RangeCache#findElementLengthsEnd(long)}, so the ranges are
+ * looked up once for each sub-interval rather than for each ISBN. The check digit is computed once for every 10
+ * numbers, and derived from the previous one for the others, since increasing the last digit by one decreases the
+ * check digit by 3 modulo 10. No memory is used other than the fields, and a split halves the remaining interval.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+final class ISBNRangeSpliterator implements Spliterator.OfLong {
+
+    /** The min number of ISBNs of a split interval. */
+    private static final int MIN_SPLIT_SIZE = 4096;
+    private static final int RADIX = 10;
+    private static final int CHECK_DIGIT_STEP = 7;
+
+    private final RangeCache cache;
+    private long next;
+    private final long end;
+
+    /** The end of the current sub-interval and its element lengths, {@code -1} if they cannot be split. */
+    private long intervalEnd;
+    private long lengths;
+
+    ISBNRangeSpliterator(RangeCache cache, long from, long to) {
+        this.cache = cache;
+        this.next = from;
+        this.end = to;
+        this.intervalEnd = from;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        while (next < end) {
+            if (next == intervalEnd) {
+                nextInterval();
+            }
+            if (lengths >= 0) {
+                long isbn12 = next++;
+                action.accept(pack(isbn12, ISBN.isbn13CheckDigit(isbn12) - ISBN.CHAR_0));
+                return true;
+            }
+            next = intervalEnd;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        while (next < end) {
+            if (next == intervalEnd) {
+                nextInterval();
+            }
+            long to = intervalEnd;
+            if (lengths >= 0) {
+                long isbn12 = next;
+                int checkDigit = ISBN.isbn13CheckDigit(isbn12) - ISBN.CHAR_0;
+                int lastDigit = (int) (isbn12 % RADIX);
+                while (isbn12 < to) {
+                    action.accept(pack(isbn12, checkDigit));
+                    isbn12++;
+                    if (++lastDigit == RADIX) {
+                        lastDigit = 0;
+                        checkDigit = ISBN.isbn13CheckDigit(isbn12) - ISBN.CHAR_0;
+                    } else {
+                        checkDigit = (checkDigit + CHECK_DIGIT_STEP) % RADIX;
+                    }
+                }
+            }
+            next = to;
+        }
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+        long from = next;
+        long middle = from + (end - from) / 2;
+        if (middle - from < MIN_SPLIT_SIZE) {
+            return null;
+        }
+        next = middle;
+        intervalEnd = middle;
+        return new ISBNRangeSpliterator(cache, from, middle);
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - next;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * Look up the sub-interval starting at the next number, which is clipped to the end of this spliterator.
+     */
+    private void nextInterval() {
+        lengths = cache.findElementLengths(next);
+        intervalEnd = Math.min(end, cache.findElementLengthsEnd(next));
+    }
+
+    private long pack(long isbn12, int checkDigit) {
+        return (isbn12 * RADIX + checkDigit) | lengths << PackedISBN.LENGTHS_SHIFT;
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.c5h12o5.isbn;
+
+import io.github.c5h12o5.isbn.range.RangeCache;
+
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class provides the functions and sources for processing ISBN codes in {@code java.util.stream} pipelines.
+ * <p>
+ * The mapping functions are bound to the range cache loaded at their creation, just like {@link ISBNParser}, so all
+ * elements of a pipeline are split by the same ranges even if the range message file is reloaded meanwhile. Each
+ * thread of a parallel pipeline reuses its own buffer, and no other state is shared between the threads.
+ *
+ * <pre>
+ * List&lt;String&gt; formatted = codes.parallelStream()
+ *     .map(ISBNStreams.formatISBN13("-"))
+ *     .filter(Objects::nonNull)
+ *     .collect(Collectors.toList());
+ *
+ * long[] packed = codes.stream().mapToLong(ISBNStreams.toPacked()).toArray();
+ * ISBNStreams.packed(packed).parallel().mapToObj(ISBNStreams.formatPackedISBN13('-')).forEach(...);
+ * </pre>
+ * <p>
+ * The codes can be collected into a primitive set by {@link io.github.c5h12o5.isbn.collection.ISBNCollectors}.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class ISBNStreams {
+
+    private static final char HYPHEN = '-';
+    private static final char SPACE = ' ';
+
+    private ISBNStreams() {
+    }
+
+    /**
+     * Get a function parsing the ISBN codes into the packed form, in the same way as
+     * {@link PackedISBN#parse(CharSequence)}.
+     *
+     * @return the function returning the packed ISBN, or {@link PackedISBN#INVALID} if the input is not a valid ISBN
+     * code
+     */
+    public static ToLongFunction<CharSequence> toPacked() {
+        RangeCache cache = ISBN.rangeCache();
+        return code -> ISBN.parsePacked(code, cache);
+    }
+
+    /**
+     * Get a function formatting the ISBN inputs to ISBN-13 format, in the same way as
+     * {@link ISBN#formatISBN13(CharSequence, String)}.
+     *
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the function returning the formatted ISBN-13 string, or {@code null} if the input is not a valid ISBN
+     * code
+     */
+    public static Function<CharSequence, String> formatISBN13(String separator) {
+        RangeCache cache = ISBN.rangeCache();
+        ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(
+            () -> new StringBuilder(ISBN.SEPARATED_ISBN_13_LENGTH));
+        return isbn -> ISBN.formatISBN13(isbn, separator, cache, buffers.get());
+    }
+
+    /**
+     * Get a function formatting the ISBN inputs to ISBN-10 format, in the same way as
+     * {@link ISBN#formatISBN10(CharSequence, String)}.
+     *
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the function returning the formatted ISBN-10 string, or {@code null} if the input is not a valid ISBN
+     * code or has a GS1 prefix other than 978
+     */
+    public static Function<CharSequence, String> formatISBN10(String separator) {
+        RangeCache cache = ISBN.rangeCache();
+        ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(
+            () -> new StringBuilder(ISBN.SEPARATED_ISBN_10_LENGTH));
+        return isbn -> ISBN.formatISBN10(isbn, separator, cache, buffers.get());
+    }
+
+    /**
+     * Get a function formatting the packed ISBNs to ISBN-13 format, see
+     * {@link PackedISBN#formatISBN13(long, char, StringBuilder)}.
+     *
+     * @param separator the separator between each element, if {@link PackedISBN#NO_SEPARATOR} then no separator
+     *                  will be added
+     * @return the function returning the formatted ISBN-13 string
+     */
+    public static LongFunction<String> formatPackedISBN13(char separator) {
+        ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(
+            () -> new StringBuilder(ISBN.SEPARATED_ISBN_13_LENGTH));
+        return packed -> {
+            StringBuilder sb = buffers.get();
+            sb.setLength(0);
+            return PackedISBN.formatISBN13(packed, separator, sb).toString();
+        };
+    }
+
+    /**
+     * Create a stream enumerating the packed ISBNs starting with the given prefix in ascending order, such as all ISBNs
+     * of a registrant {@code "978-7-03"} or a registration group {@code "978-7"}. The ISBNs have correct check digits,
+     * and are split by the current range cache, the numbers not covered by the ranges are skipped.
+     * <p>
+     * The stream is lazy and uses constant memory however large the prefix block is, and it can be turned parallel.
+     * Use {@link LongStream#iterator()} to enumerate the ISBNs one by one.
+     *
+     * @param prefix the leading digits of the ISBN-13 codes, which may be separated by hyphens or spaces, the
+     *               separators are ignored
+     * @return the sequential stream of the packed ISBNs
+     * @throws ISBNException if the prefix is empty, has a character other than digits and separators, or has more
+     *                       than 12 digits
+     */
+    public static LongStream enumerate(CharSequence prefix) {
+        long digits = 0;
+        int length = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c >= ISBN.CHAR_0 && c <= ISBN.CHAR_9 && length < ISBN.ISBN_13_LENGTH - 1) {
+                digits = digits * 10 + (c - ISBN.CHAR_0);
+                length++;
+            } else if (c != HYPHEN && c != SPACE) {
+                throw new ISBNException("Invalid ISBN prefix: " + prefix);
+            }
+        }
+        if (length == 0) {
+            throw new ISBNException("Invalid ISBN prefix: " + prefix);
+        }
+
+        long blockSize = 1;
+        for (int i = length; i < ISBN.ISBN_13_LENGTH - 1; i++) {
+            blockSize *= 10;
+        }
+        long from = digits * blockSize;
+        return StreamSupport.longStream(new ISBNRangeSpliterator(ISBN.rangeCache(), from, from + blockSize), false);
+    }
+
+    /**
+     * Create a stream of the packed ISBNs in the given array, the {@link PackedISBN#INVALID} values are skipped.
+     *
+     * @param packed the packed ISBNs
+     * @return the sequential stream, which can be turned parallel
+     */
+    public static LongStream packed(long[] packed) {
+        return packed(packed, 0, packed.length);
+    }
+
+    /**
+     * Create a stream of the packed ISBNs in the given range of an array, the {@link PackedISBN#INVALID} values are
+     * skipped.
+     *
+     * @param packed the packed ISBNs
+     * @param from   the start index, inclusive
+     * @param to     the end index, exclusive
+     * @return the sequential stream, which can be turned parallel
+     * @throws IndexOutOfBoundsException if the range is out of the array
+     */
+    public static LongStream packed(long[] packed, int from, int to) {
+        if (from < 0 || from > to || to > packed.length) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + packed.length);
+        }
+        return StreamSupport.longStream(new PackedISBNSpliterator(packed, from, to), false);
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.c5h12o5.isbn;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class counts the instrumentation events with {@link LongAdder}s, so that the counters can be updated by many
+ * threads with little contention and exported to a monitoring system.
+ *
+ * <pre>
+ * LongAdderISBNMetrics metrics = new LongAdderISBNMetrics();
+ * ISBN.setMetrics(metrics);
+ * ...
+ * long unknownGroups = metrics.getFailureCount(ParseError.UNKNOWN_REGISTRATION_GROUP);
+ * </pre>
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class LongAdderISBNMetrics implements ISBNMetrics {
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final ParseError[] ERRORS = ParseError.values();
+
+    private final LongAdder[] successes = newAdders(OPERATIONS.length);
+    private final LongAdder[] failures = newAdders(OPERATIONS.length);
+    private final LongAdder[] errors = newAdders(ERRORS.length);
+    private final LongAdder otherErrors = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder reloadFailures = new LongAdder();
+    private final LongAdder reloadNanos = new LongAdder();
+    private volatile long lastReloadNanos;
+
+    @Override
+    public void onSuccess(Operation operation) {
+        successes[operation.ordinal()].increment();
+    }
+
+    @Override
+    public void onFailure(Operation operation, ParseError error) {
+        failures[operation.ordinal()].increment();
+        (error == null ? otherErrors : errors[error.ordinal()]).increment();
+    }
+
+    @Override
+    public void onRangeReload(long durationNanos, boolean success) {
+        reloads.increment();
+        if (!success) {
+            reloadFailures.increment();
+        }
+        reloadNanos.add(durationNanos);
+        lastReloadNanos = durationNanos;
+    }
+
+    /**
+     * Get the number of calls of the given operation.
+     *
+     * @param operation the operation
+     * @return the number of calls
+     */
+    public long getCallCount(Operation operation) {
+        return getSuccessCount(operation) + getFailureCount(operation);
+    }
+
+    /**
+     * Get the number of successful calls of the given operation.
+     *
+     * @param operation the operation
+     * @return the number of successful calls
+     */
+    public long getSuccessCount(Operation operation) {
+        return successes[operation.ordinal()].sum();
+    }
+
+    /**
+     * Get the number of failed calls of the given operation.
+     *
+     * @param operation the operation
+     * @return the number of failed calls
+     */
+    public long getFailureCount(Operation operation) {
+        return failures[operation.ordinal()].sum();
+    }
+
+    /**
+     * Get the number of failed calls of all operations rejected by the given stage.
+     *
+     * @param error the stage rejecting the inputs, or {@code null} for the inputs rejected for another reason
+     * @return the number of failed calls
+     */
+    public long getFailureCount(ParseError error) {
+        return (error == null ? otherErrors : errors[error.ordinal()]).sum();
+    }
+
+    /**
+     * Get the number of range reloads, including the failed ones.
+     *
+     * @return the number of range reloads
+     */
+    public long getReloadCount() {
+        return reloads.sum();
+    }
+
+    /**
+     * Get the number of failed range reloads.
+     *
+     * @return the number of failed range reloads
+     */
+    public long getReloadFailureCount() {
+        return reloadFailures.sum();
+    }
+
+    /**
+     * Get the total time spent in range reloads.
+     *
+     * @return the total time in nanoseconds
+     */
+    public long getTotalReloadNanos() {
+        return reloadNanos.sum();
+    }
+
+    /**
+     * Get the time spent in the last range reload.
+     *
+     * @return the time in nanoseconds, or {@code 0} if no range is reloaded
+     */
+    public long getLastReloadNanos() {
+        return lastReloadNanos;
+    }
+
+    /**
+     * Reset all counters to zero, the counters updated concurrently may or may not be reset.
+     */
+    public void reset() {
+        resetAll(successes);
+        resetAll(failures);
+        resetAll(errors);
+        otherErrors.reset();
+        reloads.reset();
+        reloadFailures.reset();
+        reloadNanos.reset();
+        lastReloadNanos = 0;
+    }
+
+    /**
+     * Create an array of new adders.
+     *
+     * @param length the array length
+     * @return the array of new adders
+     */
+    private static LongAdder[] newAdders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Reset all the given adders.
+     *
+     * @param adders the adders to reset
+     */
+    private static void resetAll(LongAdder[] adders) {
+        for (LongAdder adder : adders) {
+            adder.reset();
+        }
+    }
+}
@@ -0,0 +1,553 @@
+package io.github.c5h12o5.isbn;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class provides static helpers for the packed form of an ISBN, which holds an {@link ISBNObject} in a single
+ * {@code long}, so that large collections can store ISBNs as primitives.
+ * <p>
+ * The packed form is laid out as follows:
+ * <pre>
+ * bits  0-43: the numeric value of the 13 digits of ISBN-13, including the check digit
+ * bits 44-47: the length of the registrant element
+ * bits 48-51: the length of the registration group element
+ * </pre>
+ * The separators after the GS1 prefix and before the check digit are at fixed positions, so the two element lengths
+ * determine all separator positions. All accessors work without creating any objects.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class PackedISBN {
+
+    /** The packed value of an invalid ISBN. */
+    public static final long INVALID = -1L;
+
+    /** The check digit returned if the ISBN has no ISBN-10 form. */
+    public static final char NO_CHECK_DIGIT = '\0';
+
+    /** The separator character meaning no separator will be added. */
+    public static final char NO_SEPARATOR = '\0';
+
+    static final int LENGTHS_SHIFT = 44;
+    private static final long ISBN13_MASK = (1L << LENGTHS_SHIFT) - 1;
+    private static final int REGISTRANT_SHIFT = LENGTHS_SHIFT;
+    private static final int GROUP_SHIFT = LENGTHS_SHIFT + 4;
+    private static final int LENGTH_MASK = 0xF;
+    private static final int GS1_PREFIX_978 = 978;
+    private static final int ISBN_9_LENGTH = ISBN.ISBN_10_LENGTH - 1;
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L
+    };
+
+    private PackedISBN() {
+    }
+
+    /**
+     * Parse the given ISBN code into the packed form, in the same way as {@link ISBN#parse(String)}.
+     *
+     * @param code the ISBN code to parse
+     * @return the packed ISBN, {@link #INVALID} if the input is not a valid ISBN code
+     */
+    public static long parse(CharSequence code) {
+        return ISBN.parsePacked(code, ISBN.rangeCache());
+    }
+
+    /**
+     * Pack the given {@link ISBNObject}.
+     *
+     * @param isbnObject the ISBN object to pack
+     * @return the packed ISBN, {@link #INVALID} if the input is {@code null} or its elements are not digits
+     */
+    public static long pack(ISBNObject isbnObject) {
+        if (isbnObject == null) {
+            return INVALID;
+        }
+        String gs1Prefix = isbnObject.getGS1Prefix();
+        String registrationGroup = isbnObject.getRegistrationGroup();
+        String registrant = isbnObject.getRegistrant();
+        String publication = isbnObject.getPublication();
+        if (gs1Prefix.length() != ISBN.GS1_PREFIX_LENGTH || gs1Prefix.length() + registrationGroup.length()
+            + registrant.length() + publication.length() != ISBN.ISBN_13_LENGTH - 1) {
+            return INVALID;
+        }
+        long isbn12 = accumulate(accumulate(accumulate(accumulate(0, gs1Prefix), registrationGroup), registrant),
+            publication);
+        return (isbn12 < 0) ? INVALID : pack(isbn12, registrationGroup.length() << 4 | registrant.length());
+    }
+
+    /**
+     * Pack the given first 12-digits of ISBN and the element lengths.
+     *
+     * @param isbn12  the numeric value of the first 12-digits of ISBN
+     * @param hyphens the registration group length in the high bits and the registrant length in the low 4 bits
+     * @return the packed ISBN
+     */
+    static long pack(long isbn12, int hyphens) {
+        long isbn13 = isbn12 * 10 + (ISBN.isbn13CheckDigit(isbn12) - ISBN.CHAR_0);
+        return isbn13 | (long) hyphens << LENGTHS_SHIFT;
+    }
+
+    /**
+     * Unpack the given packed ISBN into an {@link ISBNObject}.
+     *
+     * @param packed the packed ISBN
+     * @return the ISBN object, {@code null} if the packed ISBN is {@link #INVALID}
+     */
+    public static ISBNObject toISBNObject(long packed) {
+        if (packed == INVALID) {
+            return null;
+        }
+        return ISBN.toISBNObject(isbn12(packed), (int) (packed >>> LENGTHS_SHIFT), ISBN.loadedRangeCache());
+    }
+
+    /**
+     * Get the numeric value of the 13 digits of ISBN-13, which can be used as a normalized key of the ISBN.
+     *
+     * @param packed the packed ISBN
+     * @return the numeric value of ISBN-13
+     */
+    public static long isbn13(long packed) {
+        return packed & ISBN13_MASK;
+    }
+
+    /**
+     * Get the numeric value of the GS1 prefix.
+     *
+     * @param packed the packed ISBN
+     * @return the GS1 prefix, such as 978 or 979
+     */
+    public static int gs1Prefix(long packed) {
+        return (int) (isbn13(packed) / POW10[ISBN.ISBN_13_LENGTH - ISBN.GS1_PREFIX_LENGTH]);
+    }
+
+    /**
+     * Get the length of the registration group element.
+     *
+     * @param packed the packed ISBN
+     * @return the length of the registration group element
+     */
+    public static int registrationGroupLength(long packed) {
+        return (int) (packed >>> GROUP_SHIFT) & LENGTH_MASK;
+    }
+
+    /**
+     * Get the length of the registrant element.
+     *
+     * @param packed the packed ISBN
+     * @return the length of the registrant element
+     */
+    public static int registrantLength(long packed) {
+        return (int) (packed >>> REGISTRANT_SHIFT) & LENGTH_MASK;
+    }
+
+    /**
+     * Get the length of the publication element.
+     *
+     * @param packed the packed ISBN
+     * @return the length of the publication element
+     */
+    public static int publicationLength(long packed) {
+        return ISBN_9_LENGTH - registrationGroupLength(packed) - registrantLength(packed);
+    }
+
+    /**
+     * Get the ISBN-13 check digit.
+     *
+     * @param packed the packed ISBN
+     * @return the ISBN-13 check digit
+     */
+    public static char isbn13CheckDigit(long packed) {
+        return (char) (isbn13(packed) % 10 + ISBN.CHAR_0);
+    }
+
+    /**
+     * Get the ISBN-10 check digit.
+     *
+     * @param packed the packed ISBN
+     * @return the ISBN-10 check digit, or {@link #NO_CHECK_DIGIT} if the ISBN has a GS1 prefix other than 978
+     */
+    public static char isbn10CheckDigit(long packed) {
+        return (gs1Prefix(packed) == GS1_PREFIX_978) ? ISBN.isbn10CheckDigit(isbn12(packed)) : NO_CHECK_DIGIT;
+    }
+
+    /**
+     * Format the packed ISBN to ISBN-13 format.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the ISBN-13 string, {@code null} if the packed ISBN is {@link #INVALID}
+     */
+    public static String toISBN13(long packed, String separator) {
+        if (packed == INVALID) {
+            return null;
+        }
+        char[] chars = new char[ISBN.SEPARATED_ISBN_13_LENGTH];
+        if (separator == null || separator.isEmpty()) {
+            return new String(chars, 0, formatISBN13(packed, NO_SEPARATOR, chars, 0));
+        }
+        if (separator.length() == 1) {
+            return new String(chars, 0, formatISBN13(packed, separator.charAt(0), chars, 0));
+        }
+        return ISBN.toISBNObject(isbn12(packed), (int) (packed >>> LENGTHS_SHIFT), null).toISBN13(separator);
+    }
+
+    /**
+     * Format the packed ISBN to ISBN-10 format.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the ISBN-10 string, {@code null} if the packed ISBN is {@link #INVALID} or has a GS1 prefix other
+     * than 978
+     */
+    public static String toISBN10(long packed, String separator) {
+        if (packed == INVALID || gs1Prefix(packed) != GS1_PREFIX_978) {
+            return null;
+        }
+        char[] chars = new char[ISBN.SEPARATED_ISBN_10_LENGTH];
+        if (separator == null || separator.isEmpty()) {
+            return new String(chars, 0, formatISBN10(packed, NO_SEPARATOR, chars, 0));
+        }
+        if (separator.length() == 1) {
+            return new String(chars, 0, formatISBN10(packed, separator.charAt(0), chars, 0));
+        }
+        return ISBN.toISBNObject(isbn12(packed), (int) (packed >>> LENGTHS_SHIFT), null).toISBN10(separator);
+    }
+
+    /**
+     * Append the packed ISBN in ISBN-13 format to the given buffer.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@link #NO_SEPARATOR} then no separator will be
+     *                  added
+     * @param sb        the buffer to append to
+     * @return the given buffer
+     * @throws ISBNException if the packed ISBN is {@link #INVALID}
+     */
+    public static StringBuilder formatISBN13(long packed, char separator, StringBuilder sb) {
+        return appendISBN(checkPacked(packed), false, separator, sb);
+    }
+
+    /**
+     * Append the packed ISBN in ISBN-10 format to the given buffer, nothing is appended if the ISBN has a GS1 prefix
+     * other than 978.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@link #NO_SEPARATOR} then no separator will be
+     *                  added
+     * @param sb        the buffer to append to
+     * @return the given buffer
+     * @throws ISBNException if the packed ISBN is {@link #INVALID}
+     */
+    public static StringBuilder formatISBN10(long packed, char separator, StringBuilder sb) {
+        return (gs1Prefix(checkPacked(packed)) == GS1_PREFIX_978) ? appendISBN(packed, true, separator, sb) : sb;
+    }
+
+    /**
+     * Write the packed ISBN in ISBN-13 format into the given array.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@link #NO_SEPARATOR} then no separator will be
+     *                  added
+     * @param dest      the array to write into, it must have room for 17 characters from the offset
+     * @param offset    the offset of the first character to write
+     * @return the number of characters written
+     * @throws ISBNException if the packed ISBN is {@link #INVALID}
+     */
+    public static int formatISBN13(long packed, char separator, char[] dest, int offset) {
+        return writeISBN(checkPacked(packed), false, separator, dest, offset);
+    }
+
+    /**
+     * Write the packed ISBN in ISBN-10 format into the given array, nothing is written if the ISBN has a GS1 prefix
+     * other than 978.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@link #NO_SEPARATOR} then no separator will be
+     *                  added
+     * @param dest      the array to write into, it must have room for 13 characters from the offset
+     * @param offset    the offset of the first character to write
+     * @return the number of characters written
+     * @throws ISBNException if the packed ISBN is {@link #INVALID}
+     */
+    public static int formatISBN10(long packed, char separator, char[] dest, int offset) {
+        if (gs1Prefix(checkPacked(packed)) != GS1_PREFIX_978) {
+            return 0;
+        }
+        return writeISBN(packed, true, separator, dest, offset);
+    }
+
+    /**
+     * Append the packed ISBN in ISBN-13 format to the given appendable, such as a {@link java.io.Writer}.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@link #NO_SEPARATOR} then no separator will be
+     *                  added
+     * @param out       the appendable to append to
+     * @throws IOException   if an I/O error occurs
+     * @throws ISBNException if the packed ISBN is {@link #INVALID}
+     */
+    public static void formatISBN13(long packed, char separator, Appendable out) throws IOException {
+        appendISBN(checkPacked(packed), false, separator, out);
+    }
+
+    /**
+     * Append the packed ISBN in ISBN-10 format to the given appendable, such as a {@link java.io.Writer}, nothing is
+     * appended if the ISBN has a GS1 prefix other than 978.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@link #NO_SEPARATOR} then no separator will be
+     *                  added
+     * @param out       the appendable to append to
+     * @throws IOException   if an I/O error occurs
+     * @throws ISBNException if the packed ISBN is {@link #INVALID}
+     */
+    public static void formatISBN10(long packed, char separator, Appendable out) throws IOException {
+        if (gs1Prefix(checkPacked(packed)) == GS1_PREFIX_978) {
+            appendISBN(packed, true, separator, out);
+        }
+    }
+
+    /**
+     * Write the packed ISBN in ISBN-13 format into the given array as ASCII bytes.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@link #NO_SEPARATOR} then no separator will be
+     *                  added, it must be an ASCII character
+     * @param dest      the array to write into, it must have room for 17 bytes from the offset
+     * @param offset    the offset of the first byte to write
+     * @return the number of bytes written
+     * @throws ISBNException if the packed ISBN is {@link #INVALID}
+     */
+    public static int formatISBN13(long packed, char separator, byte[] dest, int offset) {
+        checkPacked(packed);
+        checkRoom(dest.length - offset, formattedLength(false, separator));
+        return writeISBN(packed, false, separator, dest, offset);
+    }
+
+    /**
+     * Write the packed ISBN in ISBN-10 format into the given array as ASCII bytes, nothing is written if the ISBN has
+     * a GS1 prefix other than 978.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@link #NO_SEPARATOR} then no separator will be
+     *                  added, it must be an ASCII character
+     * @param dest      the array to write into, it must have room for 13 bytes from the offset
+     * @param offset    the offset of the first byte to write
+     * @return the number of bytes written
+     * @throws ISBNException if the packed ISBN is {@link #INVALID}
+     */
+    public static int formatISBN10(long packed, char separator, byte[] dest, int offset) {
+        if (gs1Prefix(checkPacked(packed)) != GS1_PREFIX_978) {
+            return 0;
+        }
+        checkRoom(dest.length - offset, formattedLength(true, separator));
+        return writeISBN(packed, true, separator, dest, offset);
+    }
+
+    /**
+     * Put the packed ISBN in ISBN-13 format into the given buffer as ASCII bytes at its position, which is advanced
+     * by the number of bytes written.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@link #NO_SEPARATOR} then no separator will be
+     *                  added, it must be an ASCII character
+     * @param dest      the buffer to put into
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException if the buffer has not enough room, nothing is written in this case
+     * @throws ISBNException                    if the packed ISBN is {@link #INVALID}
+     */
+    public static int formatISBN13(long packed, char separator, ByteBuffer dest) {
+        return putISBN(checkPacked(packed), false, separator, dest);
+    }
+
+    /**
+     * Put the packed ISBN in ISBN-10 format into the given buffer as ASCII bytes at its position, which is advanced
+     * by the number of bytes written, nothing is written if the ISBN has a GS1 prefix other than 978.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element, if {@link #NO_SEPARATOR} then no separator will be
+     *                  added, it must be an ASCII character
+     * @param dest      the buffer to put into
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException if the buffer has not enough room, nothing is written in this case
+     * @throws ISBNException                    if the packed ISBN is {@link #INVALID}
+     */
+    public static int formatISBN10(long packed, char separator, ByteBuffer dest) {
+        return (gs1Prefix(checkPacked(packed)) == GS1_PREFIX_978) ? putISBN(packed, true, separator, dest) : 0;
+    }
+
+    /**
+     * Get the numeric value of the first 12-digits of ISBN.
+     *
+     * @param packed the packed ISBN
+     * @return the numeric value of the first 12-digits of ISBN
+     */
+    static long isbn12(long packed) {
+        return isbn13(packed) / 10;
+    }
+
+    /**
+     * Check if the given value is a packed ISBN created by {@link #pack(long, int)}, that is the ISBN-13 has at most
+     * 13-digits, the element lengths are positive and fit in the 12-digits, and the check digit is correct.
+     *
+     * @param packed the value to check
+     * @return {@code true} if a packed ISBN, otherwise {@code false}
+     */
+    static boolean isWellFormed(long packed) {
+        if (packed < 0 || packed >>> (GROUP_SHIFT + 4) != 0 || isbn13(packed) >= POW10[ISBN.ISBN_13_LENGTH]) {
+            return false;
+        }
+        int groupLength = registrationGroupLength(packed);
+        int registrantLength = registrantLength(packed);
+        if (groupLength < 1 || registrantLength < 1 || groupLength + registrantLength > ISBN_9_LENGTH) {
+            return false;
+        }
+        return pack(isbn12(packed), (int) (packed >>> LENGTHS_SHIFT)) == packed;
+    }
+
+    /**
+     * Get the digit at the given index of ISBN-13.
+     *
+     * @param isbn13 the numeric value of ISBN-13
+     * @param index  the index of the digit
+     * @return the digit character
+     */
+    static char digitAt(long isbn13, int index) {
+        return (char) (isbn13 / POW10[ISBN.ISBN_13_LENGTH - 1 - index] % 10 + ISBN.CHAR_0);
+    }
+
+    private static long accumulate(long value, String digits) {
+        for (int i = 0; value >= 0 && i < digits.length(); i++) {
+            char ch = digits.charAt(i);
+            value = (ch >= ISBN.CHAR_0 && ch <= ISBN.CHAR_9) ? value * 10 + (ch - ISBN.CHAR_0) : -1;
+        }
+        return value;
+    }
+
+    /**
+     * Get the indexes of the digits followed by a separator, that is the last digit of each element before the check
+     * digit. It is the only place splitting the elements, each destination writes the digits one by one and puts a
+     * separator after the marked ones, so no intermediate buffer is needed.
+     *
+     * @param packed    the packed ISBN
+     * @param separator the separator between each element
+     * @return the bit mask of the digit indexes of ISBN-13, or {@code 0} if the separator is {@link #NO_SEPARATOR}
+     */
+    private static int separatorMask(long packed, char separator) {
+        if (separator == NO_SEPARATOR) {
+            return 0;
+        }
+        int groupEnd = ISBN.GS1_PREFIX_LENGTH + registrationGroupLength(packed);
+        int registrantEnd = groupEnd + registrantLength(packed);
+        return 1 << (ISBN.GS1_PREFIX_LENGTH - 1) | 1 << (groupEnd - 1) | 1 << (registrantEnd - 1)
+            | 1 << (ISBN.ISBN_13_LENGTH - 2);
+    }
+
+    private static int firstDigit(boolean isbn10) {
+        return isbn10 ? ISBN.GS1_PREFIX_LENGTH : 0;
+    }
+
+    private static char checkDigit(long packed, boolean isbn10) {
+        return isbn10 ? isbn10CheckDigit(packed) : isbn13CheckDigit(packed);
+    }
+
+    private static int writeISBN(long packed, boolean isbn10, char separator, char[] dest, int offset) {
+        int mask = separatorMask(packed, separator);
+        long isbn13 = isbn13(packed);
+        int index = offset;
+        for (int i = firstDigit(isbn10); i < ISBN.ISBN_13_LENGTH - 1; i++) {
+            dest[index++] = digitAt(isbn13, i);
+            if ((mask >>> i & 1) != 0) {
+                dest[index++] = separator;
+            }
+        }
+        dest[index++] = checkDigit(packed, isbn10);
+        return index - offset;
+    }
+
+    private static int writeISBN(long packed, boolean isbn10, char separator, byte[] dest, int offset) {
+        int mask = separatorMask(packed, separator);
+        long isbn13 = isbn13(packed);
+        int index = offset;
+        for (int i = firstDigit(isbn10); i < ISBN.ISBN_13_LENGTH - 1; i++) {
+            dest[index++] = (byte) digitAt(isbn13, i);
+            if ((mask >>> i & 1) != 0) {
+                dest[index++] = (byte) separator;
+            }
+        }
+        dest[index++] = (byte) checkDigit(packed, isbn10);
+        return index - offset;
+    }
+
+    private static StringBuilder appendISBN(long packed, boolean isbn10, char separator, StringBuilder sb) {
+        int mask = separatorMask(packed, separator);
+        long isbn13 = isbn13(packed);
+        for (int i = firstDigit(isbn10); i < ISBN.ISBN_13_LENGTH - 1; i++) {
+            sb.append(digitAt(isbn13, i));
+            if ((mask >>> i & 1) != 0) {
+                sb.append(separator);
+            }
+        }
+        return sb.append(checkDigit(packed, isbn10));
+    }
+
+    private static void appendISBN(long packed, boolean isbn10, char separator, Appendable out) throws IOException {
+        int mask = separatorMask(packed, separator);
+        long isbn13 = isbn13(packed);
+        for (int i = firstDigit(isbn10); i < ISBN.ISBN_13_LENGTH - 1; i++) {
+            out.append(digitAt(isbn13, i));
+            if ((mask >>> i & 1) != 0) {
+                out.append(separator);
+            }
+        }
+        out.append(checkDigit(packed, isbn10));
+    }
+
+    private static int putISBN(long packed, boolean isbn10, char separator, ByteBuffer dest) {
+        int length = formattedLength(isbn10, separator);
+        if (dest.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        if (dest.hasArray()) {
+            writeISBN(packed, isbn10, separator, dest.array(), dest.arrayOffset() + dest.position());
+            dest.position(dest.position() + length);
+            return length;
+        }
+
+        // put the bytes one by one into the direct buffer
+        int mask = separatorMask(packed, separator);
+        long isbn13 = isbn13(packed);
+        for (int i = firstDigit(isbn10); i < ISBN.ISBN_13_LENGTH - 1; i++) {
+            dest.put((byte) digitAt(isbn13, i));
+            if ((mask >>> i & 1) != 0) {
+                dest.put((byte) separator);
+            }
+        }
+        dest.put((byte) checkDigit(packed, isbn10));
+        return length;
+    }
+
+    private static long checkPacked(long packed) {
+        if (packed == INVALID) {
+            throw new ISBNException("Invalid packed ISBN: " + packed);
+        }
+        return packed;
+    }
+
+    private static int formattedLength(boolean isbn10, char separator) {
+        if (isbn10) {
+            return (separator == NO_SEPARATOR) ? ISBN.ISBN_10_LENGTH : ISBN.SEPARATED_ISBN_10_LENGTH;
+        }
+        return (separator == NO_SEPARATOR) ? ISBN.ISBN_13_LENGTH : ISBN.SEPARATED_ISBN_13_LENGTH;
+    }
+
+    private static void checkRoom(int room, int length) {
+        if (room < length) {
+            throw new IndexOutOfBoundsException("Not enough room for " + length + " bytes: " + room);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.c5h12o5.isbn;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * This class is a spliterator over a range of a packed ISBN array, which skips the {@link PackedISBN#INVALID} values.
+ * <p>
+ * It splits the range in halves like an array spliterator, so a parallel stream over a large array is balanced
+ * without copying. The number of elements is only an estimate since the invalid values are not counted in advance.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+final class PackedISBNSpliterator implements Spliterator.OfLong {
+
+    /** The min number of values of a split range. */
+    private static final int MIN_SPLIT_SIZE = 1024;
+
+    private final long[] packed;
+    private int index;
+    private final int end;
+
+    PackedISBNSpliterator(long[] packed, int from, int to) {
+        this.packed = packed;
+        this.index = from;
+        this.end = to;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        while (index < end) {
+            long value = packed[index++];
+            if (value != PackedISBN.INVALID) {
+                action.accept(value);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        long[] values = packed;
+        int to = end;
+        for (int i = index; i < to; i++) {
+            if (values[i] != PackedISBN.INVALID) {
+                action.accept(values[i]);
+            }
+        }
+        index = to;
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+        int from = index;
+        int middle = (from + end) >>> 1;
+        if (middle - from < MIN_SPLIT_SIZE) {
+            return null;
+        }
+        index = middle;
+        return new PackedISBNSpliterator(packed, from, middle);
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
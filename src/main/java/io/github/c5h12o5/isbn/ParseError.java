@@ -0,0 +1,36 @@
+package io.github.c5h12o5.isbn;
+
+/**
+ * This enum represents the reasons why an ISBN code cannot be parsed or is not valid.
+ * <p>
+ * The parsing accepts any characters between the digits, so the reasons about the check digit and the separators
+ * are only reported by the validation, such as {@link ISBN#analyze(CharSequence)}.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public enum ParseError {
+
+    /**
+     * The input is {@code null}, or its compacted code does not have 9, 10, 12 or 13 digits. For the validation, the
+     * input does not have 10, 13 or 17 characters.
+     */
+    INVALID_LENGTH,
+    /**
+     * The compacted code ends with an 'X' at a position where a digit is required. For the validation, a digit or
+     * the check digit is replaced by another character.
+     */
+    INVALID_CHARACTER,
+    /** More than one kind of separator is used in the input. */
+    MIXED_SEPARATORS,
+    /** The check digit does not match the other digits. */
+    INVALID_CHECK_DIGIT,
+    /** The GS1 prefix is not in the range cache. */
+    UNKNOWN_GS1_PREFIX,
+    /** No registration group range covers the digits after the GS1 prefix. */
+    UNKNOWN_REGISTRATION_GROUP,
+    /** No registrant range covers the digits after the registration group element. */
+    UNKNOWN_REGISTRANT,
+    /** The separators are not placed between the elements split by the range cache. */
+    MISPLACED_SEPARATOR
+}
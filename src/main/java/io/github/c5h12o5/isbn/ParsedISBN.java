@@ -0,0 +1,204 @@
+package io.github.c5h12o5.isbn;
+
+import io.github.c5h12o5.isbn.range.RangeCache;
+
+/**
+ * This class is the mutable result of {@link ISBNParser}, which is owned by the caller and overwritten by each
+ * parsing, so that a parse loop does not create any objects until a String or an {@link ISBNObject} is requested.
+ * <p>
+ * The digits of a valid result are the 13 digits of ISBN-13, where the GS1 prefix, registration group, registrant,
+ * publication and check digit elements are adjacent in this order.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class ParsedISBN {
+
+    private static final int GS1_PREFIX_978 = 978;
+    private static final long GS1_PREFIX_DIVISOR = 1_000_000_000L;
+
+    private final char[] digits = new char[ISBN.ISBN_13_LENGTH];
+    private long isbn12;
+    private int hyphens;
+    private char isbn10CheckDigit;
+    private ParseError error = ParseError.INVALID_LENGTH;
+
+    /** The range cache the result is parsed with, which holds the canonical elements. */
+    private RangeCache rangeCache;
+
+    /**
+     * Check if the last parsing succeeded.
+     *
+     * @return {@code true} if the last parsing succeeded, otherwise {@code false}
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * Get the reason why the last parsing failed.
+     *
+     * @return the parse error, or {@code null} if the last parsing succeeded
+     */
+    public ParseError getError() {
+        return error;
+    }
+
+    /**
+     * Get the digit of ISBN-13 at the given index.
+     *
+     * @param index the digit index, from 0 to 12
+     * @return the digit character
+     */
+    public char digitAt(int index) {
+        checkValid();
+        return digits[index];
+    }
+
+    /**
+     * Copy the 13 digits of ISBN-13 into the given array.
+     *
+     * @param dest   the destination array
+     * @param offset the start offset in the destination array
+     */
+    public void getDigits(char[] dest, int offset) {
+        checkValid();
+        System.arraycopy(digits, 0, dest, offset, digits.length);
+    }
+
+    /**
+     * Get the numeric value of ISBN-13.
+     *
+     * @return the numeric value of ISBN-13
+     */
+    public long getISBN13() {
+        checkValid();
+        return isbn12 * 10 + (digits[ISBN.ISBN_13_LENGTH - 1] - ISBN.CHAR_0);
+    }
+
+    /**
+     * Get the length of the registration group element, which starts after the 3-digit GS1 prefix.
+     *
+     * @return the registration group length
+     */
+    public int getRegistrationGroupLength() {
+        checkValid();
+        return hyphens >>> 4;
+    }
+
+    /**
+     * Get the length of the registrant element, which starts after the registration group element.
+     *
+     * @return the registrant length
+     */
+    public int getRegistrantLength() {
+        checkValid();
+        return hyphens & 0xF;
+    }
+
+    /**
+     * Get the length of the publication element, which starts after the registrant element and ends before the
+     * check digit.
+     *
+     * @return the publication length
+     */
+    public int getPublicationLength() {
+        checkValid();
+        return ISBN.ISBN_13_LENGTH - 1 - ISBN.GS1_PREFIX_LENGTH - (hyphens >>> 4) - (hyphens & 0xF);
+    }
+
+    /**
+     * Get the ISBN-13 check digit.
+     *
+     * @return the ISBN-13 check digit
+     */
+    public char getISBN13CheckDigit() {
+        checkValid();
+        return digits[ISBN.ISBN_13_LENGTH - 1];
+    }
+
+    /**
+     * Get the ISBN-10 check digit.
+     *
+     * @return the ISBN-10 check digit, or {@link PackedISBN#NO_CHECK_DIGIT} if the GS1 prefix is not 978
+     */
+    public char getISBN10CheckDigit() {
+        checkValid();
+        return isbn10CheckDigit;
+    }
+
+    /**
+     * Get the packed form of the result.
+     *
+     * @return the packed ISBN, {@link PackedISBN#INVALID} if the last parsing failed
+     */
+    public long toPacked() {
+        return isValid() ? PackedISBN.pack(isbn12, hyphens) : PackedISBN.INVALID;
+    }
+
+    /**
+     * Create an {@link ISBNObject} from the result, the elements are shared with the range cache of the parser.
+     *
+     * @return the {@link ISBNObject}, {@code null} if the last parsing failed
+     */
+    public ISBNObject toISBNObject() {
+        return isValid() ? ISBN.toISBNObject(isbn12, hyphens, rangeCache) : null;
+    }
+
+    /**
+     * Format the result in ISBN-13 format.
+     *
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the ISBN-13 string, {@code null} if the last parsing failed
+     */
+    public String toISBN13(String separator) {
+        return PackedISBN.toISBN13(toPacked(), separator);
+    }
+
+    /**
+     * Format the result in ISBN-10 format.
+     *
+     * @param separator the separator between each element, if {@code null} then no separator will be added
+     * @return the ISBN-10 string, {@code null} if the last parsing failed or the GS1 prefix is not 978
+     */
+    public String toISBN10(String separator) {
+        return PackedISBN.toISBN10(toPacked(), separator);
+    }
+
+    /**
+     * Set the result of a successful parsing.
+     *
+     * @param isbn12     the numeric value of the first 12-digits of ISBN
+     * @param hyphens    the registration group length in the high bits and the registrant length in the low 4 bits
+     * @param rangeCache the range cache the code is parsed with
+     */
+    void set(long isbn12, int hyphens, RangeCache rangeCache) {
+        this.isbn12 = isbn12;
+        this.hyphens = hyphens;
+        this.rangeCache = rangeCache;
+        this.error = null;
+        digits[ISBN.ISBN_13_LENGTH - 1] = ISBN.isbn13CheckDigit(isbn12);
+        long value = isbn12;
+        for (int i = ISBN.ISBN_13_LENGTH - 2; i >= 0; i--) {
+            digits[i] = (char) (value % 10 + ISBN.CHAR_0);
+            value /= 10;
+        }
+        isbn10CheckDigit = (isbn12 / GS1_PREFIX_DIVISOR == GS1_PREFIX_978)
+            ? ISBN.isbn10CheckDigit(isbn12) : PackedISBN.NO_CHECK_DIGIT;
+    }
+
+    /**
+     * Set the result of a failed parsing.
+     *
+     * @param error the parse error
+     */
+    void fail(ParseError error) {
+        this.error = error;
+    }
+
+    private void checkValid() {
+        if (error != null) {
+            throw new ISBNException("Invalid ISBN: " + error);
+        }
+    }
+}
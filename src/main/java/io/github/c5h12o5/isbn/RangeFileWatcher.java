@@ -0,0 +1,112 @@
+package io.github.c5h12o5.isbn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.Consumer;
+
+/**
+ * This class watches a range message file on disk and reloads it through
+ * {@link ISBN#loadRangeMessageFile(InputStream)} whenever it is created or modified, so the updates published by the
+ * International ISBN Agency can be applied without restarting.
+ * <p>
+ * The file is watched on a daemon thread. If a reload fails, such as when the file is read while being written, the
+ * current range cache is kept and the error is passed to the error handler, and the next change retries the reload.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class RangeFileWatcher implements Closeable {
+
+    private final Path file;
+    private final Consumer<? super Exception> errorHandler;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * Start watching the given range message file, the errors of reloading are ignored.
+     *
+     * @param file the range message file to watch
+     * @throws IOException if the watch service cannot be created
+     */
+    public RangeFileWatcher(Path file) throws IOException {
+        this(file, e -> {
+        });
+    }
+
+    /**
+     * Start watching the given range message file.
+     *
+     * @param file         the range message file to watch
+     * @param errorHandler the handler receiving the errors of reloading
+     * @throws IOException if the watch service cannot be created
+     */
+    public RangeFileWatcher(Path file, Consumer<? super Exception> errorHandler) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.errorHandler = errorHandler;
+        this.watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "isbn-range-file-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Reload the watched range message file immediately.
+     *
+     * @return {@code true} if the file is reloaded, otherwise {@code false}
+     */
+    public boolean reload() {
+        try (InputStream is = Files.newInputStream(file)) {
+            ISBN.loadRangeMessageFile(is);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            errorHandler.accept(e);
+            return false;
+        }
+    }
+
+    /**
+     * Stop watching the range message file.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+
+    /**
+     * Wait for the changes of the watched file until the watcher is closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (file.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watcher is closed
+        }
+    }
+}
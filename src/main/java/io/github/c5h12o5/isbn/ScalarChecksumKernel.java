@@ -0,0 +1,42 @@
+package io.github.c5h12o5.isbn;
+
+/**
+ * This class validates the check digits of ISBN-13 rows one by one, it is the portable implementation used by
+ * {@link ChecksumKernel} on all Java versions.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+final class ScalarChecksumKernel {
+
+    private ScalarChecksumKernel() {
+    }
+
+    /**
+     * Validate the ISBN-13 rows in the given array and set the bits of the valid rows.
+     *
+     * @param data     the array containing the rows of 13 ASCII digits
+     * @param offset   the index of the first byte of the first row
+     * @param stride   the distance in bytes between the starts of two adjacent rows
+     * @param count    the number of rows to validate
+     * @param valid    the bits to set, as in {@link java.util.BitSet#toLongArray()}
+     * @param firstRow the bit index of the first row
+     */
+    static void validateISBN13Rows(byte[] data, int offset, int stride, int count, long[] valid, int firstRow) {
+        for (int row = 0; row < count; row++) {
+            int start = offset + row * stride;
+            int sum = 0;
+            int check = 0;
+            for (int i = 0; i < ISBN.ISBN_13_LENGTH; i++) {
+                int digit = data[start + i] - ISBN.CHAR_0;
+                // the sign bit is set if any digit is out of the range [0, 9]
+                check |= digit | (9 - digit);
+                sum += ((i & 1) == 0) ? digit : digit * 3;
+            }
+            if (check >= 0 && sum % 10 == 0) {
+                int bit = firstRow + row;
+                valid[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+}
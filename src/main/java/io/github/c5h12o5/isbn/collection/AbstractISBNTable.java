@@ -0,0 +1,358 @@
+package io.github.c5h12o5.isbn.collection;
+
+import io.github.c5h12o5.isbn.ISBNException;
+import io.github.c5h12o5.isbn.PackedISBN;
+
+import java.util.function.IntConsumer;
+
+/**
+ * This class is the base of the primitive ISBN collections, it is an open-addressing hash table with linear probing
+ * keyed by the numeric value of the normalized ISBN-13, which is never zero, so zero marks an empty slot.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+abstract class AbstractISBNTable {
+
+    /** The key of an empty slot. */
+    static final long EMPTY = 0L;
+
+    /** The key returned for an input which is not a valid ISBN code. */
+    static final long INVALID_KEY = -1L;
+
+    private static final long MAX_KEY = 9_999_999_999_999L;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final SlotStorage storage;
+    private final int valueWidth;
+
+    /** The keys and values of the slots, the values are {@code null} for a set. */
+    private Slots keys;
+    private Slots values;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    /**
+     * Create the table.
+     *
+     * @param expectedSize the expected number of keys
+     * @param storage      the storage of the slots
+     * @param valueWidth   the width of a value in bytes, or {@code 0} if there is no value
+     */
+    AbstractISBNTable(int expectedSize, SlotStorage storage, int valueWidth) {
+        this.storage = storage;
+        this.valueWidth = valueWidth;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Normalize the given ISBN code to the numeric value of ISBN-13 through {@link PackedISBN#parse(CharSequence)}.
+     *
+     * @param isbn the ISBN code to normalize
+     * @return the numeric value of ISBN-13, or {@link #INVALID_KEY} if the input is not a valid ISBN code
+     */
+    static long normalize(CharSequence isbn) {
+        long packed = PackedISBN.parse(isbn);
+        return (packed == PackedISBN.INVALID) ? INVALID_KEY : PackedISBN.isbn13(packed);
+    }
+
+    /**
+     * Get the number of keys.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if there is no key.
+     *
+     * @return {@code true} if there is no key, otherwise {@code false}
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all keys, the allocated slots are kept.
+     */
+    public void clear() {
+        keys.clear();
+        if (values != null) {
+            values.clear();
+        }
+        size = 0;
+    }
+
+    /**
+     * Check if the given ISBN code is in this collection.
+     *
+     * @param isbn the ISBN code to check
+     * @return {@code true} if the code is valid and in this collection, otherwise {@code false}
+     */
+    public boolean contains(CharSequence isbn) {
+        long key = normalize(isbn);
+        return key != INVALID_KEY && containsKey(key);
+    }
+
+    /**
+     * Check if the given ISBN-13 value is in this collection.
+     *
+     * @param isbn13 the numeric value of ISBN-13
+     * @return {@code true} if the key is in this collection, otherwise {@code false}
+     * @throws ISBNException if the key is not a 13-digit positive number
+     */
+    public boolean containsKey(long isbn13) {
+        return find(isbn13) >= 0;
+    }
+
+    /**
+     * Remove the given ISBN code from this collection.
+     *
+     * @param isbn the ISBN code to remove
+     * @return {@code true} if the code is valid and was in this collection, otherwise {@code false}
+     */
+    public boolean remove(CharSequence isbn) {
+        long key = normalize(isbn);
+        return key != INVALID_KEY && removeKey(key);
+    }
+
+    /**
+     * Remove the given ISBN-13 value from this collection.
+     *
+     * @param isbn13 the numeric value of ISBN-13
+     * @return {@code true} if the key was in this collection, otherwise {@code false}
+     * @throws ISBNException if the key is not a 13-digit positive number
+     */
+    public boolean removeKey(long isbn13) {
+        int index = find(isbn13);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Associate the given value with the given key, replacing the value if the key is present.
+     *
+     * @param key   the numeric value of ISBN-13
+     * @param value the value to associate
+     */
+    final void putValue(long key, long value) {
+        int index = find(key);
+        if (index >= 0) {
+            values.set(index, value);
+        } else {
+            insert(index, key, value);
+        }
+    }
+
+    /**
+     * Insert the given key with the given value if the key is absent.
+     *
+     * @param key   the numeric value of ISBN-13
+     * @param value the value of the key, ignored if there is no value
+     * @return {@code true} if the key is inserted, otherwise {@code false}
+     */
+    final boolean putValueIfAbsent(long key, long value) {
+        int index = find(key);
+        if (index >= 0) {
+            return false;
+        }
+        insert(index, key, value);
+        return true;
+    }
+
+    /**
+     * Get the value associated with the given key.
+     *
+     * @param key          the numeric value of ISBN-13
+     * @param defaultValue the value to return if the key is absent
+     * @return the associated value, or the default value
+     */
+    final long getValue(long key, long defaultValue) {
+        int index = find(key);
+        return (index >= 0) ? values.get(index) : defaultValue;
+    }
+
+    /**
+     * Perform the given action for the index of each occupied slot, in slot order.
+     *
+     * @param action the action receiving the slot index, which can be passed to {@link #keyAt(int)} and
+     *               {@link #valueAt(int)}
+     */
+    final void forEachSlot(IntConsumer action) {
+        int capacity = capacity();
+        for (int i = 0; i < capacity; i++) {
+            if (keys.get(i) != EMPTY) {
+                action.accept(i);
+            }
+        }
+    }
+
+    /**
+     * Find the slot of the given key.
+     *
+     * @param key the numeric value of ISBN-13
+     * @return the slot index if found, otherwise {@code -(insertion index) - 1}
+     */
+    private int find(long key) {
+        checkKey(key);
+        int index = hash(key) & mask;
+        while (true) {
+            long current = keys.get(index);
+            if (current == key) {
+                return index;
+            }
+            if (current == EMPTY) {
+                return -index - 1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Insert the given key into the empty slot returned by {@link #find(long)}.
+     *
+     * @param insertion the value returned by {@link #find(long)}
+     * @param key       the numeric value of ISBN-13
+     * @param value     the value of the key, ignored if there is no value
+     */
+    private void insert(int insertion, long key, long value) {
+        int index = -insertion - 1;
+        keys.set(index, key);
+        if (values != null) {
+            values.set(index, value);
+        }
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Remove the key at the given slot, the following keys of the same cluster are shifted back.
+     *
+     * @param index the slot index
+     */
+    private void removeAt(int index) {
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (true) {
+            long key = keys.get(next);
+            if (key == EMPTY) {
+                break;
+            }
+            // move the key into the hole if its home slot is not between the hole and its current slot
+            int home = hash(key) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys.set(hole, key);
+                if (values != null) {
+                    values.set(hole, values.get(next));
+                }
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys.set(hole, EMPTY);
+        if (values != null) {
+            values.set(hole, 0L);
+        }
+        size--;
+    }
+
+    /**
+     * Get the number of slots.
+     *
+     * @return the number of slots
+     */
+    private int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Get the key at the given slot.
+     *
+     * @param index the slot index
+     * @return the key, or {@link #EMPTY} if the slot is empty
+     */
+    final long keyAt(int index) {
+        return keys.get(index);
+    }
+
+    /**
+     * Get the value at the given slot.
+     *
+     * @param index the slot index
+     * @return the value
+     */
+    final long valueAt(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * Double the number of slots and rehash all keys.
+     */
+    private void resize() {
+        int oldCapacity = capacity();
+        if (oldCapacity >= MAX_CAPACITY) {
+            throw new ISBNException("Too many keys: " + size);
+        }
+        Slots oldKeys = keys;
+        Slots oldValues = values;
+        allocate(oldCapacity << 1);
+        for (int i = 0; i < oldCapacity; i++) {
+            long key = oldKeys.get(i);
+            if (key != EMPTY) {
+                int index = hash(key) & mask;
+                while (keys.get(index) != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys.set(index, key);
+                if (values != null) {
+                    values.set(index, oldValues.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Allocate the empty slots.
+     *
+     * @param capacity the number of slots, it must be a power of two
+     */
+    private void allocate(int capacity) {
+        keys = storage.allocate(capacity, Slots.LONG_WIDTH);
+        values = (valueWidth > 0) ? storage.allocate(capacity, valueWidth) : null;
+        mask = capacity - 1;
+        threshold = capacity / 4 * 3;
+    }
+
+    /**
+     * Get the number of slots for the expected number of keys, so that the load factor is at most 0.75.
+     *
+     * @param expectedSize the expected number of keys
+     * @return the number of slots, a power of two
+     */
+    private static int capacityFor(int expectedSize) {
+        long required = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+        if (required > MAX_CAPACITY) {
+            throw new ISBNException("Expected size is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static void checkKey(long key) {
+        if (key <= EMPTY || key > MAX_KEY) {
+            throw new ISBNException("Invalid ISBN-13 key: " + key);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.c5h12o5.isbn.collection;
+
+import io.github.c5h12o5.isbn.ISBNStreams;
+import io.github.c5h12o5.isbn.PackedISBN;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * This class provides the {@link Collector}s which normalize the ISBN codes of a stream and collect them into the
+ * primitive ISBN collections, the invalid codes are dropped.
+ * <p>
+ * The codes are parsed against the range cache loaded when the collector is created, and a parallel stream fills a
+ * set for each of its threads, which are merged into the larger one at the end.
+ *
+ * <pre>
+ * ISBNSet distinct = codes.parallelStream().collect(ISBNCollectors.toISBNSet());
+ * </pre>
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class ISBNCollectors {
+
+    private ISBNCollectors() {
+    }
+
+    /**
+     * Get a collector which collects the distinct ISBN codes into a new {@link ISBNSet} on the heap.
+     *
+     * @return the collector
+     */
+    public static Collector<CharSequence, ?, ISBNSet> toISBNSet() {
+        return toISBNSet(ISBNSet::new);
+    }
+
+    /**
+     * Get a collector which collects the distinct ISBN codes into the sets created by the given factory, which may be
+     * called once for each thread of a parallel stream.
+     *
+     * @param factory the factory of the empty sets, such as one on a direct storage
+     * @return the collector
+     */
+    public static Collector<CharSequence, ?, ISBNSet> toISBNSet(Supplier<ISBNSet> factory) {
+        ToLongFunction<CharSequence> parser = ISBNStreams.toPacked();
+        return Collector.of(factory, (set, code) -> {
+            long packed = parser.applyAsLong(code);
+            if (packed != PackedISBN.INVALID) {
+                set.addKey(PackedISBN.isbn13(packed));
+            }
+        }, ISBNCollectors::merge, Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Merge the smaller one of the given sets into the larger one.
+     *
+     * @param a a set
+     * @param b another set
+     * @return the merged set
+     */
+    private static ISBNSet merge(ISBNSet a, ISBNSet b) {
+        if (a.size() < b.size()) {
+            b.addAll(a);
+            return b;
+        }
+        a.addAll(b);
+        return a;
+    }
+}
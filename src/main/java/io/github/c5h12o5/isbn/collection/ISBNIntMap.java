@@ -0,0 +1,140 @@
+package io.github.c5h12o5.isbn.collection;
+
+/**
+ * This class is a map from ISBN codes to {@code int} values without boxing, the codes are normalized to the numeric
+ * value of ISBN-13, so the ISBN-10, ISBN-13 and hyphenated forms of the same book are the same key.
+ * <p>
+ * Each entry takes 12 bytes of slot storage, and the slots can be kept outside the Java heap by
+ * {@link SlotStorage#direct()} or {@link SlotStorage#mapped(java.nio.channels.FileChannel)}. The instance is not
+ * thread-safe.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class ISBNIntMap extends AbstractISBNTable {
+
+    /**
+     * The callback receiving the entries of the map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        /**
+         * Accept an entry of the map.
+         *
+         * @param isbn13 the numeric value of ISBN-13
+         * @param value  the value of the key
+         */
+        void accept(long isbn13, int value);
+    }
+
+    /**
+     * Create an empty map on the heap.
+     */
+    public ISBNIntMap() {
+        this(0);
+    }
+
+    /**
+     * Create an empty map on the heap.
+     *
+     * @param expectedSize the expected number of keys
+     */
+    public ISBNIntMap(int expectedSize) {
+        this(expectedSize, SlotStorage.heap());
+    }
+
+    /**
+     * Create an empty map on the given storage.
+     *
+     * @param expectedSize the expected number of keys
+     * @param storage      the storage of the slots
+     */
+    public ISBNIntMap(int expectedSize, SlotStorage storage) {
+        super(expectedSize, storage, Slots.INT_WIDTH);
+    }
+
+    /**
+     * Associate the given value with the given ISBN code.
+     *
+     * @param isbn  the ISBN code
+     * @param value the value to associate
+     * @return {@code true} if the code is valid, otherwise {@code false}
+     */
+    public boolean put(CharSequence isbn, int value) {
+        long key = normalize(isbn);
+        if (key == INVALID_KEY) {
+            return false;
+        }
+        putKey(key, value);
+        return true;
+    }
+
+    /**
+     * Associate the given value with the given ISBN-13 value.
+     *
+     * @param isbn13 the numeric value of ISBN-13
+     * @param value  the value to associate
+     * @throws io.github.c5h12o5.isbn.ISBNException if the key is not a 13-digit positive number
+     */
+    public void putKey(long isbn13, int value) {
+        putValue(isbn13, value);
+    }
+
+    /**
+     * Associate the given value with the given ISBN code if the code is not in this map yet.
+     *
+     * @param isbn  the ISBN code
+     * @param value the value to associate
+     * @return {@code true} if the code is valid and the value is associated, otherwise {@code false}
+     */
+    public boolean putIfAbsent(CharSequence isbn, int value) {
+        long key = normalize(isbn);
+        return key != INVALID_KEY && putKeyIfAbsent(key, value);
+    }
+
+    /**
+     * Associate the given value with the given ISBN-13 value if the key is not in this map yet.
+     *
+     * @param isbn13 the numeric value of ISBN-13
+     * @param value  the value to associate
+     * @return {@code true} if the value is associated, otherwise {@code false}
+     * @throws io.github.c5h12o5.isbn.ISBNException if the key is not a 13-digit positive number
+     */
+    public boolean putKeyIfAbsent(long isbn13, int value) {
+        return putValueIfAbsent(isbn13, value);
+    }
+
+    /**
+     * Get the value associated with the given ISBN code.
+     *
+     * @param isbn         the ISBN code
+     * @param defaultValue the value to return if the code is invalid or not in this map
+     * @return the associated value, or the default value
+     */
+    public int get(CharSequence isbn, int defaultValue) {
+        long key = normalize(isbn);
+        return (key == INVALID_KEY) ? defaultValue : getKey(key, defaultValue);
+    }
+
+    /**
+     * Get the value associated with the given ISBN-13 value.
+     *
+     * @param isbn13       the numeric value of ISBN-13
+     * @param defaultValue the value to return if the key is not in this map
+     * @return the associated value, or the default value
+     * @throws io.github.c5h12o5.isbn.ISBNException if the key is not a 13-digit positive number
+     */
+    public int getKey(long isbn13, int defaultValue) {
+        return (int) getValue(isbn13, defaultValue);
+    }
+
+    /**
+     * Perform the given action for each entry in this map, in no particular order.
+     *
+     * @param action the action to perform
+     */
+    public void forEach(EntryConsumer action) {
+        forEachSlot(index -> action.accept(keyAt(index), (int) valueAt(index)));
+    }
+}
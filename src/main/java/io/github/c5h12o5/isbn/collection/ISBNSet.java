@@ -0,0 +1,86 @@
+package io.github.c5h12o5.isbn.collection;
+
+import java.util.function.LongConsumer;
+
+/**
+ * This class is a set of ISBN codes without boxing, the codes are normalized to the numeric value of ISBN-13, so the
+ * ISBN-10, ISBN-13 and hyphenated forms of the same book are the same key.
+ * <p>
+ * Each key takes 8 bytes of slot storage (about 11 bytes per key at the max load factor), and the slots can be kept
+ * outside the Java heap by {@link SlotStorage#direct()} or {@link SlotStorage#mapped(java.nio.channels.FileChannel)}.
+ * The instance is not thread-safe.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class ISBNSet extends AbstractISBNTable {
+
+    /**
+     * Create an empty set on the heap.
+     */
+    public ISBNSet() {
+        this(0);
+    }
+
+    /**
+     * Create an empty set on the heap.
+     *
+     * @param expectedSize the expected number of keys
+     */
+    public ISBNSet(int expectedSize) {
+        this(expectedSize, SlotStorage.heap());
+    }
+
+    /**
+     * Create an empty set on the given storage.
+     *
+     * @param expectedSize the expected number of keys
+     * @param storage      the storage of the slots
+     */
+    public ISBNSet(int expectedSize, SlotStorage storage) {
+        super(expectedSize, storage, 0);
+    }
+
+    /**
+     * Add the given ISBN code to this set.
+     *
+     * @param isbn the ISBN code to add
+     * @return {@code true} if the code is valid and not in this set yet, otherwise {@code false}
+     */
+    public boolean add(CharSequence isbn) {
+        long key = normalize(isbn);
+        return key != INVALID_KEY && addKey(key);
+    }
+
+    /**
+     * Add the given ISBN-13 value to this set.
+     *
+     * @param isbn13 the numeric value of ISBN-13
+     * @return {@code true} if the value is not in this set yet, otherwise {@code false}
+     * @throws io.github.c5h12o5.isbn.ISBNException if the value is not a 13-digit positive number
+     */
+    public boolean addKey(long isbn13) {
+        return putValueIfAbsent(isbn13, 0L);
+    }
+
+    /**
+     * Add all ISBN-13 values of the given set to this set.
+     *
+     * @param other the set whose values are added
+     * @return {@code true} if this set is changed, otherwise {@code false}
+     */
+    public boolean addAll(ISBNSet other) {
+        int oldSize = size();
+        other.forEach(this::addKey);
+        return size() != oldSize;
+    }
+
+    /**
+     * Perform the given action for each ISBN-13 value in this set, in no particular order.
+     *
+     * @param action the action to perform
+     */
+    public void forEach(LongConsumer action) {
+        forEachSlot(index -> action.accept(keyAt(index)));
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.c5h12o5.isbn.collection;
+
+import io.github.c5h12o5.isbn.ISBNException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class decides where the slots of the primitive ISBN collections are stored: on the Java heap, in direct
+ * (off-heap) memory, or in a memory-mapped file.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public abstract class SlotStorage {
+
+    private static final SlotStorage HEAP = new SlotStorage() {
+        @Override
+        Slots allocate(int length, int width) {
+            return (width == Slots.LONG_WIDTH) ? new Slots.LongArraySlots(length) : new Slots.IntArraySlots(length);
+        }
+    };
+
+    private static final SlotStorage DIRECT = new BufferStorage() {
+        @Override
+        ByteBuffer allocateSegment(int size) {
+            return ByteBuffer.allocateDirect(size);
+        }
+    };
+
+    SlotStorage() {
+    }
+
+    /**
+     * Get the storage which keeps the slots in heap arrays.
+     *
+     * @return the heap storage
+     */
+    public static SlotStorage heap() {
+        return HEAP;
+    }
+
+    /**
+     * Get the storage which keeps the slots in direct byte buffers, so the slots are outside the Java heap and are
+     * not scanned by the garbage collector.
+     *
+     * @return the direct storage
+     */
+    public static SlotStorage direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Create a storage which keeps the slots in the given file, each allocation maps a new region after the regions
+     * allocated before, starting at the end of the file when the storage is created. The regions of the replaced slots
+     * are not reclaimed, so it is recommended to create the collection with the expected size to avoid resizing.
+     * <p>
+     * The storage can be shared by several collections, even across threads, but the file must not be shared with
+     * another mapped storage, otherwise their regions will overlap.
+     *
+     * @param channel the file channel opened for reading and writing, it is not closed by the storage
+     * @return the mapped storage
+     * @throws ISBNException if the size of the file cannot be read
+     */
+    public static SlotStorage mapped(FileChannel channel) {
+        try {
+            return new MappedStorage(channel, channel.size());
+        } catch (IOException e) {
+            throw new ISBNException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Allocate the zero-filled slots.
+     *
+     * @param length the number of slots
+     * @param width  the width of a slot in bytes
+     * @return the allocated slots
+     */
+    abstract Slots allocate(int length, int width);
+
+    /**
+     * The storage which keeps the slots in byte buffers, each buffer holds a segment of slots.
+     */
+    abstract static class BufferStorage extends SlotStorage {
+
+        @Override
+        Slots allocate(int length, int width) {
+            int segmentLength = 1 << Slots.BufferSlots.SEGMENT_SHIFT;
+            ByteBuffer[] segments = new ByteBuffer[(length + segmentLength - 1) / segmentLength];
+            for (int i = 0; i < segments.length; i++) {
+                int slots = Math.min(segmentLength, length - i * segmentLength);
+                segments[i] = allocateSegment(slots * width).order(ByteOrder.nativeOrder());
+            }
+            return new Slots.BufferSlots(segments, width);
+        }
+
+        /**
+         * Allocate a zero-filled buffer for a segment of slots.
+         *
+         * @param size the size of the buffer in bytes
+         * @return the allocated buffer
+         */
+        abstract ByteBuffer allocateSegment(int size);
+    }
+
+    /**
+     * The storage which maps the regions of a file one after another.
+     */
+    private static final class MappedStorage extends BufferStorage {
+        private final FileChannel channel;
+
+        /** The offset of the next region in the file, guarded by this storage. */
+        private long position;
+
+        private MappedStorage(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        @Override
+        synchronized ByteBuffer allocateSegment(int size) {
+            try {
+                // the newly mapped region beyond the end of the file is zero-filled
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+                position += size;
+                return buffer;
+            } catch (IOException e) {
+                throw new ISBNException(e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.c5h12o5.isbn.collection;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This class represents a fixed-size array of primitive slots, which is backed by a heap array or by byte buffers.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+abstract class Slots {
+
+    /** The width of a long slot in bytes. */
+    static final int LONG_WIDTH = Long.BYTES;
+
+    /** The width of an int slot in bytes. */
+    static final int INT_WIDTH = Integer.BYTES;
+
+    /**
+     * Get the value of the slot at the given index.
+     *
+     * @param index the slot index
+     * @return the slot value
+     */
+    abstract long get(int index);
+
+    /**
+     * Set the value of the slot at the given index.
+     *
+     * @param index the slot index
+     * @param value the slot value
+     */
+    abstract void set(int index, long value);
+
+    /**
+     * Set all slots to zero.
+     */
+    abstract void clear();
+
+    /**
+     * The slots backed by a heap long array.
+     */
+    static final class LongArraySlots extends Slots {
+        private final long[] array;
+
+        LongArraySlots(int length) {
+            this.array = new long[length];
+        }
+
+        @Override
+        long get(int index) {
+            return array[index];
+        }
+
+        @Override
+        void set(int index, long value) {
+            array[index] = value;
+        }
+
+        @Override
+        void clear() {
+            Arrays.fill(array, 0L);
+        }
+    }
+
+    /**
+     * The slots backed by a heap int array.
+     */
+    static final class IntArraySlots extends Slots {
+        private final int[] array;
+
+        IntArraySlots(int length) {
+            this.array = new int[length];
+        }
+
+        @Override
+        long get(int index) {
+            return array[index];
+        }
+
+        @Override
+        void set(int index, long value) {
+            array[index] = (int) value;
+        }
+
+        @Override
+        void clear() {
+            Arrays.fill(array, 0);
+        }
+    }
+
+    /**
+     * The slots backed by byte buffers, each buffer holds a segment of {@code 2^SEGMENT_SHIFT} slots, so that the
+     * slots are not limited by the 2GB size of a single buffer.
+     */
+    static final class BufferSlots extends Slots {
+
+        /** The log2 of the number of slots in a segment. */
+        static final int SEGMENT_SHIFT = 26;
+        private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+        private final ByteBuffer[] segments;
+        private final int width;
+
+        /**
+         * Create the slots on the given segments.
+         *
+         * @param segments the zero-filled buffers, each one except the last must hold {@code 2^SEGMENT_SHIFT} slots
+         * @param width    the width of a slot in bytes
+         */
+        BufferSlots(ByteBuffer[] segments, int width) {
+            this.segments = segments;
+            this.width = width;
+        }
+
+        @Override
+        long get(int index) {
+            ByteBuffer segment = segments[index >>> SEGMENT_SHIFT];
+            int offset = (index & SEGMENT_MASK) * width;
+            return (width == LONG_WIDTH) ? segment.getLong(offset) : segment.getInt(offset);
+        }
+
+        @Override
+        void set(int index, long value) {
+            ByteBuffer segment = segments[index >>> SEGMENT_SHIFT];
+            int offset = (index & SEGMENT_MASK) * width;
+            if (width == LONG_WIDTH) {
+                segment.putLong(offset, value);
+            } else {
+                segment.putInt(offset, (int) value);
+            }
+        }
+
+        @Override
+        void clear() {
+            for (ByteBuffer segment : segments) {
+                for (int offset = 0; offset < segment.capacity(); offset += LONG_WIDTH) {
+                    segment.putLong(offset, 0L);
+                }
+            }
+        }
+    }
+}
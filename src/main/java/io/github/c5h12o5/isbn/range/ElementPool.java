@@ -0,0 +1,195 @@
+package io.github.c5h12o5.isbn.range;
+
+import io.github.c5h12o5.isbn.ISBNException;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class hands out the canonical instances of the GS1 prefix, registration group and registrant elements, so that
+ * the ISBN objects parsed against the same ranges share them instead of holding their own copies.
+ * <p>
+ * The GS1 prefixes and registration groups are bounded by the ranges, so all of them are created while compiling. The
+ * registrants are only bounded by the ranges of each registration group, which may cover millions of numbers, so
+ * they are kept in a fixed-size table where a new element replaces the one in its slot. The table is read and written
+ * without locking, which is safe since the entries are immutable, a lost update only creates an extra copy.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+final class ElementPool {
+
+    private static final int GS1_PREFIX_LENGTH = 3;
+    private static final int REGISTRANT_SLOT_BITS = 13;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /** The powers of ten from 10^0 to 10^12. */
+    private static final long[] POW10 = new long[RangeTable.ISBN_12_LENGTH + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    /** The sorted prefix keys of the GS1 prefixes. */
+    private final int[] gs1PrefixKeys;
+    private final String[] gs1Prefixes;
+
+    /** The sorted prefix keys of the GS1 prefixes followed by the registration groups. */
+    private final int[] groupKeys;
+    private final String[] groups;
+
+    /** The recently used registrants, indexed by the hash of their keys. */
+    private final Entry[] registrants = new Entry[1 << REGISTRANT_SLOT_BITS];
+
+    private ElementPool(int[] gs1PrefixKeys, String[] gs1Prefixes, int[] groupKeys, String[] groups) {
+        this.gs1PrefixKeys = gs1PrefixKeys;
+        this.gs1Prefixes = gs1Prefixes;
+        this.groupKeys = groupKeys;
+        this.groups = groups;
+    }
+
+    /**
+     * Create the pool of the elements in the given ranges maps.
+     *
+     * @param registrationGroupRanges the registration group ranges keyed by the digits of the GS1 prefix
+     * @param registrantRanges        the registrant ranges keyed by the digits of the GS1 prefix and registration group
+     * @return the element pool
+     */
+    static ElementPool create(Map<String, ?> registrationGroupRanges, Map<String, ?> registrantRanges) {
+        Map<Integer, String> gs1Prefixes = new TreeMap<>();
+        for (String prefix : registrationGroupRanges.keySet()) {
+            put(gs1Prefixes, prefix, 0);
+        }
+        Map<Integer, String> groups = new TreeMap<>();
+        for (String prefix : registrantRanges.keySet()) {
+            if (prefix.length() > GS1_PREFIX_LENGTH) {
+                put(groups, prefix, GS1_PREFIX_LENGTH);
+            }
+        }
+        return new ElementPool(keys(gs1Prefixes), gs1Prefixes.values().toArray(new String[0]), keys(groups),
+            groups.values().toArray(new String[0]));
+    }
+
+    /**
+     * Get the GS1 prefix element of the given ISBN.
+     *
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @return the GS1 prefix element
+     */
+    String gs1Prefix(long isbn12) {
+        return find(gs1PrefixKeys, gs1Prefixes, isbn12, 0, GS1_PREFIX_LENGTH);
+    }
+
+    /**
+     * Get the registration group element of the given ISBN.
+     *
+     * @param isbn12      the numeric value of the first 12-digits of ISBN
+     * @param groupLength the length of the registration group element
+     * @return the registration group element
+     */
+    String registrationGroup(long isbn12, int groupLength) {
+        return find(groupKeys, groups, isbn12, GS1_PREFIX_LENGTH, GS1_PREFIX_LENGTH + groupLength);
+    }
+
+    /**
+     * Get the registrant element of the given ISBN.
+     *
+     * @param isbn12           the numeric value of the first 12-digits of ISBN
+     * @param groupLength      the length of the registration group element
+     * @param registrantLength the length of the registrant element
+     * @return the registrant element
+     */
+    String registrant(long isbn12, int groupLength, int registrantLength) {
+        int start = GS1_PREFIX_LENGTH + groupLength;
+        int end = start + registrantLength;
+        checkRange(start, end);
+
+        // the digits up to the end of the registrant start with the GS1 prefix, so their value is unique per length
+        long key = isbn12 / POW10[RangeTable.ISBN_12_LENGTH - end] << 4 | end;
+        int slot = (int) ((key * HASH_MULTIPLIER) >>> (Long.SIZE - REGISTRANT_SLOT_BITS));
+        Entry entry = registrants[slot];
+        if (entry != null && entry.key == key) {
+            return entry.element;
+        }
+        String element = digits(isbn12, start, end);
+        registrants[slot] = new Entry(key, element);
+        return element;
+    }
+
+    /**
+     * Find the element in the given digits of the ISBN, a new instance is created if it is not in the pool.
+     *
+     * @param keys     the sorted prefix keys of the pooled elements
+     * @param elements the pooled elements
+     * @param isbn12   the numeric value of the first 12-digits of ISBN
+     * @param start    the index of the first digit of the element
+     * @param end      the index after the last digit of the element
+     * @return the element
+     */
+    private static String find(int[] keys, String[] elements, long isbn12, int start, int end) {
+        checkRange(start, end);
+        if (end <= RangeTable.MAX_PREFIX_LENGTH) {
+            int key = RangeTable.prefixKey(isbn12 / POW10[RangeTable.ISBN_12_LENGTH - end], end);
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return elements[index];
+            }
+        }
+        return digits(isbn12, start, end);
+    }
+
+    /**
+     * Create the string of the given digits of the ISBN.
+     *
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @param start  the index of the first digit
+     * @param end    the index after the last digit
+     * @return the digits string
+     */
+    private static String digits(long isbn12, int start, int end) {
+        char[] chars = new char[end - start];
+        long value = isbn12 / POW10[RangeTable.ISBN_12_LENGTH - end];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(chars);
+    }
+
+    private static void checkRange(int start, int end) {
+        if (start > end || end > RangeTable.ISBN_12_LENGTH) {
+            throw new ISBNException("Invalid element range: " + start + ", " + end);
+        }
+    }
+
+    /**
+     * Put the element after the given number of digits of the prefix, keyed by the encoded prefix.
+     */
+    private static void put(Map<Integer, String> elements, String prefix, int start) {
+        int key = RangeTable.prefixKey(prefix);
+        if (key != RangeTable.NO_PREFIX) {
+            elements.put(key, prefix.substring(start));
+        }
+    }
+
+    private static int[] keys(Map<Integer, String> elements) {
+        return elements.keySet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * A registrant element with the key of its digits.
+     */
+    private static final class Entry {
+        private final long key;
+        private final String element;
+
+        Entry(long key, String element) {
+            this.key = key;
+            this.element = element;
+        }
+    }
+}
@@ -27,6 +27,25 @@ public class Range implements Serializable {
     /** The length of the element in the range. */
     private int length;
 
+    /**
+     * Create an empty range, the numbers and the length are set by the setters.
+     */
+    public Range() {
+    }
+
+    /**
+     * Create a range with the given numbers and length.
+     *
+     * @param start  the start number of the range
+     * @param end    the end number of the range
+     * @param length the element length
+     */
+    Range(int start, int end, int length) {
+        this.start = start;
+        this.end = end;
+        this.length = length;
+    }
+
     /**
      * Set the start and end number of the range.
      *
@@ -50,6 +69,24 @@ public class Range implements Serializable {
         this.length = parseInt(length);
     }
 
+    /**
+     * Get the start number of the range.
+     *
+     * @return the start number
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Get the end number of the range.
+     *
+     * @return the end number
+     */
+    public int getEnd() {
+        return end;
+    }
+
     /**
      * Get the length of the element in the range.
      *
@@ -0,0 +1,260 @@
+package io.github.c5h12o5.isbn.range;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class is a deterministic automaton compiled from the registration group and registrant rules, which consumes
+ * the first 12-digits of ISBN from left to right and finds the lengths of both elements in a single pass.
+ * <p>
+ * Each state is a row of 10 transitions indexed by the next digit, so a step is a single array access. A transition
+ * is either the offset of the next row, {@link #REJECT}, or the complement of the element lengths if they are known
+ * after the digit. The identical rows are shared while compiling, which keeps the automaton small since most rules
+ * are aligned to the element boundaries.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+final class RangeAutomaton {
+
+    /** The lookup result if either element is not found. */
+    static final int NOT_FOUND = -1;
+
+    private static final int RADIX = 10;
+    private static final int REJECT = 0;
+    private static final int GS1_PREFIX_LENGTH = 3;
+    private static final int HALF_LENGTH = RangeTable.ISBN_12_LENGTH / 2;
+    private static final int HALF_BOUND = 1_000_000;
+    private static final int HALF_TOP = HALF_BOUND / RADIX;
+    private static final long ISBN_12_BOUND = (long) HALF_BOUND * HALF_BOUND;
+
+    /** The powers of ten from 10^0 to 10^12. */
+    private static final long[] POW10 = new long[RangeTable.ISBN_12_LENGTH + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * RADIX;
+        }
+    }
+
+    /** The transitions of all states, the first row is the dead state. */
+    private final int[] transitions;
+
+    /** The offset of the row of the start state. */
+    private final int start;
+
+    private RangeAutomaton(int[] transitions, int start) {
+        this.transitions = transitions;
+        this.start = start;
+    }
+
+    /**
+     * Compile the given lookup tables into an automaton.
+     *
+     * @param groupTable      the lookup table of the registration group ranges
+     * @param registrantTable the lookup table of the registrant ranges
+     * @return the compiled automaton
+     */
+    static RangeAutomaton compile(RangeTable groupTable, RangeTable registrantTable) {
+        return new Compiler(groupTable, registrantTable).compile();
+    }
+
+    /**
+     * Find the lengths of the registration group and registrant elements, the results are the same as
+     * {@link RangeTable#find(long, int)} for the registration group followed by the registrant.
+     *
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @return the registration group length in the bits 4-7 and the registrant length in the bits 0-3, or
+     * {@link #NOT_FOUND} if either element is not found or the elements are longer than the ISBN
+     */
+    int find(long isbn12) {
+        if (isbn12 < 0 || isbn12 >= ISBN_12_BOUND) {
+            return NOT_FOUND;
+        }
+
+        // consume the digits of each half from the most significant one
+        int state = start;
+        int value = (int) (isbn12 / HALF_BOUND);
+        for (int i = 0; i < RangeTable.ISBN_12_LENGTH; i++) {
+            if (i == HALF_LENGTH) {
+                value = (int) (isbn12 % HALF_BOUND);
+            }
+            int digit = value / HALF_TOP;
+            value = (value - digit * HALF_TOP) * RADIX;
+            int next = transitions[state + digit];
+            if (next <= REJECT) {
+                return (next < REJECT) ? ~next : NOT_FOUND;
+            }
+            state = next;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Get the number of states, including the dead state.
+     *
+     * @return the number of states
+     */
+    int stateCount() {
+        return transitions.length / RADIX;
+    }
+
+    /**
+     * This class builds the automaton by walking the digits depth first, the rows of the states are created after
+     * their successors, so that the identical rows can be shared.
+     */
+    private static final class Compiler {
+
+        private final RangeTable groupTable;
+        private final RangeTable registrantTable;
+        private final Map<Row, Integer> rows = new HashMap<>();
+        private int[] transitions = new int[RADIX * 1024];
+        private int size = RADIX;
+
+        Compiler(RangeTable groupTable, RangeTable registrantTable) {
+            this.groupTable = groupTable;
+            this.registrantTable = registrantTable;
+        }
+
+        /**
+         * Compile the automaton from the start state.
+         *
+         * @return the compiled automaton
+         */
+        RangeAutomaton compile() {
+            int start = resolve(0, 0, 0);
+            return new RangeAutomaton(Arrays.copyOf(transitions, size), Math.max(start, REJECT));
+        }
+
+        /**
+         * Resolve the transition to the state after the given digits.
+         *
+         * @param digits      the numeric value of the consumed digits
+         * @param depth       the number of the consumed digits
+         * @param groupLength the length of the registration group element, {@code 0} if not known yet
+         * @return the transition to the state
+         */
+        private int resolve(long digits, int depth, int groupLength) {
+            if (depth < GS1_PREFIX_LENGTH) {
+                return expand(digits, depth, 0);
+            }
+            if (groupLength == 0) {
+                int length = cover(groupTable, digits, depth, GS1_PREFIX_LENGTH);
+                if (length == RangeTable.MIXED_RANGES) {
+                    return expand(digits, depth, 0);
+                }
+                if (length <= 0) {
+                    return REJECT;
+                }
+                groupLength = length;
+            }
+
+            // the registrant rules are keyed by the GS1 prefix and the registration group element
+            int prefixLength = GS1_PREFIX_LENGTH + groupLength;
+            if (prefixLength > RangeTable.MAX_PREFIX_LENGTH) {
+                return REJECT;
+            }
+            if (depth < prefixLength) {
+                return expand(digits, depth, groupLength);
+            }
+            int length = cover(registrantTable, digits, depth, prefixLength);
+            if (length == RangeTable.MIXED_RANGES) {
+                return expand(digits, depth, groupLength);
+            }
+            if (length <= 0 || prefixLength + length > RangeTable.ISBN_12_LENGTH) {
+                return REJECT;
+            }
+            return ~(groupLength << 4 | length);
+        }
+
+        /**
+         * Create the state after the given digits, whose successors depend on the next digit.
+         *
+         * @param digits      the numeric value of the consumed digits
+         * @param depth       the number of the consumed digits
+         * @param groupLength the length of the registration group element, {@code 0} if not known yet
+         * @return the transition to the state
+         */
+        private int expand(long digits, int depth, int groupLength) {
+            int[] row = new int[RADIX];
+            boolean dead = true;
+            for (int digit = 0; digit < RADIX; digit++) {
+                row[digit] = resolve(digits * RADIX + digit, depth + 1, groupLength);
+                dead &= (row[digit] == REJECT);
+            }
+            return dead ? REJECT : intern(row);
+        }
+
+        /**
+         * Find the row offset of the given transitions, the row is appended if it does not exist.
+         *
+         * @param row the transitions of a state
+         * @return the row offset
+         */
+        private int intern(int[] row) {
+            Row key = new Row(row);
+            Integer offset = rows.get(key);
+            if (offset != null) {
+                return offset;
+            }
+            if (size + RADIX > transitions.length) {
+                transitions = Arrays.copyOf(transitions, transitions.length * 2);
+            }
+            System.arraycopy(row, 0, transitions, size, RADIX);
+            rows.put(key, size);
+            size += RADIX;
+            return size - RADIX;
+        }
+
+        /**
+         * Find the length of the element after the given prefix, which is the same for all numbers starting with the
+         * consumed digits after the prefix.
+         *
+         * @param table        the lookup table of the element
+         * @param digits       the numeric value of the consumed digits
+         * @param depth        the number of the consumed digits
+         * @param prefixLength the length of the prefix before the element
+         * @return the element length, or a result of {@link RangeTable#cover(int, int, int)} otherwise
+         */
+        private static int cover(RangeTable table, long digits, int depth, int prefixLength) {
+            int consumed = depth - prefixLength;
+            int prefixKey = RangeTable.prefixKey(digits / POW10[consumed], prefixLength);
+            long number = digits % POW10[consumed];
+            int numberLength = Range.RANGE_STR_LENGTH;
+            if (consumed >= numberLength) {
+                int low = (int) (number / POW10[consumed - numberLength]);
+                return table.cover(prefixKey, low, low);
+            }
+
+            // the digits after the 12-digits of ISBN are padded with zeros
+            int low = (int) (number * POW10[numberLength - consumed]);
+            int high = (depth == RangeTable.ISBN_12_LENGTH) ? low : low + (int) POW10[numberLength - consumed] - 1;
+            return table.cover(prefixKey, low, high);
+        }
+    }
+
+    /**
+     * The transitions of a state used as a map key.
+     */
+    private static final class Row {
+        private final int[] transitions;
+        private final int hash;
+
+        Row(int[] transitions) {
+            this.transitions = transitions;
+            this.hash = Arrays.hashCode(transitions);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Row && Arrays.equals(transitions, ((Row) o).transitions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,36 +1,99 @@
 package io.github.c5h12o5.isbn.range;
 
+import io.github.c5h12o5.isbn.ISBNException;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * This class is used to store and manage ranges of ISBN registration groups and registrants.
+ * <p>
+ * The range cache is immutable since 1.1.0, it is created by a {@link Builder} and can be shared between threads
+ * without synchronization.
+ * <p>
+ * Since 1.1.0 the range cache is serialized in a compact form holding the compiled lookup tables, which is also
+ * written and read by {@link #writeTo(DataOutput)} and {@link #readFrom(DataInput)} without Java serialization.
  *
  * @author c5h12o5
  * @since 1.0.0
  */
-public class RangeCache implements Serializable {
+public final class RangeCache implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private static final String EMPTY = "";
     private static final String HYPHEN = "-";
+    private static final int GS1_PREFIX_LENGTH = 3;
+    private static final long ISBN_12_BOUND = 1_000_000_000_000L;
+    private static final byte FORMAT_VERSION = 1;
+    private static final long NO_MESSAGE_DATE = Long.MIN_VALUE;
     private static final DateTimeFormatter DTF = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss z", Locale.US);
 
     /** The message date is the date the range file was last updated. */
-    private LocalDateTime messageDate;
+    private final LocalDateTime messageDate;
 
     /** The registration group ranges are the ranges of numbers assigned to each registration group. */
-    private final Map<String, List<Range>> registrationGroupRanges = new HashMap<>();
+    private final Map<String, List<Range>> registrationGroupRanges;
 
     /** The registrant ranges are the ranges of numbers assigned to each registrant. */
-    private final Map<String, List<Range>> registrantRanges = new HashMap<>();
+    private final Map<String, List<Range>> registrantRanges;
+
+    /** The compiled lookup table of the registration group ranges. */
+    private final transient RangeTable registrationGroupTable;
+
+    /** The compiled lookup table of the registrant ranges. */
+    private final transient RangeTable registrantTable;
+
+    /** The automaton compiled from both lookup tables to find the element lengths in a single pass. */
+    private final transient RangeAutomaton automaton;
+
+    /** The canonical instances of the elements shared by the ISBN objects parsed against this range cache. */
+    private final transient ElementPool elementPool;
+
+    private RangeCache(LocalDateTime messageDate, Map<String, List<Range>> registrationGroupRanges,
+                       Map<String, List<Range>> registrantRanges) {
+        this.messageDate = messageDate;
+        this.registrationGroupRanges = freeze(registrationGroupRanges);
+        this.registrantRanges = freeze(registrantRanges);
+        this.registrationGroupTable = RangeTable.compile(this.registrationGroupRanges);
+        this.registrantTable = RangeTable.compile(this.registrantRanges);
+        this.automaton = RangeAutomaton.compile(registrationGroupTable, registrantTable);
+        this.elementPool = ElementPool.create(this.registrationGroupRanges, this.registrantRanges);
+    }
+
+    private RangeCache(LocalDateTime messageDate, RangeTable registrationGroupTable, RangeTable registrantTable) {
+        this.messageDate = messageDate;
+        this.registrationGroupRanges = registrationGroupTable.toRanges();
+        this.registrantRanges = registrantTable.toRanges();
+        this.registrationGroupTable = registrationGroupTable;
+        this.registrantTable = registrantTable;
+        this.automaton = RangeAutomaton.compile(registrationGroupTable, registrantTable);
+        this.elementPool = ElementPool.create(this.registrationGroupRanges, this.registrantRanges);
+    }
+
+    /**
+     * Create a new builder of the range cache.
+     *
+     * @return the new builder
+     * @since 1.1.0
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
 
     /**
      * Get the range message date.
@@ -42,97 +105,383 @@ public class RangeCache implements Serializable {
     }
 
     /**
-     * Set the range message date.
+     * Get the registration group ranges keyed by the digits of the prefix.
      *
-     * @param messageDate the message date from the range file
+     * @return the unmodifiable ranges map
      */
-    public void setMessageDate(String messageDate) {
-        try {
-            this.messageDate = LocalDateTime.parse(messageDate, DTF);
-        } catch (Exception e) {
-            // ignore
-        }
+    Map<String, List<Range>> getRegistrationGroupRanges() {
+        return registrationGroupRanges;
+    }
+
+    /**
+     * Get the registrant ranges keyed by the digits of the prefix.
+     *
+     * @return the unmodifiable ranges map
+     */
+    Map<String, List<Range>> getRegistrantRanges() {
+        return registrantRanges;
     }
 
     /**
-     * Add a registration group range.
+     * Find the registration group element.
      *
      * @param prefix the prefix before the registration group element
-     * @param range  the range of numbers assigned to the registration group
+     * @param isbn   the ISBN to extract the registration group element
+     * @return the registration group element
      */
-    public void addRegistrationGroupRange(String prefix, Range range) {
-        addRange(prefix, range, registrationGroupRanges);
+    public String findRegistrationGroup(String prefix, String isbn) {
+        return findElement(prefix, isbn, registrationGroupTable);
     }
 
     /**
-     * Add a registrant range.
+     * Find the registrant element.
      *
      * @param prefix the prefix before the registrant element
-     * @param range  the range of numbers assigned to the registrant
+     * @param isbn   the ISBN to extract the registrant element
+     * @return the registrant element
      */
-    public void addRegistrantRange(String prefix, Range range) {
-        addRange(prefix, range, registrantRanges);
+    public String findRegistrant(String prefix, String isbn) {
+        return findElement(prefix, isbn, registrantTable);
     }
 
     /**
-     * Add a range to the specified ranges map.
+     * Find the length of the registration group element, the GS1 prefix is the first 3 digits of the ISBN.
      *
-     * @param prefix the prefix before the specified element
-     * @param range  the range of numbers assigned to the specified element
-     * @param ranges the specified ranges map to add the range
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @return the element length, a negative value if the GS1 prefix is unknown, or {@code 0} if no range covers the
+     * ISBN
+     */
+    public int findRegistrationGroupLength(long isbn12) {
+        return registrationGroupTable.find(isbn12, GS1_PREFIX_LENGTH);
+    }
+
+    /**
+     * Find the length of the registrant element after the GS1 prefix and the registration group element.
+     *
+     * @param isbn12                  the numeric value of the first 12-digits of ISBN
+     * @param registrationGroupLength the length of the registration group element
+     * @return the element length, or a non-positive value if not found
+     */
+    public int findRegistrantLength(long isbn12, int registrationGroupLength) {
+        return registrantTable.find(isbn12, GS1_PREFIX_LENGTH + registrationGroupLength);
+    }
+
+    /**
+     * Find the lengths of the registration group and registrant elements by consuming the digits of the ISBN once,
+     * the results are the same as {@link #findRegistrationGroupLength(long)} followed by
+     * {@link #findRegistrantLength(long, int)}.
+     *
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @return the registration group length in the bits 4-7 and the registrant length in the bits 0-3, or {@code -1}
+     * if either element is not found or the elements are longer than the ISBN
+     * @since 1.1.0
+     */
+    public int findElementLengths(long isbn12) {
+        return automaton.find(isbn12);
+    }
+
+    /**
+     * Find the end of the interval starting at the given ISBN, in which {@link #findElementLengths(long)} returns the
+     * same result for all numbers, so that the consecutive ISBNs can be split without looking up each of them. The
+     * next interval may have the same result.
+     *
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @return the numeric value of the first 12-digits of the ISBN after the interval
+     * @throws ISBNException if the value is not a 12-digit number
+     * @since 1.1.0
      */
-    private void addRange(String prefix, Range range, Map<String, List<Range>> ranges) {
-        if (null == range || range.getLength() <= 0 || range.getLength() > Range.RANGE_STR_LENGTH) {
-            return;
+    public long findElementLengthsEnd(long isbn12) {
+        if (isbn12 < 0 || isbn12 >= ISBN_12_BOUND) {
+            throw new ISBNException("Invalid ISBN-12 value: " + isbn12);
         }
-        ranges.computeIfAbsent(prefix.replace(HYPHEN, EMPTY), k -> new ArrayList<>()).add(range);
+        long end = registrationGroupTable.intervalEnd(isbn12, GS1_PREFIX_LENGTH);
+        int groupLength = findRegistrationGroupLength(isbn12);
+        if (groupLength > 0 && GS1_PREFIX_LENGTH + groupLength <= RangeTable.MAX_PREFIX_LENGTH) {
+            end = Math.min(end, registrantTable.intervalEnd(isbn12, GS1_PREFIX_LENGTH + groupLength));
+        }
+        return end;
     }
 
     /**
-     * Find the registration group element.
+     * Get the GS1 prefix element of the given ISBN, the instance is shared by all calls of this range cache.
      *
-     * @param prefix the prefix before the registration group element
-     * @param isbn   the ISBN to extract the registration group element
+     * @param isbn12 the numeric value of the first 12-digits of ISBN
+     * @return the GS1 prefix element
+     * @since 1.1.0
+     */
+    public String internGS1Prefix(long isbn12) {
+        return elementPool.gs1Prefix(isbn12);
+    }
+
+    /**
+     * Get the registration group element of the given ISBN, the instance is shared by all calls of this range cache
+     * if the registration group is in the ranges.
+     *
+     * @param isbn12                  the numeric value of the first 12-digits of ISBN
+     * @param registrationGroupLength the length of the registration group element
      * @return the registration group element
+     * @since 1.1.0
      */
-    public String findRegistrationGroup(String prefix, String isbn) {
-        return findElement(prefix, isbn, registrationGroupRanges);
+    public String internRegistrationGroup(long isbn12, int registrationGroupLength) {
+        return elementPool.registrationGroup(isbn12, registrationGroupLength);
     }
 
     /**
-     * Find the registrant element.
+     * Get the registrant element of the given ISBN, the instance is shared by the calls of this range cache while it
+     * is one of the recently used registrants, so the memory held by the shared instances is bounded.
      *
-     * @param prefix the prefix before the registrant element
-     * @param isbn   the ISBN to extract the registrant element
+     * @param isbn12                  the numeric value of the first 12-digits of ISBN
+     * @param registrationGroupLength the length of the registration group element
+     * @param registrantLength        the length of the registrant element
      * @return the registrant element
+     * @since 1.1.0
      */
-    public String findRegistrant(String prefix, String isbn) {
-        return findElement(prefix, isbn, registrantRanges);
+    public String internRegistrant(long isbn12, int registrationGroupLength, int registrantLength) {
+        return elementPool.registrant(isbn12, registrationGroupLength, registrantLength);
+    }
+
+    /**
+     * Get the number of states of the automaton compiled from the ranges.
+     *
+     * @return the number of states
+     */
+    int getAutomatonStateCount() {
+        return automaton.stateCount();
     }
 
     /**
-     * Find an ISBN element in the specified ranges map.
+     * Write this range cache to the given output in the compact form, which holds the compiled lookup tables, so it
+     * is read back without parsing or sorting the ranges.
+     * <p>
+     * The layout is a byte format version, a long message date in epoch seconds at UTC or {@code Long.MIN_VALUE} if
+     * unknown, then the lookup tables of the registration group and registrant ranges.
+     *
+     * @param out the output to write to
+     * @throws IOException if an I/O error occurs
+     * @since 1.1.0
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(null != messageDate ? messageDate.toEpochSecond(ZoneOffset.UTC) : NO_MESSAGE_DATE);
+        registrationGroupTable.writeTo(out);
+        registrantTable.writeTo(out);
+    }
+
+    /**
+     * Read a range cache written by {@link #writeTo(DataOutput)} from the given input.
+     *
+     * @param in the input to read from
+     * @return the range cache
+     * @throws IOException   if an I/O error occurs
+     * @throws ISBNException if the input is not a range cache or its format is not supported
+     * @since 1.1.0
+     */
+    public static RangeCache readFrom(DataInput in) throws IOException {
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new ISBNException("Unsupported range cache format version: " + version);
+        }
+        long epochSecond = in.readLong();
+        LocalDateTime messageDate = (epochSecond != NO_MESSAGE_DATE)
+            ? LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC) : null;
+        RangeTable registrationGroupTable = RangeTable.readFrom(in);
+        RangeTable registrantTable = RangeTable.readFrom(in);
+        return new RangeCache(messageDate, registrationGroupTable, registrantTable);
+    }
+
+    /**
+     * Replace this range cache with its compact serialized form.
+     *
+     * @return the serialized form
+     */
+    private Object writeReplace() {
+        return new SerializedForm(this);
+    }
+
+    /**
+     * Rebuild the lookup tables after deserializing the default form written before 1.1.0.
+     *
+     * @return the range cache with the compiled lookup tables
+     */
+    private Object readResolve() {
+        return new RangeCache(messageDate, registrationGroupRanges, registrantRanges);
+    }
+
+    /**
+     * Copy the given ranges map into an unmodifiable one.
+     *
+     * @param ranges the ranges map to copy
+     * @return the unmodifiable ranges map
+     */
+    private static Map<String, List<Range>> freeze(Map<String, List<Range>> ranges) {
+        Map<String, List<Range>> copy = new HashMap<>(ranges.size() * 4 / 3 + 1);
+        ranges.forEach((prefix, list) -> copy.put(prefix, Collections.unmodifiableList(new ArrayList<>(list))));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Find an ISBN element in the specified lookup table.
      *
      * @param prefix the prefix before the specified element
      * @param isbn   the ISBN to extract the specified element
-     * @param ranges the specified ranges map to search
+     * @param table  the specified lookup table to search
      * @return the specified element
      */
-    private String findElement(String prefix, String isbn, Map<String, List<Range>> ranges) {
+    private String findElement(String prefix, String isbn, RangeTable table) {
         if (prefix == null || isbn == null) {
             return null;
         }
-        List<Range> rangeList = ranges.get(prefix);
-        if (rangeList == null) {
+        int prefixKey = RangeTable.prefixKey(prefix);
+        if (prefixKey == RangeTable.NO_PREFIX) {
             return null;
         }
 
-        // extract the 7-digit number after the prefix from the given ISBN
+        // extract the 7-digit number after the prefix from the given ISBN, padding with zeros if necessary
         int prefixLength = prefix.length();
-        String number = (isbn + Range.ZERO_RANGE_STR).substring(prefixLength, prefixLength + Range.RANGE_STR_LENGTH);
-        Optional<Range> range = rangeList.stream().filter(r -> r.contains(number)).findFirst();
+        int number = 0;
+        for (int i = prefixLength; i < prefixLength + Range.RANGE_STR_LENGTH; i++) {
+            int digit = (i < isbn.length()) ? isbn.charAt(i) - '0' : 0;
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            number = number * 10 + digit;
+        }
+        int length = table.find(prefixKey, number);
+        if (length <= 0) {
+            return null;
+        }
 
         // extract the element from the 7-digit number by the matched length
-        return range.map(r -> number.substring(0, r.getLength())).orElse(null);
+        int end = prefixLength + length;
+        return (end <= isbn.length())
+            ? isbn.substring(prefixLength, end)
+            : (isbn + Range.ZERO_RANGE_STR).substring(prefixLength, end);
+    }
+
+    /**
+     * The compact serialized form of a range cache, see {@link #writeTo(DataOutput)}.
+     */
+    private static final class SerializedForm implements Externalizable {
+        private static final long serialVersionUID = 1L;
+
+        private RangeCache cache;
+
+        /**
+         * Create an empty form for deserialization.
+         */
+        public SerializedForm() {
+        }
+
+        SerializedForm(RangeCache cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            cache.writeTo(out);
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+            try {
+                cache = readFrom(in);
+            } catch (ISBNException e) {
+                InvalidObjectException invalid = new InvalidObjectException(e.getMessage());
+                invalid.initCause(e);
+                throw invalid;
+            }
+        }
+
+        private Object readResolve() {
+            return cache;
+        }
+    }
+
+    /**
+     * This class is used to collect the ranges before building an immutable range cache.
+     *
+     * @since 1.1.0
+     */
+    public static final class Builder {
+
+        private LocalDateTime messageDate;
+        private final Map<String, List<Range>> registrationGroupRanges = new HashMap<>();
+        private final Map<String, List<Range>> registrantRanges = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Set the range message date.
+         *
+         * @param messageDate the message date from the range file
+         * @return this builder
+         */
+        public Builder messageDate(String messageDate) {
+            try {
+                this.messageDate = LocalDateTime.parse(messageDate, DTF);
+            } catch (Exception e) {
+                // ignore
+            }
+            return this;
+        }
+
+        /**
+         * Set the range message date.
+         *
+         * @param messageDate the message date, or {@code null} if unknown
+         * @return this builder
+         */
+        public Builder messageDate(LocalDateTime messageDate) {
+            this.messageDate = messageDate;
+            return this;
+        }
+
+        /**
+         * Add a registration group range.
+         *
+         * @param prefix the prefix before the registration group element
+         * @param range  the range of numbers assigned to the registration group
+         * @return this builder
+         */
+        public Builder addRegistrationGroupRange(String prefix, Range range) {
+            addRange(prefix, range, registrationGroupRanges);
+            return this;
+        }
+
+        /**
+         * Add a registrant range.
+         *
+         * @param prefix the prefix before the registrant element
+         * @param range  the range of numbers assigned to the registrant
+         * @return this builder
+         */
+        public Builder addRegistrantRange(String prefix, Range range) {
+            addRange(prefix, range, registrantRanges);
+            return this;
+        }
+
+        /**
+         * Build the immutable range cache with the compiled lookup tables, the builder can be reused afterwards.
+         *
+         * @return the range cache
+         */
+        public RangeCache build() {
+            return new RangeCache(messageDate, registrationGroupRanges, registrantRanges);
+        }
+
+        /**
+         * Add a range to the specified ranges map.
+         *
+         * @param prefix the prefix before the specified element
+         * @param range  the range of numbers assigned to the specified element
+         * @param ranges the specified ranges map to add the range
+         */
+        private static void addRange(String prefix, Range range, Map<String, List<Range>> ranges) {
+            if (null == range || range.getLength() <= 0 || range.getLength() > Range.RANGE_STR_LENGTH) {
+                return;
+            }
+            ranges.computeIfAbsent(prefix.replace(HYPHEN, EMPTY), k -> new ArrayList<>()).add(range);
+        }
     }
 }
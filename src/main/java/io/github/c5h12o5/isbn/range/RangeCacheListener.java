@@ -0,0 +1,20 @@
+package io.github.c5h12o5.isbn.range;
+
+/**
+ * The listener notified when the current range cache is replaced, such as after reloading a range message file.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface RangeCacheListener {
+
+    /**
+     * Receive notification of the replacement of the current range cache, it is called on the thread which replaced
+     * the range cache, after the new one is visible to all threads.
+     *
+     * @param previous the previous range cache, {@code null} if the bundled ranges have not been loaded yet
+     * @param current  the current range cache
+     */
+    void rangeCacheChanged(RangeCache previous, RangeCache current);
+}
@@ -0,0 +1,170 @@
+package io.github.c5h12o5.isbn.range;
+
+import io.github.c5h12o5.isbn.ISBNChecksum;
+import io.github.c5h12o5.isbn.ISBNException;
+
+import java.util.Arrays;
+
+/**
+ * This class is the difference between two range caches, that is the intervals of ISBNs whose registration group or
+ * registrant elements are split differently, including the ISBNs which are only valid in one of them.
+ * <p>
+ * It is used to re-hyphenate only the stored ISBNs affected by a new range message file, instead of all of them. The
+ * intervals are sorted and disjoint, and the adjacent intervals are merged.
+ *
+ * <pre>
+ * ISBN.addRangeCacheListener((previous, current) -&gt; {
+ *     RangeDiff diff = RangeDiff.between(previous, current);
+ *     rows.stream().filter(row -&gt; diff.isAffected(row.getISBN()))
+ *         .forEach(row -&gt; row.setHyphenated(ISBN.formatISBN13(row.getISBN(), "-")));
+ * });
+ * </pre>
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class RangeDiff {
+
+    private static final long ISBN_12_BOUND = 1_000_000_000_000L;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The first 12-digits of the first ISBN of each interval. */
+    private final long[] starts;
+
+    /** The first 12-digits of the ISBN after each interval. */
+    private final long[] ends;
+
+    private RangeDiff(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Compare the element lengths of all ISBNs split by the given range caches, such as the previous and current ones
+     * received by a {@link RangeCacheListener}.
+     * <p>
+     * The ranges are compared by the intervals of {@link RangeCache#findElementLengthsEnd(long)}, so the time spent
+     * depends on the number of rules rather than the number of ISBNs.
+     *
+     * @param previous the previous range cache, {@code null} if there is no previous one, then all ISBNs valid in the
+     *                 current one are affected
+     * @param current  the current range cache
+     * @return the difference
+     * @throws ISBNException if the current range cache is {@code null}
+     */
+    public static RangeDiff between(RangeCache previous, RangeCache current) {
+        if (null == current) {
+            throw new ISBNException("Range cache must not be null");
+        }
+        if (previous == current) {
+            return new RangeDiff(new long[0], new long[0]);
+        }
+
+        long[] starts = new long[INITIAL_CAPACITY];
+        long[] ends = new long[INITIAL_CAPACITY];
+        int count = 0;
+        long isbn12 = 0;
+        while (isbn12 < ISBN_12_BOUND) {
+            long end = current.findElementLengthsEnd(isbn12);
+            int previousLengths = RangeAutomaton.NOT_FOUND;
+            if (previous != null) {
+                end = Math.min(end, previous.findElementLengthsEnd(isbn12));
+                previousLengths = previous.findElementLengths(isbn12);
+            }
+            if (previousLengths != current.findElementLengths(isbn12)) {
+                if (count > 0 && ends[count - 1] == isbn12) {
+                    ends[count - 1] = end;
+                } else {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                        ends = Arrays.copyOf(ends, count * 2);
+                    }
+                    starts[count] = isbn12;
+                    ends[count++] = end;
+                }
+            }
+            isbn12 = end;
+        }
+        return new RangeDiff(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+    }
+
+    /**
+     * Check if there is no affected ISBN.
+     *
+     * @return {@code true} if both range caches split all ISBNs in the same way, otherwise {@code false}
+     */
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /**
+     * Get the number of the intervals of the affected ISBNs.
+     *
+     * @return the number of intervals
+     */
+    public int getIntervalCount() {
+        return starts.length;
+    }
+
+    /**
+     * Get the start of the interval at the given index.
+     *
+     * @param index the index of the interval
+     * @return the numeric value of the ISBN-13 codes starting the interval, inclusive
+     */
+    public long getStart(int index) {
+        return starts[index] * 10;
+    }
+
+    /**
+     * Get the end of the interval at the given index.
+     *
+     * @param index the index of the interval
+     * @return the numeric value of the ISBN-13 codes ending the interval, exclusive
+     */
+    public long getEnd(int index) {
+        return ends[index] * 10;
+    }
+
+    /**
+     * Get the number of the affected ISBNs in all intervals.
+     *
+     * @return the number of affected ISBNs
+     */
+    public long getAffectedCount() {
+        long total = 0;
+        for (int i = 0; i < starts.length; i++) {
+            total += ends[i] - starts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Check if the given ISBN-13 value is in an interval, that is its elements should be split again.
+     *
+     * @param isbn13 the numeric value of ISBN-13, such as
+     *               {@link io.github.c5h12o5.isbn.ISBN#normalizedKey(CharSequence)}
+     * @return {@code true} if the value is affected, otherwise {@code false}
+     */
+    public boolean isAffected(long isbn13) {
+        long isbn12 = isbn13 / 10;
+        int index = Arrays.binarySearch(starts, isbn12);
+        if (index >= 0) {
+            return true;
+        }
+        int before = -index - 2;
+        return before >= 0 && isbn12 < ends[before];
+    }
+
+    /**
+     * Check if the given ISBN input is in an interval, the input is normalized by
+     * {@link ISBNChecksum#normalizedKey(CharSequence)}, so it does not have to be valid in either range cache.
+     *
+     * @param isbn the ISBN to check
+     * @return {@code true} if the input has a correct check digit and is affected, otherwise {@code false}
+     */
+    public boolean isAffected(CharSequence isbn) {
+        long isbn13 = ISBNChecksum.normalizedKey(isbn);
+        return isbn13 >= 0 && isAffected(isbn13);
+    }
+}
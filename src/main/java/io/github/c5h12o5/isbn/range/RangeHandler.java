@@ -1,9 +1,17 @@
 package io.github.c5h12o5.isbn.range;
 
+import io.github.c5h12o5.isbn.ISBNException;
+
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Optional;
 
 /**
@@ -14,6 +22,9 @@ import java.util.Optional;
  */
 public class RangeHandler extends DefaultHandler {
 
+    /** The builder collecting the ranges during the parsing */
+    private RangeCache.Builder builder;
+
     /** The result of the parsing */
     private RangeCache result;
 
@@ -61,6 +72,28 @@ public class RangeHandler extends DefaultHandler {
     private Range currentRange;
     private ParsingStage currentStage;
 
+    /**
+     * Parse the range message file from the given inputStream into a new range cache, the parser does not access
+     * external DTDs or external schemas.
+     *
+     * @param is the inputStream containing the content to be parsed
+     * @return the range cache
+     * @since 1.1.0
+     */
+    public static RangeCache parse(InputStream is) {
+        try {
+            // a SAX parser is not thread-safe, so each parsing creates its own one
+            SAXParser parser = SAXParserFactory.newInstance().newSAXParser();
+            parser.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            parser.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            RangeHandler rangeHandler = new RangeHandler();
+            parser.parse(is, rangeHandler);
+            return rangeHandler.getResult();
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new ISBNException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Returns the result of the parsing.
      *
@@ -77,7 +110,20 @@ public class RangeHandler extends DefaultHandler {
      */
     @Override
     public void startDocument() throws SAXException {
-        result = new RangeCache();
+        builder = RangeCache.builder();
+        result = null;
+    }
+
+    /**
+     * Receive notification of the end of the document.
+     *
+     * @throws org.xml.sax.SAXException Any SAX exception, possibly wrapping another exception.
+     */
+    @Override
+    public void endDocument() throws SAXException {
+        // build the immutable range cache once all ranges are loaded
+        result = builder.build();
+        builder = null;
     }
 
     /**
@@ -118,9 +164,9 @@ public class RangeHandler extends DefaultHandler {
         if (RULE.equals(qName)) {
             // add current range to the result if the end element is a rule
             if (currentStage == ParsingStage.REGISTRATION_GROUP) {
-                result.addRegistrationGroupRange(currentPrefix, currentRange);
+                builder.addRegistrationGroupRange(currentPrefix, currentRange);
             } else if (currentStage == ParsingStage.REGISTRANT) {
-                result.addRegistrantRange(currentPrefix, currentRange);
+                builder.addRegistrantRange(currentPrefix, currentRange);
             }
         } else if (RANGE.equals(qName)) {
             currentRange.setRange(currentText);
@@ -129,7 +175,7 @@ public class RangeHandler extends DefaultHandler {
         } else if (PREFIX.equals(qName)) {
             currentPrefix = currentText;
         } else if (MESSAGE_DATE.equals(qName)) {
-            result.setMessageDate(currentText);
+            builder.messageDate(currentText);
         }
     }
 
@@ -0,0 +1,228 @@
+package io.github.c5h12o5.isbn.range;
+
+import io.github.c5h12o5.isbn.ISBNException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * This class reads and writes the compact binary snapshot of a range cache, which is loaded much faster than parsing
+ * the range message file in XML.
+ * <p>
+ * The snapshot is big-endian, so it can be written by {@link DataOutputStream} and read back from a stream or from a
+ * mapped {@link ByteBuffer}. The layout is:
+ * <pre>
+ * int     magic number 'ISBN'
+ * short   format version
+ * long    message date in epoch seconds at UTC, or Long.MIN_VALUE if unknown
+ * section registration group ranges
+ * section registrant ranges
+ *
+ * section: int prefix count, then for each prefix:
+ *   byte  prefix length, then the ASCII digits of the prefix
+ *   short rule count, then for each rule: int start, int end, byte length
+ * </pre>
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+public final class RangeSnapshot {
+
+    /** The magic number at the beginning of a snapshot. */
+    public static final int MAGIC = 0x4953424E;
+
+    /** The version of the snapshot format written by this class. */
+    public static final short VERSION = 1;
+
+    private static final long NO_MESSAGE_DATE = Long.MIN_VALUE;
+    private static final int MAX_RANGE_NUMBER = 9_999_999;
+
+    private RangeSnapshot() {
+    }
+
+    /**
+     * Write the given range cache as a snapshot.
+     *
+     * @param cache the range cache to write
+     * @param os    the outputStream to write to, it is not closed by this method
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(RangeCache cache, OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        LocalDateTime messageDate = cache.getMessageDate();
+        out.writeLong(null != messageDate ? messageDate.toEpochSecond(ZoneOffset.UTC) : NO_MESSAGE_DATE);
+        writeSection(cache.getRegistrationGroupRanges(), out);
+        writeSection(cache.getRegistrantRanges(), out);
+        out.flush();
+    }
+
+    /**
+     * Read a snapshot from the given inputStream.
+     *
+     * @param is the inputStream containing the snapshot, it is not closed by this method
+     * @return the range cache
+     * @throws ISBNException if the snapshot cannot be read or is not supported
+     */
+    public static RangeCache read(InputStream is) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = is.read(buffer)) >= 0) {
+                bytes.write(buffer, 0, n);
+            }
+            return read(ByteBuffer.wrap(bytes.toByteArray()));
+        } catch (IOException e) {
+            throw new ISBNException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read a snapshot from the remaining bytes of the given buffer, the buffer position is not changed.
+     *
+     * @param buffer the buffer containing the snapshot, such as a mapped file
+     * @return the range cache
+     * @throws ISBNException if the snapshot cannot be read, is not supported, is malformed or has trailing bytes
+     */
+    public static RangeCache read(ByteBuffer buffer) {
+        ByteBuffer in = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new ISBNException("Not a range snapshot");
+            }
+            short version = in.getShort();
+            if (version != VERSION) {
+                throw new ISBNException("Unsupported range snapshot version: " + version);
+            }
+            RangeCache.Builder builder = RangeCache.builder();
+            long messageDate = in.getLong();
+            if (messageDate != NO_MESSAGE_DATE) {
+                builder.messageDate(LocalDateTime.ofEpochSecond(messageDate, 0, ZoneOffset.UTC));
+            }
+            readSection(in, builder::addRegistrationGroupRange);
+            readSection(in, builder::addRegistrantRange);
+            if (in.hasRemaining()) {
+                throw new ISBNException("Trailing bytes in range snapshot: " + in.remaining());
+            }
+            return builder.build();
+        } catch (BufferUnderflowException e) {
+            throw new ISBNException("Truncated range snapshot", e);
+        } catch (DateTimeException e) {
+            throw new ISBNException("Invalid message date in range snapshot", e);
+        }
+    }
+
+    /**
+     * Convert a range message file in XML to a snapshot.
+     *
+     * @param xml the inputStream containing the range message file, it is not closed by this method
+     * @param os  the outputStream to write the snapshot to, it is not closed by this method
+     * @return the range cache parsed from the range message file
+     * @throws IOException if an I/O error occurs
+     */
+    public static RangeCache convert(InputStream xml, OutputStream os) throws IOException {
+        RangeCache cache = RangeHandler.parse(xml);
+        write(cache, os);
+        return cache;
+    }
+
+    /**
+     * Convert a range message file in XML to a snapshot file, it is also used to generate the bundled snapshot at
+     * build time.
+     *
+     * @param args the path of the range message file and the path of the snapshot file
+     * @throws IOException if an I/O error occurs
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: RangeSnapshot <RangeMessage.xml> <RangeMessage.bin>");
+        }
+        Path target = Paths.get(args[1]);
+        if (null != target.getParent()) {
+            Files.createDirectories(target.getParent());
+        }
+        try (InputStream is = Files.newInputStream(Paths.get(args[0]));
+             OutputStream os = Files.newOutputStream(target)) {
+            convert(is, os);
+        }
+    }
+
+    /**
+     * Write a section of ranges.
+     *
+     * @param ranges the ranges map keyed by the digits of the prefix
+     * @param out    the output to write to
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeSection(Map<String, List<Range>> ranges, DataOutputStream out) throws IOException {
+        out.writeInt(ranges.size());
+        for (Map.Entry<String, List<Range>> entry : ranges.entrySet()) {
+            byte[] prefix = entry.getKey().getBytes(StandardCharsets.US_ASCII);
+            out.writeByte(prefix.length);
+            out.write(prefix);
+            out.writeShort(entry.getValue().size());
+            for (Range range : entry.getValue()) {
+                out.writeInt(range.getStart());
+                out.writeInt(range.getEnd());
+                out.writeByte(range.getLength());
+            }
+        }
+    }
+
+    /**
+     * Read a section of ranges, the prefixes and rules are validated in the same way as the compiled lookup tables.
+     *
+     * @param in       the buffer to read from
+     * @param consumer the consumer receiving the prefix and each range
+     * @throws ISBNException if the section is malformed
+     */
+    private static void readSection(ByteBuffer in, BiConsumer<String, Range> consumer) {
+        int prefixCount = in.getInt();
+        if (prefixCount < 0) {
+            throw new ISBNException("Invalid prefix count: " + prefixCount);
+        }
+        for (int i = 0; i < prefixCount; i++) {
+            int prefixLength = in.get() & 0xFF;
+            if (prefixLength == 0 || prefixLength > RangeTable.MAX_PREFIX_LENGTH) {
+                throw new ISBNException("Invalid prefix length: " + prefixLength);
+            }
+            byte[] prefix = new byte[prefixLength];
+            in.get(prefix);
+            String prefixStr = new String(prefix, StandardCharsets.US_ASCII);
+            for (byte b : prefix) {
+                if (b < '0' || b > '9') {
+                    throw new ISBNException("Invalid prefix: " + prefixStr);
+                }
+            }
+            int ruleCount = in.getShort() & 0xFFFF;
+            for (int j = 0; j < ruleCount; j++) {
+                int start = in.getInt();
+                int end = in.getInt();
+                byte length = in.get();
+                if (start < 0 || start > end || end > MAX_RANGE_NUMBER || length <= 0
+                    || length > Range.RANGE_STR_LENGTH) {
+                    throw new ISBNException("Invalid rule: " + start + "-" + end + ", " + length);
+                }
+                consumer.accept(prefixStr, new Range(start, end, length));
+            }
+        }
+    }
+}
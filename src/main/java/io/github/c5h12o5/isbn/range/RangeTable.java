@@ -0,0 +1,383 @@
+package io.github.c5h12o5.isbn.range;
+
+import io.github.c5h12o5.isbn.ISBNException;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * This class is the immutable compiled form of a ranges map, which is used to look up the length of an ISBN element
+ * without allocating any objects.
+ * <p>
+ * Each prefix is encoded as an int key, and the rules of all prefixes are stored in sorted primitive arrays, so that a
+ * lookup is just two binary searches.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+final class RangeTable {
+
+    /** The lookup result if the prefix is not in the table. */
+    static final int NO_PREFIX = -1;
+
+    /** The lookup result if the prefix is in the table, but no rule covers the number. */
+    static final int NO_RANGE = 0;
+
+    /** The cover result if the rules covering the numbers are not the same. */
+    static final int MIXED_RANGES = -2;
+
+    /** The max length of a prefix that can be encoded as an int key. */
+    static final int MAX_PREFIX_LENGTH = 8;
+
+    /** The max number of prefixes read by {@link #readFrom(DataInput)}, which is far more than any range file. */
+    private static final int MAX_PREFIX_COUNT = 1 << 16;
+
+    /** The length of the first 12-digits of ISBN. */
+    static final int ISBN_12_LENGTH = 12;
+
+    /** The powers of ten from 10^0 to 10^12. */
+    private static final long[] POW10 = new long[ISBN_12_LENGTH + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    /** The sorted prefix keys. */
+    private final int[] prefixKeys;
+
+    /** The rules of the i-th prefix are stored in the range [offsets[i], offsets[i+1]) of the rule arrays. */
+    private final int[] offsets;
+
+    /** The start numbers of the rules, sorted within each prefix. */
+    private final int[] starts;
+
+    /** The end numbers of the rules. */
+    private final int[] ends;
+
+    /** The element lengths of the rules. */
+    private final byte[] lengths;
+
+    private RangeTable(int[] prefixKeys, int[] offsets, int[] starts, int[] ends, byte[] lengths) {
+        this.prefixKeys = prefixKeys;
+        this.offsets = offsets;
+        this.starts = starts;
+        this.ends = ends;
+        this.lengths = lengths;
+    }
+
+    /**
+     * Compile the given ranges map into a lookup table.
+     *
+     * @param ranges the ranges map keyed by the digits of the prefix
+     * @return the compiled lookup table
+     */
+    static RangeTable compile(Map<String, List<Range>> ranges) {
+        // sort the prefixes by the encoded keys
+        SortedMap<Integer, List<Range>> sorted = new TreeMap<>();
+        for (Map.Entry<String, List<Range>> entry : ranges.entrySet()) {
+            int key = prefixKey(entry.getKey());
+            if (key != NO_PREFIX && !entry.getValue().isEmpty()) {
+                sorted.put(key, entry.getValue());
+            }
+        }
+
+        int ruleCount = sorted.values().stream().mapToInt(List::size).sum();
+        int[] prefixKeys = new int[sorted.size()];
+        int[] offsets = new int[sorted.size() + 1];
+        int[] starts = new int[ruleCount];
+        int[] ends = new int[ruleCount];
+        byte[] lengths = new byte[ruleCount];
+
+        // flatten the rules of each prefix sorted by the start numbers
+        int prefixIndex = 0;
+        int ruleIndex = 0;
+        for (Map.Entry<Integer, List<Range>> entry : sorted.entrySet()) {
+            prefixKeys[prefixIndex] = entry.getKey();
+            offsets[prefixIndex++] = ruleIndex;
+            List<Range> rules = new ArrayList<>(entry.getValue());
+            rules.sort(Comparator.comparingInt(Range::getStart));
+            for (Range rule : rules) {
+                starts[ruleIndex] = rule.getStart();
+                ends[ruleIndex] = rule.getEnd();
+                lengths[ruleIndex++] = (byte) rule.getLength();
+            }
+        }
+        offsets[prefixIndex] = ruleIndex;
+        return new RangeTable(prefixKeys, offsets, starts, ends, lengths);
+    }
+
+    /**
+     * Write the compiled arrays of this table to the given output.
+     * <p>
+     * The layout is an int prefix count, then for each prefix: int prefix key and short rule count, then for each
+     * rule of all prefixes: int start, int end and byte length.
+     *
+     * @param out the output to write to
+     * @throws IOException if an I/O error occurs
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(prefixKeys.length);
+        for (int i = 0; i < prefixKeys.length; i++) {
+            out.writeInt(prefixKeys[i]);
+            out.writeShort(offsets[i + 1] - offsets[i]);
+        }
+        for (int rule = 0; rule < starts.length; rule++) {
+            out.writeInt(starts[rule]);
+            out.writeInt(ends[rule]);
+            out.writeByte(lengths[rule]);
+        }
+    }
+
+    /**
+     * Read a table written by {@link #writeTo(DataOutput)} from the given input.
+     *
+     * @param in the input to read from
+     * @return the lookup table
+     * @throws IOException   if an I/O error occurs
+     * @throws ISBNException if the arrays are not a valid lookup table
+     */
+    static RangeTable readFrom(DataInput in) throws IOException {
+        int prefixCount = in.readInt();
+        if (prefixCount < 0 || prefixCount > MAX_PREFIX_COUNT) {
+            throw new ISBNException("Invalid prefix count: " + prefixCount);
+        }
+        int[] prefixKeys = new int[prefixCount];
+        int[] offsets = new int[prefixCount + 1];
+        for (int i = 0; i < prefixCount; i++) {
+            prefixKeys[i] = in.readInt();
+            offsets[i + 1] = offsets[i] + in.readUnsignedShort();
+            int prefixLength = prefixKeys[i] % 10;
+            if (prefixLength <= 0 || prefixLength > MAX_PREFIX_LENGTH || i > 0 && prefixKeys[i] <= prefixKeys[i - 1]) {
+                throw new ISBNException("Invalid prefix key: " + prefixKeys[i]);
+            }
+        }
+
+        int ruleCount = offsets[prefixCount];
+        int[] starts = new int[ruleCount];
+        int[] ends = new int[ruleCount];
+        byte[] lengths = new byte[ruleCount];
+        int prefixIndex = 0;
+        for (int rule = 0; rule < ruleCount; rule++) {
+            while (offsets[prefixIndex + 1] == rule) {
+                prefixIndex++;
+            }
+            starts[rule] = in.readInt();
+            ends[rule] = in.readInt();
+            lengths[rule] = in.readByte();
+            boolean sorted = rule == offsets[prefixIndex] || starts[rule] >= starts[rule - 1];
+            if (!sorted || starts[rule] < 0 || starts[rule] > ends[rule] || lengths[rule] <= 0
+                || lengths[rule] > Range.RANGE_STR_LENGTH) {
+                throw new ISBNException("Invalid rule: " + starts[rule] + "-" + ends[rule] + ", " + lengths[rule]);
+            }
+        }
+        return new RangeTable(prefixKeys, offsets, starts, ends, lengths);
+    }
+
+    /**
+     * Convert this table back to a ranges map, the rules of each prefix are sorted by the start numbers.
+     *
+     * @return the unmodifiable ranges map keyed by the digits of the prefix
+     */
+    Map<String, List<Range>> toRanges() {
+        Map<String, List<Range>> ranges = new HashMap<>(prefixKeys.length * 4 / 3 + 1);
+        for (int i = 0; i < prefixKeys.length; i++) {
+            List<Range> rules = new ArrayList<>(offsets[i + 1] - offsets[i]);
+            for (int rule = offsets[i]; rule < offsets[i + 1]; rule++) {
+                rules.add(new Range(starts[rule], ends[rule], lengths[rule]));
+            }
+            ranges.put(prefix(prefixKeys[i]), Collections.unmodifiableList(rules));
+        }
+        return Collections.unmodifiableMap(ranges);
+    }
+
+    /**
+     * Find the length of the element after the given prefix.
+     *
+     * @param prefixKey the encoded prefix key
+     * @param number    the 7-digit number after the prefix
+     * @return the element length, {@link #NO_PREFIX} if the prefix is unknown, or {@link #NO_RANGE} if no rule
+     * covers the number
+     */
+    int find(int prefixKey, int number) {
+        int prefixIndex = Arrays.binarySearch(prefixKeys, prefixKey);
+        if (prefixIndex < 0) {
+            return NO_PREFIX;
+        }
+
+        int rule = lastRuleStartingAtOrBefore(prefixIndex, number);
+        return (rule >= offsets[prefixIndex] && number <= ends[rule]) ? lengths[rule] : NO_RANGE;
+    }
+
+    /**
+     * Find the length of the element after the given prefix, which is the same for all numbers in the given range.
+     *
+     * @param prefixKey the encoded prefix key
+     * @param low       the first 7-digit number of the range
+     * @param high      the last 7-digit number of the range
+     * @return the element length, {@link #NO_PREFIX} if the prefix is unknown, {@link #NO_RANGE} if no rule covers
+     * any number, or {@link #MIXED_RANGES} if {@link #find(int, int)} returns different results for the numbers
+     */
+    int cover(int prefixKey, int low, int high) {
+        int prefixIndex = Arrays.binarySearch(prefixKeys, prefixKey);
+        if (prefixIndex < 0) {
+            return NO_PREFIX;
+        }
+        int rule = lastRuleStartingAtOrBefore(prefixIndex, high);
+        if (rule != lastRuleStartingAtOrBefore(prefixIndex, low)) {
+            return MIXED_RANGES;
+        }
+        if (rule < offsets[prefixIndex] || ends[rule] < low) {
+            return NO_RANGE;
+        }
+        return (ends[rule] >= high) ? lengths[rule] : MIXED_RANGES;
+    }
+
+    /**
+     * Find the end of the interval starting at the given ISBN, in which {@link #find(long, int)} returns the same
+     * result for all numbers. The interval does not cross the numbers starting with the same {@code prefixLength}
+     * digits.
+     *
+     * @param isbn12       the numeric value of the first 12-digits of ISBN
+     * @param prefixLength the length of the prefix before the element, from 1 to {@link #MAX_PREFIX_LENGTH}
+     * @return the numeric value of the first 12-digits of the ISBN after the interval
+     */
+    long intervalEnd(long isbn12, int prefixLength) {
+        long blockSize = POW10[ISBN_12_LENGTH - prefixLength];
+        long blockStart = isbn12 - isbn12 % blockSize;
+        int prefixIndex = Arrays.binarySearch(prefixKeys, prefixKey(isbn12 / blockSize, prefixLength));
+        if (prefixIndex < 0) {
+            return blockStart + blockSize;
+        }
+
+        // the result changes after the end of the covering rule or at the start of the next rule
+        int number = number(isbn12, prefixLength);
+        int rule = lastRuleStartingAtOrBefore(prefixIndex, number);
+        long next = POW10[Range.RANGE_STR_LENGTH];
+        if (rule >= offsets[prefixIndex] && number <= ends[rule]) {
+            next = ends[rule] + 1L;
+        }
+        if (rule + 1 < offsets[prefixIndex + 1]) {
+            next = Math.min(next, starts[rule + 1]);
+        }
+
+        // find the first number after the prefix whose 7-digit number is not less than the next one
+        int shift = ISBN_12_LENGTH - prefixLength - Range.RANGE_STR_LENGTH;
+        long offset = (shift >= 0) ? next * POW10[shift] : (next + POW10[-shift] - 1) / POW10[-shift];
+        return blockStart + Math.min(offset, blockSize);
+    }
+
+    /**
+     * Find the last rule of the given prefix whose start number is less than or equal to the given number.
+     *
+     * @param prefixIndex the index of the prefix
+     * @param number      the 7-digit number after the prefix
+     * @return the rule index, less than the first rule index of the prefix if not found
+     */
+    private int lastRuleStartingAtOrBefore(int prefixIndex, int number) {
+        int low = offsets[prefixIndex];
+        int high = offsets[prefixIndex + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= number) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Find the length of the element after the first {@code prefixLength} digits of the given ISBN.
+     *
+     * @param isbn12       the numeric value of the first 12-digits of ISBN
+     * @param prefixLength the length of the prefix before the element
+     * @return the element length, {@link #NO_PREFIX} if the prefix is unknown, or {@link #NO_RANGE} if no rule
+     * covers the number
+     */
+    int find(long isbn12, int prefixLength) {
+        if (prefixLength <= 0 || prefixLength > MAX_PREFIX_LENGTH) {
+            return NO_PREFIX;
+        }
+        return find(prefixKey(isbn12 / POW10[ISBN_12_LENGTH - prefixLength], prefixLength),
+            number(isbn12, prefixLength));
+    }
+
+    /**
+     * Extract the 7-digit number after the first {@code prefixLength} digits of the given ISBN, padding with zeros if
+     * there are not enough digits.
+     *
+     * @param isbn12       the numeric value of the first 12-digits of ISBN
+     * @param prefixLength the length of the prefix before the number
+     * @return the 7-digit number
+     */
+    static int number(long isbn12, int prefixLength) {
+        int shift = ISBN_12_LENGTH - prefixLength - Range.RANGE_STR_LENGTH;
+        if (shift >= 0) {
+            return (int) (isbn12 / POW10[shift] % POW10[Range.RANGE_STR_LENGTH]);
+        }
+        return (int) (isbn12 % POW10[ISBN_12_LENGTH - prefixLength] * POW10[-shift]);
+    }
+
+    /**
+     * Encode the given prefix digits as an int key.
+     *
+     * @param prefix the digits of the prefix
+     * @return the prefix key, {@link #NO_PREFIX} if the prefix cannot be encoded
+     */
+    static int prefixKey(String prefix) {
+        int length = prefix.length();
+        if (length == 0 || length > MAX_PREFIX_LENGTH) {
+            return NO_PREFIX;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = prefix.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NO_PREFIX;
+            }
+            value = value * 10 + digit;
+        }
+        return prefixKey(value, length);
+    }
+
+    /**
+     * Encode the given prefix value as an int key, the length is kept to distinguish prefixes with leading zeros.
+     *
+     * @param value  the numeric value of the prefix
+     * @param length the length of the prefix
+     * @return the prefix key
+     */
+    static int prefixKey(long value, int length) {
+        return (int) (value * 10 + length);
+    }
+
+    /**
+     * Decode the given prefix key as the digits of the prefix.
+     *
+     * @param prefixKey the prefix key
+     * @return the digits of the prefix
+     */
+    static String prefix(int prefixKey) {
+        char[] digits = new char[prefixKey % 10];
+        int value = prefixKey / 10;
+        for (int i = digits.length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.c5h12o5.isbn;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This class validates the check digits of ISBN-13 rows with the Vector API, each row is loaded into a 128-bit
+ * vector, so that the digits are checked and weighted in parallel.
+ * <p>
+ * The weighted sum of 13 digits is at most 225, which fits in an unsigned byte, so the lanes are summed as bytes.
+ *
+ * @author c5h12o5
+ * @since 1.1.0
+ */
+final class VectorChecksumKernel {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_128;
+    private static final ByteVector WEIGHTS = ByteVector.fromArray(SPECIES,
+        new byte[] {1, 3, 1, 3, 1, 3, 1, 3, 1, 3, 1, 3, 1, 0, 0, 0}, 0);
+    private static final VectorMask<Byte> DIGIT_LANES = VectorMask.fromLong(SPECIES, (1L << ISBN.ISBN_13_LENGTH) - 1);
+
+    private VectorChecksumKernel() {
+    }
+
+    /**
+     * Validate the ISBN-13 rows in the given array and set the bits of the valid rows.
+     *
+     * @param data     the array containing the rows of 13 ASCII digits
+     * @param offset   the index of the first byte of the first row
+     * @param stride   the distance in bytes between the starts of two adjacent rows
+     * @param count    the number of rows to validate
+     * @param valid    the bits to set, as in {@link java.util.BitSet#toLongArray()}
+     * @param firstRow the bit index of the first row
+     */
+    static void validateISBN13Rows(byte[] data, int offset, int stride, int count, long[] valid, int firstRow) {
+        // the last rows are validated by the scalar kernel if a whole vector cannot be loaded from them
+        int loadable = data.length - offset - SPECIES.length();
+        int vectorRows = (loadable < 0) ? 0 : Math.min(count, loadable / stride + 1);
+        for (int row = 0; row < vectorRows; row++) {
+            ByteVector digits = ByteVector.fromArray(SPECIES, data, offset + row * stride).sub((byte) ISBN.CHAR_0);
+            boolean nonDigit = digits.compare(VectorOperators.UNSIGNED_GT, (byte) 9).and(DIGIT_LANES).anyTrue();
+            int sum = digits.mul(WEIGHTS).reduceLanes(VectorOperators.ADD) & 0xFF;
+            if (!nonDigit && sum % 10 == 0) {
+                int bit = firstRow + row;
+                valid[bit >>> 6] |= 1L << bit;
+            }
+        }
+        ScalarChecksumKernel.validateISBN13Rows(data, offset + vectorRows * stride, stride, count - vectorRows, valid,
+            firstRow + vectorRows);
+    }
+}
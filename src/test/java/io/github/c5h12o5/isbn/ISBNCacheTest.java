@@ -0,0 +1,98 @@
+package io.github.c5h12o5.isbn;
+
+import io.github.c5h12o5.isbn.range.RangeCache;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+public class ISBNCacheTest {
+
+    @Test
+    public void lookup() {
+        ISBNCache cache = new ISBNCache(100);
+        ISBNObject isbnObject = cache.parse("978-7-03-038722-6");
+        assertEquals(ISBN.parse("978-7-03-038722-6"), isbnObject);
+        assertSame(isbnObject, cache.parse("7-03-038722-8"));
+        assertEquals("978 7 03 038722 6", cache.formatISBN13("9787030387226", " "));
+        assertEquals(PackedISBN.parse("9787030387226"), cache.parsePacked("978 7 03 038722 6"));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(3, cache.getHitCount());
+
+        // the inputs with invalid lengths are not cached, and the ones without ranges are cached
+        assertNull(cache.parse("invalid"));
+        assertNull(cache.parse("977-7-03-038722-6"));
+        assertNull(cache.formatISBN13("977-7-03-038722-6", "-"));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getMissCount());
+
+        assertThrows(ISBNException.class, () -> new ISBNCache(0));
+    }
+
+    @Test
+    public void evict() {
+        for (ISBNCache.EvictionPolicy policy : ISBNCache.EvictionPolicy.values()) {
+            ISBNCache cache = new ISBNCache(2, policy);
+            cache.parse("9787030387226");
+            cache.parse("9787030147264");
+            cache.parse("9787030387226");
+            cache.parse("9791220008525");
+            assertEquals(2, cache.size());
+            assertEquals(1, cache.getEvictionCount());
+
+            // the first code is kept by LRU since it is recently used, but evicted by FIFO
+            long misses = cache.getMissCount();
+            cache.parse("9787030387226");
+            assertEquals(policy == ISBNCache.EvictionPolicy.LRU ? misses : misses + 1, cache.getMissCount());
+        }
+    }
+
+    @Test
+    public void evictInSegments() {
+        for (ISBNCache.EvictionPolicy policy : ISBNCache.EvictionPolicy.values()) {
+            // a cache of 64 entries is spread over 4 segments, fill the first segment only
+            ISBNCache cache = new ISBNCache(64, policy);
+            List<String> hotCodes = new ArrayList<>();
+            for (long isbn12 = 978_703_000_000L; isbn12 < 978_703_001_000L; isbn12++) {
+                String code = Long.toString(isbn12) + ISBN.isbn13CheckDigit(isbn12);
+                if ((ISBNCache.spread(isbn12) & 3) == 0) {
+                    cache.parse(code);
+                } else if (hotCodes.size() < 4) {
+                    hotCodes.add(code);
+                }
+            }
+            assertEquals(16, cache.size());
+
+            // the codes of the other segments are kept, and do not evict the first segment
+            long misses = cache.getMissCount();
+            for (int i = 0; i < 4000; i++) {
+                cache.parse(hotCodes.get(i % hotCodes.size()));
+            }
+            assertEquals(misses + hotCodes.size(), cache.getMissCount());
+            assertEquals(20, cache.size());
+        }
+    }
+
+    @Test
+    public void invalidate() throws IOException {
+        ISBNCache cache = new ISBNCache(100);
+        RangeCache original = ISBN.rangeCache();
+        assertEquals("978-7-03-038722-6", cache.formatISBN13("9787030387226", "-"));
+        try (InputStream is = ISBNCacheTest.class.getResourceAsStream("/TestRangeMessage.xml")) {
+            // the test range message file only contains 979 prefix
+            ISBN.loadRangeMessageFile(is);
+            assertNull(cache.formatISBN13("9787030387226", "-"));
+        } finally {
+            ISBN.setRangeCache(original);
+        }
+        assertEquals("978-7-03-038722-6", cache.formatISBN13("9787030387226", "-"));
+        assertEquals(3, cache.getMissCount());
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.c5h12o5.isbn;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ISBNChecksumTest {
+
+    @Test
+    public void isValid() {
+        assertTrue(ISBNChecksum.isValid("978-7-03-038722-6"));
+        assertTrue(ISBNChecksum.isValid("978 7 03 038722 6"));
+        assertTrue(ISBNChecksum.isValid("7-03-014726-X"));
+        assertTrue(ISBNChecksum.isValid("7030387228"));
+
+        // the separator positions and the ranges are not checked
+        assertTrue(ISBNChecksum.isValid("978-7-030-38722-6"));
+        assertTrue(ISBNChecksum.isValid("9777030387227"));
+
+        assertFalse(ISBNChecksum.isValid(null));
+        assertFalse(ISBNChecksum.isValid("978-7-03-038722-0"));
+        assertFalse(ISBNChecksum.isValid("978-7-03 038722-6"));
+        assertFalse(ISBNChecksum.isValid("703014726x"));
+        assertFalse(ISBNChecksum.isValid("978703038722X"));
+    }
+
+    @Test
+    public void isValidISBN13() {
+        assertTrue(ISBNChecksum.isValidISBN13("9787030387226"));
+        assertFalse(ISBNChecksum.isValidISBN13("7-03-014726-X"));
+        assertTrue(ISBNChecksum.isValidISBN10("7-03-014726-X"));
+        assertFalse(ISBNChecksum.isValidISBN10("9787030387226"));
+    }
+
+    @Test
+    public void convert() {
+        assertEquals("9787030147264", ISBNChecksum.toISBN13("7-03-014726-X"));
+        assertEquals("9780306406157", ISBNChecksum.toISBN13("0306406152"));
+        assertEquals("703014726X", ISBNChecksum.toISBN10("978-7-03-014726-4"));
+        assertEquals("0306406152", ISBNChecksum.toISBN10("9780306406157"));
+
+        assertNull(ISBNChecksum.toISBN13("7030147260"));
+        assertNull(ISBNChecksum.toISBN10("979-12-200-0852-5"));
+        assertNull(ISBNChecksum.toISBN10(null));
+
+        assertEquals(9787030147264L, ISBNChecksum.normalizedKey("7-03-014726-X"));
+        assertEquals(9787030147264L, ISBNChecksum.normalizedKey("978 7 03 014726 4"));
+        assertEquals(9770000000003L, ISBNChecksum.normalizedKey("9770000000003"));
+        assertEquals(ISBN.INVALID_KEY, ISBNChecksum.normalizedKey("7030147260"));
+    }
+
+    @Test
+    public void validateISBN13Rows() {
+        String[] rows = {"9787030387226", "9787030387220", "97870303872a6", "9791220008525", "9780306406157"};
+        StringBuilder column = new StringBuilder("#");
+        for (String row : rows) {
+            column.append(row).append(',');
+        }
+        byte[] data = column.toString().getBytes(StandardCharsets.US_ASCII);
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(3);
+        expected.set(4);
+        assertEquals(expected, ISBNChecksum.validateISBN13Rows(data, 1, 14, rows.length));
+        assertEquals(expected, ISBNChecksum.validateISBN13Rows(ByteBuffer.wrap(data), 1, 14, rows.length));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data);
+        assertEquals(expected, ISBNChecksum.validateISBN13Rows(direct, 1, 14, rows.length));
+        assertEquals(data.length, direct.position());
+        assertTrue(ISBNChecksum.validateISBN13Rows(direct, 0, 14, 0).isEmpty());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> ISBNChecksum.validateISBN13Rows(data, 1, 14, 6));
+        assertThrows(ISBNException.class, () -> ISBNChecksum.validateISBN13Rows(data, 0, 12, 1));
+    }
+
+    @Test
+    public void validateISBN13RowsLarge() {
+        // more rows than a chunk of a direct buffer, with a valid row on every third row
+        int count = 10_000;
+        byte[] data = new byte[count * ISBN.ISBN_13_LENGTH];
+        BitSet expected = new BitSet();
+        for (int i = 0; i < count; i++) {
+            long isbn12 = 978_000_000_000L + i;
+            char check = ISBN.isbn13CheckDigit(isbn12);
+            String row = Long.toString(isbn12) + (i % 3 == 0 ? check : (char) ('0' + (check - '0' + 1) % 10));
+            System.arraycopy(row.getBytes(StandardCharsets.US_ASCII), 0, data, i * ISBN.ISBN_13_LENGTH,
+                ISBN.ISBN_13_LENGTH);
+            expected.set(i, i % 3 == 0);
+        }
+        assertEquals(expected, ISBNChecksum.validateISBN13Rows(data, 0, ISBN.ISBN_13_LENGTH, count));
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data);
+        assertEquals(expected, ISBNChecksum.validateISBN13Rows(direct, 0, ISBN.ISBN_13_LENGTH, count));
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.c5h12o5.isbn;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ISBNExtractorTest {
+
+    private static final String TEXT = "id,isbn,title\n"
+        + "1,978-7-03-038722-6,Foo\n"
+        + "2,7-03-014726-x,Bar\n"
+        + "3,page 12 9791220008525\n"
+        + "4,9787030387220,wrong check digit\n"
+        + "5,12345678901234567890,too long\n"
+        + "6,ISBN:703014726X;ISBN 978 7 03 038722 6";
+
+    @Test
+    public void extract() throws IOException {
+        List<String> found = new ArrayList<>();
+        long count = new ISBNExtractor().extract(new ByteArrayInputStream(TEXT.getBytes(StandardCharsets.US_ASCII)),
+            (offset, length, isbn13) -> found.add(TEXT.substring((int) offset, (int) offset + length) + "=" + isbn13));
+
+        assertEquals(5, count);
+        assertEquals(Arrays.asList(
+            "978-7-03-038722-6=9787030387226",
+            "7-03-014726-x=9787030147264",
+            "9791220008525=9791220008525",
+            "703014726X=9787030147264",
+            "978 7 03 038722 6=9787030387226"), found);
+    }
+
+    @Test
+    public void trailingText() {
+        assertExtracted("9787030387226 2019 edition", "9787030387226");
+        assertExtracted("ISBN 978-7-03-038722-6 X-ray", "978-7-03-038722-6");
+        assertExtracted("price 12 9787030387226", "9787030387226");
+        assertExtracted("703014726X 2019-12-31 and 978 7 03 014726 4 12", "703014726X", "978 7 03 014726 4");
+        assertExtracted("7 03 014726 X-ray", "7 03 014726 X");
+        assertExtracted("978-7-03-038722-6 7-03-014726-X", "978-7-03-038722-6", "7-03-014726-X");
+    }
+
+    private static void assertExtracted(String text, String... expected) {
+        List<String> found = new ArrayList<>();
+        new ISBNExtractor().extract(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)),
+            (offset, length, isbn13) -> found.add(text.substring((int) offset, (int) offset + length)));
+        assertEquals(Arrays.asList(expected), found);
+    }
+
+    @Test
+    public void extractObjects() throws IOException {
+        List<ISBNObject> found = new ArrayList<>();
+        new ISBNExtractor().extract(new ByteArrayInputStream(TEXT.getBytes(StandardCharsets.US_ASCII)), found::add);
+
+        assertEquals(5, found.size());
+        assertEquals(new ISBNObject("978", "7", "03", "038722"), found.get(0));
+        assertEquals(new ISBNObject("979", "12", "200", "0852"), found.get(2));
+    }
+
+    @Test
+    public void extractBuffer() {
+        ByteBuffer buffer = ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.US_ASCII));
+        assertEquals(5, new ISBNExtractor().extract(buffer, (offset, length, isbn13) -> { }));
+        assertEquals(0, buffer.position());
+        assertEquals(0, new ISBNExtractor().extract(ByteBuffer.allocate(0), (offset, length, isbn13) -> { }));
+    }
+
+    @Test
+    public void extractMapped() throws IOException {
+        Path file = Files.createTempFile("isbn", ".csv");
+        try {
+            Files.write(file, TEXT.getBytes(StandardCharsets.US_ASCII));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                List<Long> found = new ArrayList<>();
+                assertEquals(5,
+                    new ISBNExtractor().extractMapped(channel, (offset, length, isbn13) -> found.add(offset)));
+                assertEquals(TEXT.indexOf("978-7-03"), (long) found.get(0));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.c5h12o5.isbn;
+
+import io.github.c5h12o5.isbn.ISBNMetrics.Operation;
+import io.github.c5h12o5.isbn.range.RangeCache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ISBNMetricsTest {
+
+    private final LongAdderISBNMetrics metrics = new LongAdderISBNMetrics();
+
+    @Before
+    public void install() {
+        ISBN.setMetrics(metrics);
+    }
+
+    @After
+    public void uninstall() {
+        ISBN.setMetrics(ISBNMetrics.NOOP);
+    }
+
+    @Test
+    public void operations() {
+        assertSame(metrics, ISBN.getMetrics());
+        ISBN.parse("978-7-03-038722-6");
+        ISBN.parse("977-7-03-038722-6");
+        ISBN.isValid("7-03-014726-X");
+        ISBN.isValidISBN13("978-7-03-038722-6");
+        ISBN.formatISBN13("703014726X", "-");
+        ISBN.formatISBN10("979-12-200-0852-5", "-");
+        ISBN.formatISBN13To("978-7-03-038722-6", '-', new StringBuilder());
+
+        assertEquals(2, metrics.getCallCount(Operation.PARSE));
+        assertEquals(1, metrics.getSuccessCount(Operation.PARSE));
+        assertEquals(1, metrics.getFailureCount(Operation.PARSE));
+        assertEquals(2, metrics.getSuccessCount(Operation.VALIDATE));
+        assertEquals(3, metrics.getCallCount(Operation.FORMAT));
+        assertEquals(1, metrics.getFailureCount(Operation.FORMAT));
+        assertEquals(1, metrics.getFailureCount(ParseError.UNKNOWN_GS1_PREFIX));
+
+        // the GS1 prefix 979 cannot be formatted to ISBN-10
+        assertEquals(1, metrics.getFailureCount((ParseError) null));
+
+        metrics.reset();
+        assertEquals(0, metrics.getCallCount(Operation.PARSE));
+    }
+
+    @Test
+    public void failures() {
+        ISBN.parse("invalid");
+        ISBN.parse("97870303872X");
+        ISBN.parse("979-0-00-000000-0");
+        ISBN.parse("978-99988-9-99-9-9");
+        ISBN.isValid("978-7-03-038722");
+        ISBN.isValid("978-7-03-0387a2-6");
+        ISBN.isValid("978-7-03-038722-0");
+
+        assertEquals(2, metrics.getFailureCount(ParseError.INVALID_LENGTH));
+        assertEquals(2, metrics.getFailureCount(ParseError.INVALID_CHARACTER));
+        assertEquals(1, metrics.getFailureCount(ParseError.UNKNOWN_REGISTRATION_GROUP));
+        assertEquals(1, metrics.getFailureCount(ParseError.UNKNOWN_REGISTRANT));
+        assertEquals(1, metrics.getFailureCount(ParseError.INVALID_CHECK_DIGIT));
+        assertEquals(0, metrics.getFailureCount((ParseError) null));
+        assertEquals(3, metrics.getFailureCount(Operation.VALIDATE));
+    }
+
+    @Test
+    public void reload() throws IOException {
+        RangeCache cache = ISBN.rangeCache();
+        try (InputStream is = ISBN.class.getResourceAsStream("/RangeMessage.xml")) {
+            ISBN.loadRangeMessageFile(is);
+        } finally {
+            ISBN.setRangeCache(cache);
+        }
+        InputStream broken = new ByteArrayInputStream("<broken".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(ISBNException.class, () -> ISBN.loadRangeMessageFile(broken));
+        assertSame(cache, ISBN.rangeCache());
+
+        assertEquals(2, metrics.getReloadCount());
+        assertEquals(1, metrics.getReloadFailureCount());
+        assertTrue(metrics.getTotalReloadNanos() >= metrics.getLastReloadNanos());
+        assertThrows(ISBNException.class, () -> ISBN.setMetrics(null));
+    }
+}
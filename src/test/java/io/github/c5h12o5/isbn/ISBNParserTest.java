@@ -0,0 +1,88 @@
+package io.github.c5h12o5.isbn;
+
+import io.github.c5h12o5.isbn.range.RangeCache;
+import io.github.c5h12o5.isbn.range.RangeHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ISBNParserTest {
+
+    private final ISBNParser parser = new ISBNParser();
+
+    @Test
+    public void parse() {
+        ParsedISBN result = new ParsedISBN();
+        assertTrue(parser.parse("7-03-014726-X", result));
+        assertTrue(result.isValid());
+        assertNull(result.getError());
+        assertEquals(9787030147264L, result.getISBN13());
+        assertEquals(1, result.getRegistrationGroupLength());
+        assertEquals(2, result.getRegistrantLength());
+        assertEquals(6, result.getPublicationLength());
+        assertEquals('4', result.getISBN13CheckDigit());
+        assertEquals('X', result.getISBN10CheckDigit());
+        assertEquals('7', result.digitAt(3));
+
+        char[] digits = new char[15];
+        result.getDigits(digits, 2);
+        assertEquals("9787030147264", new String(digits, 2, 13));
+        assertEquals("978-7-03-014726-4", result.toISBN13("-"));
+        assertEquals("7-03-014726-X", result.toISBN10("-"));
+        assertEquals(ISBN.parse("7-03-014726-X"), result.toISBNObject());
+        assertEquals(PackedISBN.parse("7-03-014726-X"), result.toPacked());
+
+        // the result is overwritten by the next parsing
+        assertTrue(parser.parse("979-12-200-0852-5", result));
+        assertEquals(PackedISBN.NO_CHECK_DIGIT, result.getISBN10CheckDigit());
+        assertNull(result.toISBN10("-"));
+        assertEquals("979-12-200-0852-5", result.toISBN13("-"));
+    }
+
+    @Test
+    public void boundRangeCache() throws IOException {
+        RangeCache cache;
+        try (InputStream is = ISBNParserTest.class.getResourceAsStream("/RangeMessage.xml")) {
+            cache = RangeHandler.parse(is);
+        }
+
+        // the elements come from the range cache of the parser, not the current one
+        ParsedISBN result = new ParsedISBN();
+        assertTrue(new ISBNParser(cache).parse("978-7-03-038722-6", result));
+        ISBNObject isbnObject = result.toISBNObject();
+        assertSame(cache.internRegistrant(978703038722L, 1, 2), isbnObject.getRegistrant());
+        assertNotSame(ISBN.rangeCache().internRegistrant(978703038722L, 1, 2), isbnObject.getRegistrant());
+    }
+
+    @Test
+    public void errors() {
+        ParsedISBN result = new ParsedISBN();
+        assertError(ParseError.INVALID_LENGTH, null, result);
+        assertError(ParseError.INVALID_LENGTH, "invalid", result);
+        assertError(ParseError.INVALID_LENGTH, "978-7-03-038722-6-1", result);
+        assertError(ParseError.INVALID_CHARACTER, "97870303872X", result);
+        assertError(ParseError.UNKNOWN_GS1_PREFIX, "977-7-03-038722-6", result);
+        assertError(ParseError.UNKNOWN_REGISTRATION_GROUP, "979-0-00-000000-0", result);
+        assertError(ParseError.UNKNOWN_REGISTRANT, "978-99988-9-99-9-9", result);
+
+        assertNull(result.toISBNObject());
+        assertNull(result.toISBN13("-"));
+        assertEquals(PackedISBN.INVALID, result.toPacked());
+        assertThrows(ISBNException.class, result::getISBN13);
+    }
+
+    private void assertError(ParseError expected, String code, ParsedISBN result) {
+        assertFalse(parser.parse(code, result));
+        assertEquals(expected, result.getError());
+        assertNull(ISBN.parse(code));
+    }
+}
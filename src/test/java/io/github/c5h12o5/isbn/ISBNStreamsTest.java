@@ -0,0 +1,100 @@
+package io.github.c5h12o5.isbn;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ISBNStreamsTest {
+
+    private static final List<String> CODES = Arrays.asList("7-03-014726-X", "invalid", "9791220008525",
+        "978 7 03 038722 6", "978-0-00");
+
+    @Test
+    public void formatFunctions() {
+        Function<CharSequence, String> isbn13 = ISBNStreams.formatISBN13("-");
+        Function<CharSequence, String> isbn10 = ISBNStreams.formatISBN10(null);
+        for (String code : CODES) {
+            assertEquals(ISBN.formatISBN13(code, "-"), isbn13.apply(code));
+            assertEquals(ISBN.formatISBN10(code), isbn10.apply(code));
+        }
+        assertNull(isbn13.apply("invalid"));
+
+        List<String> codes = IntStream.range(0, 10_000).mapToObj(i -> CODES.get(i % CODES.size()))
+            .collect(Collectors.toList());
+        assertEquals(codes.stream().map(code -> ISBN.formatISBN13(code, "-")).collect(Collectors.toList()),
+            codes.parallelStream().map(isbn13).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void packed() {
+        long[] packed = CODES.stream().mapToLong(ISBNStreams.toPacked()).toArray();
+        for (int i = 0; i < packed.length; i++) {
+            assertEquals(PackedISBN.parse(CODES.get(i)), packed[i]);
+        }
+        assertArrayEquals(new String[]{"978-7-03-014726-4", "979-12-200-0852-5", "978-7-03-038722-6"},
+            ISBNStreams.packed(packed).mapToObj(ISBNStreams.formatPackedISBN13('-')).toArray());
+        assertEquals(1, ISBNStreams.packed(packed, 1, 3).count());
+        assertThrows(IndexOutOfBoundsException.class, () -> ISBNStreams.packed(packed, 2, 6));
+    }
+
+    @Test
+    public void enumerate() {
+        PrimitiveIterator.OfLong iterator = ISBNStreams.enumerate("978-7-03").iterator();
+        assertEquals("978-7-03-000000-2", PackedISBN.toISBN13(iterator.nextLong(), "-"));
+        assertEquals("978-7-03-000001-9", PackedISBN.toISBN13(iterator.nextLong(), "-"));
+        assertEquals(1_000_000, ISBNStreams.enumerate("9787 03").count());
+        assertEquals(0, ISBNStreams.enumerate("977").count());
+
+        // verify a block crossing the registration groups and registrants against the lookups of all numbers
+        long[] expected = LongStream.range(978_999_000_000L, 979_000_000_000L)
+            .filter(isbn12 -> ISBN.rangeCache().findElementLengths(isbn12) >= 0)
+            .map(isbn12 -> PackedISBN.pack(isbn12, ISBN.rangeCache().findElementLengths(isbn12))).toArray();
+        assertTrue(expected.length > 0 && expected.length < 1_000_000);
+        assertArrayEquals(expected, ISBNStreams.enumerate("978-999").toArray());
+        assertArrayEquals(expected, ISBNStreams.enumerate("978-999").parallel().toArray());
+        long[] advanced = new long[expected.length];
+        Spliterator.OfLong spliterator = ISBNStreams.enumerate("978999").spliterator();
+        for (int i = 0; i < advanced.length; i++) {
+            int index = i;
+            assertTrue(spliterator.tryAdvance((long packed) -> advanced[index] = packed));
+        }
+        assertArrayEquals(expected, advanced);
+
+        assertThrows(ISBNException.class, () -> ISBNStreams.enumerate(""));
+        assertThrows(ISBNException.class, () -> ISBNStreams.enumerate("978-X"));
+        assertThrows(ISBNException.class, () -> ISBNStreams.enumerate("9787030387226"));
+    }
+
+    @Test
+    public void packedSpliterator() {
+        long[] packed = new long[100_000];
+        long expected = 0;
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = (i % 7 == 0) ? PackedISBN.INVALID : PackedISBN.parse("978-7-03-038722-6") + i * 10L;
+            expected += (packed[i] == PackedISBN.INVALID) ? 0 : packed[i];
+        }
+        assertEquals(expected, ISBNStreams.packed(packed).parallel().sum());
+        assertArrayEquals(Arrays.stream(packed).filter(value -> value != PackedISBN.INVALID).toArray(),
+            ISBNStreams.packed(packed).parallel().toArray());
+
+        Spliterator.OfLong spliterator = new PackedISBNSpliterator(packed, 0, packed.length);
+        Spliterator.OfLong prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(packed.length / 2, prefix.estimateSize());
+        assertNull(new PackedISBNSpliterator(packed, 0, 100).trySplit());
+    }
+}
@@ -1,15 +1,42 @@
 package io.github.c5h12o5.isbn;
 
+import io.github.c5h12o5.isbn.range.RangeCache;
+import io.github.c5h12o5.isbn.range.RangeCacheListener;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 public class ISBNTest {
@@ -32,6 +59,151 @@ public class ISBNTest {
         assertTrue(ISBN.isValid("9787030387226"));
     }
 
+    @Test
+    public void rangeCacheListener() throws Exception {
+        List<RangeCache> changes = new CopyOnWriteArrayList<>();
+        CountDownLatch reloaded = new CountDownLatch(1);
+        RangeCacheListener listener = (previous, current) -> {
+            changes.add(current);
+            reloaded.countDown();
+        };
+        ISBN.addRangeCacheListener(listener);
+        RangeCache original = ISBN.rangeCache();
+
+        // the watcher reloads the range message file once it is created
+        Path dir = Files.createTempDirectory("isbn");
+        Path file = dir.resolve("RangeMessage.xml");
+        try (RangeFileWatcher watcher = new RangeFileWatcher(file)) {
+            try (InputStream is = ISBNTest.class.getResourceAsStream("/TestRangeMessage.xml")) {
+                Files.copy(is, file);
+            }
+            assertTrue(reloaded.await(20, TimeUnit.SECONDS));
+            assertFalse(ISBN.isValid("9787030387226"));
+        } finally {
+            ISBN.setRangeCache(original);
+            ISBN.removeRangeCacheListener(listener);
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+        assertTrue(ISBN.isValid("9787030387226"));
+        assertSame(original, changes.get(changes.size() - 1));
+        assertThrows(ISBNException.class, () -> ISBN.setRangeCache(null));
+    }
+
+    @Test
+    public void throwingRangeCacheListener() {
+        List<Throwable> errors = new ArrayList<>();
+        List<RangeCache> changes = new ArrayList<>();
+        RangeCacheListener throwing = (previous, current) -> {
+            throw new IllegalStateException("listener");
+        };
+        RangeCacheListener recording = (previous, current) -> changes.add(current);
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        thread.setUncaughtExceptionHandler((t, e) -> errors.add(e));
+        ISBN.addRangeCacheListener(throwing);
+        ISBN.addRangeCacheListener(recording);
+        try {
+            // the listener after the throwing one is still notified, and the caller does not see the exception
+            RangeCache cache = ISBN.rangeCache();
+            ISBN.setRangeCache(cache);
+            assertEquals(Collections.singletonList(cache), changes);
+            assertEquals(1, errors.size());
+            assertEquals("listener", errors.get(0).getMessage());
+        } finally {
+            ISBN.removeRangeCacheListener(throwing);
+            ISBN.removeRangeCacheListener(recording);
+            thread.setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    @Test
+    public void inputOverloads() {
+        String line = "isbn=978-7-03-038722-6;";
+        char[] chars = line.toCharArray();
+        byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer heap = ByteBuffer.wrap(bytes);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        int offset = 5;
+        int length = 17;
+
+        assertEquals(ISBN.parse("978-7-03-038722-6"), ISBN.parse(new StringBuilder("978-7-03-038722-6")));
+        assertEquals(ISBN.parse("978-7-03-038722-6"), ISBN.parse(chars, offset, length));
+        assertEquals(ISBN.parse("978-7-03-038722-6"), ISBN.parse(bytes, offset, length));
+        assertEquals(ISBN.parse("978-7-03-038722-6"), ISBN.parse(direct, offset, length));
+
+        assertEquals("9787030387226", ISBN.compact(chars, offset, length));
+        assertEquals("9787030387226", ISBN.compact(bytes, offset, length));
+        assertEquals("9787030387226", ISBN.compact(heap, offset, length));
+        assertTrue(ISBN.isValid(chars, offset, length));
+        assertTrue(ISBN.isValid(bytes, offset, length));
+        assertTrue(ISBN.isValid(direct, offset, length));
+        assertFalse(ISBN.isValid(bytes, offset, length - 1));
+        assertEquals("7-03-038722-8", ISBN.formatISBN10(chars, offset, length, "-"));
+        assertEquals("7 03 038722 8", ISBN.formatISBN10(direct, offset, length, " "));
+        assertEquals("9787030387226", ISBN.formatISBN13(bytes, offset, length, null));
+        assertEquals("9787030387226", ISBN.formatISBN13(heap.slice(), offset, length, ""));
+
+        // non-ASCII bytes are invalid characters, and null arrays are null inputs
+        byte[] utf8 = "978\u20137\u201303\u2013038722\u20136".getBytes(StandardCharsets.UTF_8);
+        assertFalse(ISBN.isValid(utf8, 0, utf8.length));
+        assertFalse(ISBN.isValid((byte[]) null, 0, 0));
+        assertNull(ISBN.compact((char[]) null, 0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> ISBN.isValid(bytes, offset, bytes.length));
+    }
+
+    @Test
+    public void formatTo() throws IOException {
+        StringWriter writer = new StringWriter();
+        assertTrue(ISBN.formatISBN13To("7-03-014726-X", '-', writer));
+        assertTrue(ISBN.formatISBN10To("9787030147264", PackedISBN.NO_SEPARATOR, writer));
+        assertFalse(ISBN.formatISBN10To("9791220008525", '-', writer));
+        assertFalse(ISBN.formatISBN13To("invalid", '-', writer));
+        assertEquals("978-7-03-014726-4703014726X", writer.toString());
+
+        StringBuilder sb = new StringBuilder("[");
+        assertTrue(ISBN.formatISBN13To("9791220008525", ' ', sb));
+        assertEquals("[979 12 200 0852 5", sb.toString());
+
+        byte[] bytes = new byte[20];
+        assertEquals(13, ISBN.formatISBN10To("9787030147264", '-', bytes, 1));
+        assertEquals("7-03-014726-X", new String(bytes, 1, 13, StandardCharsets.US_ASCII));
+        assertEquals(0, ISBN.formatISBN10To("9791220008525", '-', bytes, 0));
+        assertEquals(-1, ISBN.formatISBN10To("invalid", '-', bytes, 0));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(30);
+        assertEquals(17, ISBN.formatISBN13To("7-03-014726-X", '-', buffer));
+        assertEquals(13, ISBN.formatISBN13To("7-03-014726-X", PackedISBN.NO_SEPARATOR, buffer));
+        assertEquals(-1, ISBN.formatISBN13To(null, '-', buffer));
+        assertThrows(BufferOverflowException.class, () -> ISBN.formatISBN13To("7-03-014726-X", '-', buffer));
+        assertEquals(30, buffer.position());
+        buffer.flip();
+        assertEquals("978-7-03-014726-49787030147264", StandardCharsets.US_ASCII.decode(buffer).toString());
+
+        // the ISBN object writes the same output
+        ISBNObject isbnObject = ISBN.parse("7-03-014726-X");
+        StringWriter objectWriter = new StringWriter();
+        isbnObject.formatISBN13To('-', objectWriter);
+        assertTrue(isbnObject.formatISBN10To(PackedISBN.NO_SEPARATOR, objectWriter));
+        assertEquals("978-7-03-014726-4703014726X", objectWriter.toString());
+        StringBuilder objectSb = new StringBuilder();
+        assertTrue(isbnObject.formatISBN10To(' ', objectSb));
+        assertEquals("7 03 014726 X", objectSb.toString());
+        assertEquals(13, isbnObject.formatISBN10To('-', bytes, 0));
+        assertEquals("7-03-014726-X", new String(bytes, 0, 13, StandardCharsets.US_ASCII));
+        ByteBuffer heap = ByteBuffer.allocate(17);
+        assertEquals(17, isbnObject.formatISBN13To('-', heap));
+        assertEquals("978-7-03-014726-4", new String(heap.array(), StandardCharsets.US_ASCII));
+        assertThrows(BufferOverflowException.class, () -> isbnObject.formatISBN13To('-', heap));
+
+        // both report an ISBN with a GS1 prefix other than 978 in the same way
+        ISBNObject isbnObject979 = ISBN.parse("9791220008525");
+        assertFalse(isbnObject979.formatISBN10To('-', objectSb));
+        assertEquals(0, isbnObject979.formatISBN10To('-', bytes, 0));
+        assertEquals(0, isbnObject979.formatISBN10To('-', heap));
+        assertEquals("7 03 014726 X", objectSb.toString());
+    }
+
     @Test
     public void parse() {
         assertNull(ISBN.parse(null));
@@ -45,6 +217,59 @@ public class ISBNTest {
         assertEquals(new ISBNObject("978", "7", "03", "038722"), ISBN.parse(" ISBN = 978-7-03-038722-6 "));
     }
 
+    @Test
+    public void parseSharedElements() {
+        ISBNObject isbnA = ISBN.parse("978-7-03-038722-6");
+        ISBNObject isbnB = ISBN.parse("7-03-014726-X");
+        assertSame(isbnA.getGS1Prefix(), isbnB.getGS1Prefix());
+        assertSame(isbnA.getRegistrationGroup(), isbnB.getRegistrationGroup());
+        assertSame(isbnA.getRegistrant(), isbnB.getRegistrant());
+
+        // the forms without separators are cached
+        assertSame(isbnA.toISBN13(), isbnA.toISBN13(""));
+        assertSame(isbnA.toISBN10(), isbnA.toISBN10(null));
+        assertEquals("978-7-03-038722-6", isbnA.toISBN13("-"));
+        assertNull(ISBN.parse("979-12-200-0852-5").toISBN10("-"));
+        assertNull(ISBN.parse("979-12-200-0852-5").toISBN10());
+    }
+
+    @Test
+    public void writeTo() throws Exception {
+        ISBNObject[] isbnObjects = {
+            ISBN.parse("978-7-03-038722-6"), ISBN.parse("979-12-200-0852-5"), new ISBNObject("97", "x", null, "1")
+        };
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        isbnObjects[0].writeTo(out);
+        assertEquals(8, bytes.size());
+        isbnObjects[1].writeTo(out);
+        isbnObjects[2].writeTo(out);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (ISBNObject isbnObject : isbnObjects) {
+            assertEquals(isbnObject, ISBNObject.readFrom(in));
+        }
+
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(serialized)) {
+            objectOut.writeObject(isbnObjects);
+        }
+        try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(serialized.toByteArray()))) {
+            ISBNObject[] copy = (ISBNObject[]) objectIn.readObject();
+            assertArrayEquals(isbnObjects, copy);
+            assertSame(isbnObjects[0].getRegistrant(), copy[0].getRegistrant());
+        }
+
+        // a wrong check digit in the packed form
+        DataInputStream invalid = new DataInputStream(new ByteArrayInputStream(new byte[] {0, 0, 0, 0, 0, 0, 0, 1}));
+        assertThrows(ISBNException.class, () -> ISBNObject.readFrom(invalid));
+
+        // the stored element lengths are kept even if the loaded ranges split the ISBN in another way
+        ByteArrayOutputStream stale = new ByteArrayOutputStream();
+        new DataOutputStream(stale).writeLong(PackedISBN.pack(978703038722L, 1 << 4 | 3));
+        assertEquals(new ISBNObject("978", "7", "030", "38722"),
+            ISBNObject.readFrom(new DataInputStream(new ByteArrayInputStream(stale.toByteArray()))));
+    }
+
     @Test
     public void compact() {
         assertNull(ISBN.compact(null));
@@ -97,6 +322,12 @@ public class ISBNTest {
         assertFalse(ISBN.isValid("7-0301-4726-X"));
         assertFalse(ISBN.isValid("978-70-3-038722-6"));
         assertFalse(ISBN.isValid("978-7-0303-8722-6"));
+
+        assertTrue(ISBN.isValid("978_7_03_038722_6"));
+        assertFalse(ISBN.isValid("978-7 03-038722-6"));
+        assertFalse(ISBN.isValid("7-03 014726-X"));
+        assertFalse(ISBN.isValid("7-03-014726-x"));
+        assertFalse(ISBN.isValid("978-7-03-0387226-"));
     }
 
     @Test
@@ -132,6 +363,44 @@ public class ISBNTest {
         assertFalse(ISBN.isValidISBN10("978-7-03-038722-6"));
     }
 
+    @Test
+    public void analyze() {
+        ISBNAnalysis analysis = ISBN.analyze("978-7-03-038722-6");
+        assertTrue(analysis.isValid());
+        assertTrue(analysis.isValidISBN13());
+        assertFalse(analysis.isValidISBN10());
+        assertNull(analysis.getError());
+        assertEquals(ISBN.parse("9787030387226"), analysis.getISBNObject());
+        assertTrue(ISBN.analyze("7-03-014726-X").isValidISBN10());
+        assertTrue(ISBN.analyze("703014726X").isValidISBN10());
+        assertTrue(ISBN.analyze("9787030387226").isValidISBN13());
+
+        // the parsed elements are kept for an input which is not valid
+        analysis = ISBN.analyze("978-7-03-038722-0");
+        assertEquals(ParseError.INVALID_CHECK_DIGIT, analysis.getError());
+        assertEquals("978-7-03-038722-6", analysis.getISBNObject().toISBN13("-"));
+
+        assertAnalysis(ParseError.INVALID_LENGTH, null);
+        assertAnalysis(ParseError.INVALID_LENGTH, "978-7-03-038722");
+        assertAnalysis(ParseError.INVALID_CHARACTER, "978-7-03-0387a2-6");
+        assertAnalysis(ParseError.INVALID_CHARACTER, "978703038722X");
+        assertAnalysis(ParseError.INVALID_CHARACTER, "703014726x");
+        assertAnalysis(ParseError.MIXED_SEPARATORS, "978-7-03 038722-6");
+        assertAnalysis(ParseError.INVALID_CHECK_DIGIT, "7030147260");
+        assertAnalysis(ParseError.UNKNOWN_GS1_PREFIX, "9777030387227");
+        assertAnalysis(ParseError.UNKNOWN_REGISTRATION_GROUP, "9790000000001");
+        assertAnalysis(ParseError.MISPLACED_SEPARATOR, "978-7-030-38722-6");
+        assertAnalysis(ParseError.MISPLACED_SEPARATOR, "7-030-14726-X");
+    }
+
+    private void assertAnalysis(ParseError expected, String isbn) {
+        ISBNAnalysis analysis = ISBN.analyze(isbn);
+        assertEquals(expected, analysis.getError());
+        assertFalse(analysis.isValid());
+        assertFalse(ISBN.isValid(isbn));
+        assertEquals(ISBN.parse(isbn), analysis.getISBNObject());
+    }
+
     @Test
     public void testEquals() {
         assertFalse(ISBN.equals(null, null));
@@ -147,6 +416,24 @@ public class ISBNTest {
         assertTrue(ISBN.equals("9787030387226", "978-7-03-038722-6"));
     }
 
+    @Test
+    public void normalizedKey() {
+        assertEquals(ISBN.INVALID_KEY, ISBN.normalizedKey(null));
+        assertEquals(ISBN.INVALID_KEY, ISBN.normalizedKey("978-7-03-038722-0"));
+        assertEquals(ISBN.INVALID_KEY, ISBN.normalizedKey("978-70-3-038722-6"));
+        assertEquals(9787030147264L, ISBN.normalizedKey("7-03-014726-X"));
+        assertEquals(9787030147264L, ISBN.normalizedKey("978 7 03 014726 4"));
+        assertEquals(9791220008525L, ISBN.normalizedKey("979-12-200-0852-5"));
+        assertEquals(PackedISBN.isbn13(PackedISBN.parse("7030387228")), ISBN.normalizedKey("7030387228"));
+        assertTrue(ISBN.equals(new StringBuilder("7030387228"), "978-7-03-038722-6"));
+
+        List<String> isbns = new ArrayList<>(Arrays.asList("979-12-200-0852-5", "invalid", "9787030387226",
+            "7-03-014726-X"));
+        isbns.sort(ISBN.comparator());
+        assertEquals(Arrays.asList("invalid", "7-03-014726-X", "9787030387226", "979-12-200-0852-5"), isbns);
+        assertEquals(0, ISBN.comparator().compare("703014726X", "978-7-03-014726-4"));
+    }
+
     @Test
     public void formatISBN13() {
         assertEquals("9787030147264", ISBN.formatISBN13("7-03-014726-X"));
@@ -170,4 +457,61 @@ public class ISBNTest {
         assertNull(ISBN.formatISBN10("9798602405453"));
         assertNull(ISBN.formatISBN10("9798602405453", "-"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void validateAll() {
+        String[] isbns = {"703014726X", null, "978-7-03-038722-6", "7030147260", "978 7 03 038722 6"};
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2);
+        expected.set(4);
+        assertEquals(expected, ISBN.validateAll(isbns));
+        assertEquals(expected, ISBN.validateAll(Arrays.asList(isbns)));
+        assertTrue(ISBN.validateAll(new String[0]).isEmpty());
+    }
+
+    @Test
+    public void formatISBN13All() {
+        List<String> isbns = Arrays.asList("7-03-014726-X", "   ", null, "9791220008525");
+        String[] output = new String[isbns.size()];
+        assertEquals(2, ISBN.formatISBN13All(isbns, "-", output));
+        assertArrayEquals(new String[] {"978-7-03-014726-4", null, null, "979-12-200-0852-5"}, output);
+
+        assertEquals(1, ISBN.formatISBN13All(new String[] {"703014726X"}, null, output));
+        assertEquals("9787030147264", output[0]);
+        assertThrows(ISBNException.class, () -> ISBN.formatISBN13All(isbns, "-", new String[1]));
+    }
+
+    @Test
+    public void formatISBN13Parallel() throws InterruptedException {
+        String[] samples = {"7-03-014726-X", "invalid", "9791220008525", null, "9787030387226"};
+        List<String> isbns = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            isbns.add(samples[i % samples.length]);
+        }
+
+        BulkResult result = ISBN.formatISBN13Parallel(isbns, "-");
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            BulkResult executorResult = ISBN.formatISBN13Parallel(isbns, "-", executor);
+            assertArrayEquals(result.getResults(), executorResult.getResults());
+            assertEquals(result.getFailures(), executorResult.getFailures());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(isbns.size(), result.size());
+        assertEquals(4000, result.getFailureCount());
+        for (int i = 0; i < isbns.size(); i++) {
+            assertEquals(ISBN.formatISBN13(isbns.get(i), "-"), result.get(i));
+            assertEquals(result.get(i) == null, result.isFailed(i));
+        }
+
+        // the returned arrays are copies, so the result is not changed through them
+        result.getResults()[0] = null;
+        result.getFailures().set(0);
+        assertEquals("978-7-03-014726-4", result.get(0));
+        assertFalse(result.isFailed(0));
+        assertEquals(0, ISBN.formatISBN13Parallel(Collections.emptyList(), "-").size());
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.c5h12o5.isbn;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class PackedISBNTest {
+
+    @Test
+    public void parse() {
+        assertEquals(PackedISBN.INVALID, PackedISBN.parse(null));
+        assertEquals(PackedISBN.INVALID, PackedISBN.parse("invalid"));
+
+        long packed = PackedISBN.parse("7-03-014726-X");
+        assertEquals(9787030147264L, PackedISBN.isbn13(packed));
+        assertEquals(978, PackedISBN.gs1Prefix(packed));
+        assertEquals(1, PackedISBN.registrationGroupLength(packed));
+        assertEquals(2, PackedISBN.registrantLength(packed));
+        assertEquals(6, PackedISBN.publicationLength(packed));
+        assertEquals('4', PackedISBN.isbn13CheckDigit(packed));
+        assertEquals('X', PackedISBN.isbn10CheckDigit(packed));
+
+        long packed979 = PackedISBN.parse("9791220008525");
+        assertEquals(979, PackedISBN.gs1Prefix(packed979));
+        assertEquals(PackedISBN.NO_CHECK_DIGIT, PackedISBN.isbn10CheckDigit(packed979));
+    }
+
+    @Test
+    public void convert() {
+        ISBNObject isbnObject = new ISBNObject("978", "7", "03", "038722");
+        long packed = PackedISBN.pack(isbnObject);
+        assertEquals(packed, isbnObject.toPacked());
+        assertEquals(packed, PackedISBN.parse("978-7-03-038722-6"));
+        assertEquals(isbnObject, PackedISBN.toISBNObject(packed));
+
+        assertNull(PackedISBN.toISBNObject(PackedISBN.INVALID));
+        assertEquals(PackedISBN.INVALID, PackedISBN.pack(null));
+        assertEquals(PackedISBN.INVALID, PackedISBN.pack(new ISBNObject("978", "7", "0a", "038722")));
+        assertEquals(PackedISBN.INVALID, PackedISBN.pack(new ISBNObject("978", "7", "03", "0387")));
+    }
+
+    @Test
+    public void isWellFormed() {
+        long packed = PackedISBN.parse("978-7-03-014726-4");
+        assertTrue(PackedISBN.isWellFormed(packed));
+        assertFalse(PackedISBN.isWellFormed(packed + 1));
+        assertFalse(PackedISBN.isWellFormed(PackedISBN.INVALID));
+        assertFalse(PackedISBN.isWellFormed(packed | 1L << 52));
+
+        // crafted values which are consistent with the check digit, but not produced by parsing
+        assertFalse(PackedISBN.isWellFormed(PackedISBN.pack(1_000_000_000_000L, 1 << 4 | 2)));
+        assertFalse(PackedISBN.isWellFormed(PackedISBN.pack(978703014726L, 2)));
+        assertFalse(PackedISBN.isWellFormed(PackedISBN.pack(978703014726L, 1 << 4)));
+        assertFalse(PackedISBN.isWellFormed(PackedISBN.pack(978703014726L, 5 << 4 | 5)));
+    }
+
+    @Test
+    public void format() throws IOException {
+        long packed = PackedISBN.parse("9791220008525");
+        assertEquals("979-12-200-0852-5", PackedISBN.toISBN13(packed, "-"));
+        assertEquals("9791220008525", PackedISBN.toISBN13(packed, null));
+        assertEquals("979  12  200  0852  5", PackedISBN.toISBN13(packed, "  "));
+        assertNull(PackedISBN.toISBN10(packed, "-"));
+        assertNull(PackedISBN.toISBN13(PackedISBN.INVALID, "-"));
+
+        long packed978 = PackedISBN.parse("703014726X");
+        assertEquals("7 03 014726 X", PackedISBN.toISBN10(packed978, " "));
+        assertEquals("703014726X", PackedISBN.toISBN10(packed978, ""));
+
+        StringBuilder sb = new StringBuilder("ISBN ");
+        assertEquals("ISBN 979-12-200-0852-5", PackedISBN.formatISBN13(packed, '-', sb).toString());
+        assertEquals("7-03-014726-X", PackedISBN.formatISBN10(packed978, '-', new StringBuilder()).toString());
+        assertEquals("", PackedISBN.formatISBN10(packed, '-', new StringBuilder()).toString());
+
+        char[] chars = new char[20];
+        assertEquals(13, PackedISBN.formatISBN13(packed978, PackedISBN.NO_SEPARATOR, chars, 2));
+        assertEquals("9787030147264", new String(chars, 2, 13));
+        assertEquals(13, PackedISBN.formatISBN10(packed978, '_', chars, 0));
+        assertEquals("7_03_014726_X", new String(chars, 0, 13));
+        assertEquals(0, PackedISBN.formatISBN10(packed, '_', chars, 0));
+
+        // all destinations write the same characters
+        byte[] bytes = new byte[17];
+        assertEquals(17, PackedISBN.formatISBN13(packed, '-', bytes, 0));
+        assertEquals("979-12-200-0852-5", new String(bytes, StandardCharsets.US_ASCII));
+        ByteBuffer direct = ByteBuffer.allocateDirect(13);
+        assertEquals(13, PackedISBN.formatISBN10(packed978, '-', direct));
+        direct.flip();
+        assertEquals("7-03-014726-X", StandardCharsets.US_ASCII.decode(direct).toString());
+        assertEquals(0, PackedISBN.formatISBN10(packed, '-', ByteBuffer.allocate(0)));
+        ByteBuffer heap = ByteBuffer.wrap(new byte[20], 2, 18).slice();
+        heap.put((byte) '#');
+        assertEquals(13, PackedISBN.formatISBN13(packed978, PackedISBN.NO_SEPARATOR, heap));
+        assertEquals(14, heap.position());
+        assertEquals("#9787030147264", new String(heap.array(), 2, 14, StandardCharsets.US_ASCII));
+        StringWriter writer = new StringWriter();
+        PackedISBN.formatISBN13(packed978, ' ', writer);
+        PackedISBN.formatISBN10(packed, ' ', writer);
+        assertEquals("978 7 03 014726 4", writer.toString());
+
+        // the invalid value is rejected rather than formatted
+        assertThrows(ISBNException.class, () -> PackedISBN.formatISBN13(PackedISBN.INVALID, '-', new StringBuilder()));
+        assertThrows(ISBNException.class, () -> PackedISBN.formatISBN10(PackedISBN.INVALID, '-', chars, 0));
+        assertThrows(ISBNException.class, () -> PackedISBN.formatISBN10(PackedISBN.INVALID, '-', bytes, 0));
+        assertThrows(ISBNException.class, () -> PackedISBN.formatISBN13(PackedISBN.INVALID, '-', direct));
+        assertThrows(ISBNException.class, () -> PackedISBN.formatISBN10(PackedISBN.INVALID, '-', writer));
+    }
+}
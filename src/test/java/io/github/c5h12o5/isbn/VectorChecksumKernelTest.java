@@ -0,0 +1,18 @@
+package io.github.c5h12o5.isbn;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This test only runs in the {@code java17} profile against the packaged multi-release jar with the
+ * {@code jdk.incubator.vector} module added, together with {@link ISBNChecksumTest} which then covers the vectorized
+ * kernel.
+ */
+public class VectorChecksumKernelTest {
+
+    @Test
+    public void vectorized() {
+        assertTrue(ChecksumKernel.isVectorized());
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.c5h12o5.isbn.collection;
+
+import io.github.c5h12o5.isbn.ISBNException;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ISBNSetTest {
+
+    @Test
+    public void set() {
+        ISBNSet set = new ISBNSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add("978-7-03-038722-6"));
+        assertFalse(set.add("7-03-038722-0"));
+        assertFalse(set.add("9787030387226"));
+        assertFalse(set.add("invalid"));
+        assertEquals(1, set.size());
+
+        assertTrue(set.contains("7030387220"));
+        assertTrue(set.containsKey(9787030387226L));
+        assertFalse(set.contains("978-7-03-014726-4"));
+
+        assertTrue(set.remove("978 7 03 038722 6"));
+        assertFalse(set.remove("978-7-03-038722-6"));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void collector() {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            codes.add((i % 2 == 0) ? "978-7-03-038722-6" : "7-03-" + String.format("%06d", i) + "-X");
+        }
+        codes.add("7-03-014726-X");
+        codes.add("invalid");
+
+        ISBNSet expected = new ISBNSet();
+        codes.forEach(expected::add);
+        ISBNSet sequential = codes.stream().collect(ISBNCollectors.toISBNSet());
+        ISBNSet parallel = codes.parallelStream().collect(ISBNCollectors.toISBNSet(() -> new ISBNSet(0,
+            SlotStorage.direct())));
+        assertEquals(expected.size(), sequential.size());
+        assertEquals(expected.size(), parallel.size());
+        expected.forEach(key -> assertTrue(parallel.containsKey(key)));
+        assertTrue(parallel.contains("9787030147264"));
+
+        assertFalse(parallel.addAll(sequential));
+        assertTrue(new ISBNSet().addAll(parallel));
+    }
+
+    @Test(expected = ISBNException.class)
+    public void invalidKey() {
+        new ISBNSet().addKey(0L);
+    }
+
+    @Test
+    public void maps() {
+        ISBNIntMap intMap = new ISBNIntMap();
+        assertTrue(intMap.put("978-7-03-038722-6", 1));
+        assertFalse(intMap.putIfAbsent("7-03-038722-0", 2));
+        assertEquals(1, intMap.get("7030387220", -1));
+        assertEquals(-1, intMap.get("invalid", -1));
+        intMap.putKey(9787030387226L, 3);
+        assertEquals(3, intMap.getKey(9787030387226L, -1));
+
+        ISBNLongMap longMap = new ISBNLongMap(0, SlotStorage.direct());
+        assertTrue(longMap.putIfAbsent("9791220008525", Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, longMap.get("979-12-200-0852-5", 0L));
+        assertTrue(longMap.remove("979-12-200-0852-5"));
+        assertFalse(longMap.contains("979-12-200-0852-5"));
+    }
+
+    @Test
+    public void storages() throws IOException {
+        File file = File.createTempFile("isbn-set", ".bin");
+        file.deleteOnExit();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+            verify(new ISBNLongMap(0, SlotStorage.heap()));
+            verify(new ISBNLongMap(0, SlotStorage.direct()));
+            verify(new ISBNLongMap(0, SlotStorage.mapped(channel)));
+
+            // the sets of a parallel collector share the storage, and must not share its regions
+            SlotStorage storage = SlotStorage.mapped(channel);
+            ISBNSet expected = new ISBNSet();
+            List<String> codes = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                codes.add("7-03-" + String.format("%06d", i) + "-X");
+                expected.add(codes.get(i));
+            }
+            ISBNSet parallel = codes.parallelStream().collect(ISBNCollectors.toISBNSet(() -> new ISBNSet(0, storage)));
+            assertEquals(expected.size(), parallel.size());
+            expected.forEach(key -> assertTrue(parallel.containsKey(key)));
+        }
+    }
+
+    /**
+     * Verify the map against a {@link HashSet} with random keys, including resizing and removing.
+     */
+    private static void verify(ISBNLongMap map) {
+        Random random = new Random(8);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = 9_780_000_000_000L + random.nextInt(100_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.removeKey(key));
+            } else {
+                assertEquals(expected.add(key), map.putKeyIfAbsent(key, key * 2));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key : expected) {
+            assertEquals(key * 2, map.getKey(key, -1L));
+        }
+        int[] count = {0};
+        map.forEach((key, value) -> {
+            assertTrue(expected.contains(key));
+            count[0]++;
+        });
+        assertEquals(expected.size(), count[0]);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(expected.iterator().next()));
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.c5h12o5.isbn.range;
+
+import io.github.c5h12o5.isbn.ISBNException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class RangeCacheTest {
+
+    private static RangeCache rangeCache;
+
+    @BeforeClass
+    public static void loadRangeMessageFile() throws Exception {
+        try (InputStream is = RangeCacheTest.class.getResourceAsStream("/RangeMessage.xml")) {
+            RangeHandler rangeHandler = new RangeHandler();
+            SAXParserFactory.newInstance().newSAXParser().parse(is, rangeHandler);
+            rangeCache = rangeHandler.getResult();
+        }
+    }
+
+    @Test
+    public void findRegistrationGroup() {
+        assertNull(rangeCache.findRegistrationGroup(null, "978703038722"));
+        assertNull(rangeCache.findRegistrationGroup("977", "977703038722"));
+        assertNull(rangeCache.findRegistrationGroup("97a", "97a703038722"));
+
+        assertEquals("7", rangeCache.findRegistrationGroup("978", "978703038722"));
+        assertEquals("99988", rangeCache.findRegistrationGroup("978", "978999880800"));
+        assertEquals("8", rangeCache.findRegistrationGroup("979", "979860240545"));
+    }
+
+    @Test
+    public void findElementLengthsEnd() {
+        // walk all intervals of the GS1 prefixes 977 to 979, and verify the lengths inside each of them
+        Random random = new Random(25);
+        long isbn12 = 977_000_000_000L;
+        int intervals = 0;
+        while (isbn12 < 980_000_000_000L) {
+            long end = rangeCache.findElementLengthsEnd(isbn12);
+            assertTrue(end > isbn12);
+            int lengths = rangeCache.findElementLengths(isbn12);
+            assertEquals(lengths, rangeCache.findElementLengths(end - 1));
+            for (int i = 0; i < 4; i++) {
+                long inside = isbn12 + (long) (random.nextDouble() * (end - isbn12));
+                assertEquals(lengths, rangeCache.findElementLengths(inside));
+            }
+            isbn12 = end;
+            intervals++;
+        }
+        assertTrue(intervals > 1000);
+
+        assertEquals(978_710_000_000L, rangeCache.findElementLengthsEnd(978_703_038_722L));
+        assertThrows(ISBNException.class, () -> rangeCache.findElementLengthsEnd(1_000_000_000_000L));
+    }
+
+    @Test
+    public void findRegistrant() {
+        assertNull(rangeCache.findRegistrant("9787", null));
+        assertNull(rangeCache.findRegistrant("9770", "977012345678"));
+        assertEquals("00", rangeCache.findRegistrant("9780", "9780"));
+
+        assertEquals("03", rangeCache.findRegistrant("9787", "978703038722"));
+        assertEquals("0", rangeCache.findRegistrant("97899988", "978999880800"));
+        assertEquals("6024", rangeCache.findRegistrant("9798", "979860240545"));
+    }
+
+    @Test
+    public void findElementLength() {
+        assertEquals(1, rangeCache.findRegistrationGroupLength(978703038722L));
+        assertEquals(2, rangeCache.findRegistrantLength(978703038722L, 1));
+        assertEquals(5, rangeCache.findRegistrationGroupLength(978999880800L));
+        assertEquals(1, rangeCache.findRegistrantLength(978999880800L, 5));
+
+        // unknown GS1 prefix and unassigned ranges
+        assertTrue(rangeCache.findRegistrationGroupLength(977703038722L) < 0);
+        assertEquals(0, rangeCache.findRegistrationGroupLength(979000000000L));
+    }
+
+    @Test
+    public void internElements() {
+        assertSame(rangeCache.internGS1Prefix(978703038722L), rangeCache.internGS1Prefix(978703014726L));
+        assertSame(rangeCache.internRegistrationGroup(978703038722L, 1),
+            rangeCache.internRegistrationGroup(978703014726L, 1));
+        assertSame(rangeCache.internRegistrant(978703038722L, 1, 2), rangeCache.internRegistrant(978703014726L, 1, 2));
+        assertEquals("99988", rangeCache.internRegistrationGroup(978999880800L, 5));
+        assertEquals("0", rangeCache.internRegistrant(978999880800L, 5, 1));
+
+        // leading zeros are kept, and the elements outside the ranges are still created
+        assertEquals("00", rangeCache.internRegistrant(978000123456L, 1, 2));
+        assertEquals("977", rangeCache.internGS1Prefix(977012345678L));
+        assertEquals("01", rangeCache.internRegistrationGroup(977012345678L, 2));
+    }
+
+    @Test
+    public void findElementLengths() {
+        assertEquals(1 << 4 | 2, rangeCache.findElementLengths(978703038722L));
+        assertEquals(5 << 4 | 1, rangeCache.findElementLengths(978999880800L));
+        assertEquals(-1, rangeCache.findElementLengths(977703038722L));
+        assertEquals(-1, rangeCache.findElementLengths(979000000000L));
+        assertEquals(-1, rangeCache.findElementLengths(-1L));
+        assertTrue(rangeCache.getAutomatonStateCount() > 1);
+
+        // the automaton gives the same results as the lookup tables around the boundaries of every rule
+        Map<String, List<Range>> ranges = new HashMap<>(rangeCache.getRegistrationGroupRanges());
+        ranges.putAll(rangeCache.getRegistrantRanges());
+        for (Map.Entry<String, List<Range>> entry : ranges.entrySet()) {
+            long prefix = Long.parseLong(entry.getKey());
+            int prefixLength = entry.getKey().length();
+            for (Range range : entry.getValue()) {
+                int[] boundaries = {range.getStart() - 1, range.getStart(), range.getEnd(), range.getEnd() + 1};
+                for (int number : boundaries) {
+                    if (number >= 0 && number <= 9_999_999) {
+                        assertElementLengths(toISBN12(prefix, prefixLength, number));
+                    }
+                }
+            }
+        }
+    }
+
+    private static long toISBN12(long prefix, int prefixLength, int number) {
+        long isbn12 = prefix;
+        for (int i = prefixLength; i < 12; i++) {
+            int index = i - prefixLength;
+            isbn12 = isbn12 * 10 + (index < 7 ? String.format("%07d", number).charAt(index) - '0' : 0);
+        }
+        return isbn12;
+    }
+
+    private static void assertElementLengths(long isbn12) {
+        int expected = -1;
+        int groupLength = rangeCache.findRegistrationGroupLength(isbn12);
+        if (groupLength > 0) {
+            int registrantLength = rangeCache.findRegistrantLength(isbn12, groupLength);
+            if (registrantLength > 0 && 3 + groupLength + registrantLength <= 12) {
+                expected = groupLength << 4 | registrantLength;
+            }
+        }
+        assertEquals(String.valueOf(isbn12), expected, rangeCache.findElementLengths(isbn12));
+    }
+
+    @Test
+    public void writeTo() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        rangeCache.writeTo(new DataOutputStream(bytes));
+        RangeCache copy = RangeCache.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertSameRanges(rangeCache, copy);
+
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(rangeCache);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized.toByteArray()))) {
+            assertSameRanges(rangeCache, (RangeCache) in.readObject());
+        }
+
+        byte[] corrupted = bytes.toByteArray();
+        corrupted[0]++;
+        assertThrows(ISBNException.class,
+            () -> RangeCache.readFrom(new DataInputStream(new ByteArrayInputStream(corrupted))));
+    }
+
+    private static void assertSameRanges(RangeCache expected, RangeCache actual) {
+        assertEquals(expected.getMessageDate(), actual.getMessageDate());
+        assertEquals(expected.getAutomatonStateCount(), actual.getAutomatonStateCount());
+        assertEquals(expected.getRegistrantRanges().keySet(), actual.getRegistrantRanges().keySet());
+        for (long isbn12 = 978_000_000_000L; isbn12 < 980_000_000_000L; isbn12 += 7_777_777L) {
+            assertEquals(expected.findElementLengths(isbn12), actual.findElementLengths(isbn12));
+        }
+    }
+
+    @Test
+    public void builder() {
+        Range range = new Range();
+        range.setRange("0000000-5999999");
+        range.setLength("1");
+        RangeCache.Builder builder = RangeCache.builder().messageDate("Sat, 11 Nov 2023 11:11:11 CST")
+            .addRegistrationGroupRange("978", range);
+        RangeCache cache = builder.build();
+        assertEquals(1, cache.findRegistrationGroupLength(978103038722L));
+        assertEquals(2023, cache.getMessageDate().getYear());
+
+        // the built cache is not affected by the builder afterwards
+        builder.addRegistrationGroupRange("979", range);
+        assertTrue(cache.findRegistrationGroupLength(979103038722L) < 0);
+        assertEquals(1, builder.build().findRegistrationGroupLength(979103038722L));
+        assertEquals(-1, builder.build().findElementLengths(979103038722L));
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.c5h12o5.isbn.range;
+
+import io.github.c5h12o5.isbn.ISBNException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class RangeDiffTest {
+
+    private static RangeCache previous;
+    private static RangeCache current;
+
+    @BeforeClass
+    public static void loadRangeCaches() {
+        try (InputStream is = RangeDiffTest.class.getResourceAsStream("/RangeMessage.xml")) {
+            previous = RangeHandler.parse(is);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        // split the registrants 978-7-100 to 978-7-199 into 978-7-1000 to 978-7-1999
+        RangeCache.Builder builder = RangeCache.builder();
+        for (Map.Entry<String, List<Range>> entry : previous.getRegistrationGroupRanges().entrySet()) {
+            entry.getValue().forEach(range -> builder.addRegistrationGroupRange(entry.getKey(), range));
+        }
+        for (Map.Entry<String, List<Range>> entry : previous.getRegistrantRanges().entrySet()) {
+            for (Range range : entry.getValue()) {
+                if (entry.getKey().equals("9787") && range.getStart() == 1_000_000) {
+                    builder.addRegistrantRange("978-7", new Range(1_000_000, 1_999_999, 4));
+                    builder.addRegistrantRange("978-7", new Range(2_000_000, range.getEnd(), range.getLength()));
+                } else {
+                    builder.addRegistrantRange(entry.getKey(), range);
+                }
+            }
+        }
+        current = builder.build();
+    }
+
+    @Test
+    public void between() {
+        RangeDiff diff = RangeDiff.between(previous, current);
+        assertEquals(1, diff.getIntervalCount());
+        assertEquals(9_787_100_000_000L, diff.getStart(0));
+        assertEquals(9_787_200_000_000L, diff.getEnd(0));
+        assertEquals(10_000_000L, diff.getAffectedCount());
+
+        assertTrue(diff.isAffected(9_787_111_234_562L));
+        assertTrue(diff.isAffected("7-111-23456-1"));
+        assertFalse(diff.isAffected("978-7-03-038722-6"));
+        assertFalse(diff.isAffected("7-111-23456-0"));
+        assertFalse(diff.isAffected(9_787_200_000_002L));
+
+        assertTrue(RangeDiff.between(previous, previous).isEmpty());
+        assertEquals(RangeDiff.between(null, previous).getAffectedCount(),
+            RangeDiff.between(previous, RangeCache.builder().build()).getAffectedCount());
+        assertThrows(ISBNException.class, () -> RangeDiff.between(previous, null));
+    }
+
+    @Test
+    public void affectedIfLengthsDiffer() {
+        RangeDiff diff = RangeDiff.between(previous, current);
+        Random random = new Random(25);
+        for (int i = 0; i < 100_000; i++) {
+            long isbn12 = 978_700_000_000L + (long) (random.nextDouble() * 2_000_000_000L);
+            boolean changed = previous.findElementLengths(isbn12) != current.findElementLengths(isbn12);
+            assertEquals(changed, diff.isAffected(isbn12 * 10));
+        }
+    }
+}
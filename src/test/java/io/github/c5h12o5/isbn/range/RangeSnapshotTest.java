@@ -0,0 +1,105 @@
+package io.github.c5h12o5.isbn.range;
+
+import io.github.c5h12o5.isbn.ISBNException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class RangeSnapshotTest {
+
+    @Test
+    public void convert() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        RangeCache expected;
+        try (InputStream is = RangeSnapshotTest.class.getResourceAsStream("/RangeMessage.xml")) {
+            expected = RangeSnapshot.convert(is, os);
+        }
+        byte[] snapshot = os.toByteArray();
+
+        // the snapshot read from a stream and from a buffer are the same as the parsed range message file
+        for (RangeCache actual : Arrays.asList(RangeSnapshot.read(new ByteArrayInputStream(snapshot)),
+            RangeSnapshot.read(ByteBuffer.wrap(snapshot)))) {
+            assertEquals(expected.getMessageDate(), actual.getMessageDate());
+            for (long isbn12 : new long[]{978703038722L, 978999880800L, 979860240545L, 979000000000L}) {
+                int groupLength = expected.findRegistrationGroupLength(isbn12);
+                assertEquals(groupLength, actual.findRegistrationGroupLength(isbn12));
+                assertEquals(expected.findRegistrantLength(isbn12, groupLength),
+                    actual.findRegistrantLength(isbn12, groupLength));
+            }
+            assertEquals("03", actual.findRegistrant("9787", "978703038722"));
+        }
+    }
+
+    @Test
+    public void invalid() {
+        assertThrows(ISBNException.class, () -> RangeSnapshot.read(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6})));
+        assertThrows(ISBNException.class, () -> RangeSnapshot.read(ByteBuffer.wrap(new byte[]{0x49, 0x53, 0x42})));
+
+        ByteBuffer version = ByteBuffer.allocate(6).putInt(RangeSnapshot.MAGIC).putShort((short) 99);
+        version.flip();
+        assertThrows(ISBNException.class, () -> RangeSnapshot.read(version));
+    }
+
+    @Test
+    public void malformed() {
+        // header (14 bytes), group section with one prefix "978" and one rule, then an empty registrant section
+        ByteBuffer valid = snapshot(Long.MIN_VALUE, "978", 0, 5_999_999, (byte) 1);
+        assertEquals(1, RangeSnapshot.read(valid).getRegistrationGroupRanges().get("978").size());
+
+        assertThrows(ISBNException.class, () -> RangeSnapshot.read(snapshot(Long.MAX_VALUE, "978", 0, 1, (byte) 1)));
+        assertThrows(ISBNException.class, () -> RangeSnapshot.read(snapshot(Long.MIN_VALUE, "97X", 0, 1, (byte) 1)));
+        assertThrows(ISBNException.class, () -> RangeSnapshot.read(snapshot(Long.MIN_VALUE, "978", 2, 1, (byte) 1)));
+        assertThrows(ISBNException.class,
+            () -> RangeSnapshot.read(snapshot(Long.MIN_VALUE, "978", 0, 10_000_000, (byte) 1)));
+        assertThrows(ISBNException.class, () -> RangeSnapshot.read(snapshot(Long.MIN_VALUE, "978", 0, 1, (byte) 8)));
+        assertThrows(ISBNException.class, () -> RangeSnapshot.read(snapshot(Long.MIN_VALUE, "978", 0, 1, (byte) 0)));
+        assertThrows(ISBNException.class,
+            () -> RangeSnapshot.read(snapshot(Long.MIN_VALUE, "978000000", 0, 1, (byte) 1)));
+
+        ByteBuffer trailing = ByteBuffer.allocate(valid.remaining() + 1).put(valid.duplicate()).put((byte) 0);
+        trailing.flip();
+        assertThrows(ISBNException.class, () -> RangeSnapshot.read(trailing));
+    }
+
+    @Test
+    public void corrupted() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (InputStream is = RangeSnapshotTest.class.getResourceAsStream("/RangeMessage.xml")) {
+            RangeSnapshot.convert(is, os);
+        }
+        byte[] snapshot = os.toByteArray();
+
+        // a corrupted snapshot is either loaded or rejected by ISBNException, nothing else escapes
+        Random random = new Random(10);
+        for (int i = 0; i < 1000; i++) {
+            byte[] corrupted = snapshot.clone();
+            corrupted[random.nextInt(corrupted.length)] = (byte) random.nextInt(256);
+            try {
+                RangeSnapshot.read(ByteBuffer.wrap(corrupted));
+            } catch (ISBNException e) {
+                // rejected
+            }
+        }
+    }
+
+    /**
+     * Create a snapshot with a registration group section of a single rule and an empty registrant section.
+     */
+    private static ByteBuffer snapshot(long messageDate, String prefix, int start, int end, byte length) {
+        ByteBuffer buffer = ByteBuffer.allocate(64).putInt(RangeSnapshot.MAGIC).putShort(RangeSnapshot.VERSION)
+            .putLong(messageDate).putInt(1).put((byte) prefix.length()).put(prefix.getBytes(StandardCharsets.US_ASCII))
+            .putShort((short) 1).putInt(start).putInt(end).put(length).putInt(0);
+        buffer.flip();
+        return buffer;
+    }
+}